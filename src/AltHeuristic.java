@@ -0,0 +1,232 @@
+/**
+ * AltHeuristic: The ALT (A*, Landmarks, Triangle inequality) heuristic.
+ *
+ *      A few landmark vertices L are chosen and the distances from every L to
+ * every vertex and from every vertex to every L are computed once with ordinary
+ * single-source searches (forward on the graph, backward on its reverse). The
+ * triangle inequality then gives two lower bounds on d(v, t) per landmark:
+ *      d(v, t) >= d(v, L) - d(t, L)
+ *      d(v, t) >= d(L, t) - d(L, v)
+ * and the estimate is the largest of them. A bound is skipped when one of its
+ * distances is infinite, so the estimate never overestimates. Landmarks are
+ * picked "farthest first": each new landmark is the vertex farthest from the
+ * ones chosen so far, which tends to put them around the edge of the graph where
+ * the bounds are tight.
+ *
+ *      The tables can be written to a file and read back, so the precomputation
+ * is paid once per graph.
+ *
+ * File format (all numbers little-endian ints):
+ *      magic "ALTL", version (1), k, n, the k landmarks,
+ *      k rows of n distances from each landmark, k rows of n distances to it
+ *
+ * Usage:
+ *      AltHeuristic alt = AltHeuristic.build(engine, 8, seed);
+ *      alt.write("graph.alt");
+ *      AltHeuristic alt = AltHeuristic.read("graph.alt", graph);
+ *      int d = engine.aStarDistance(source, target, alt);
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+public class AltHeuristic implements Heuristic
+{
+    private static final int MAGIC = 'A' | 'L' << 8 | 'T' << 16 | 'L' << 24;
+    private static final int VERSION = 1;
+    private static final int INFINITY = SearchState.INFINITY;
+
+    private final int[] landmarks;
+    private final int[][] from;     // from[i][v] = d(landmarks[i], v)
+    private final int[][] to;       // to[i][v] = d(v, landmarks[i])
+
+    /**
+     * Creates the heuristic from precomputed tables.
+     *      @param landmarks
+     *      @param from
+     *      @param to
+     */
+    private AltHeuristic(int[] landmarks, int[][] from, int[][] to)
+    {
+        this.landmarks = landmarks;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Picks k landmarks farthest-first and computes their distance tables.
+     *      @param engine - engine over the graph the queries will run on
+     *      @param k - number of landmarks
+     *      @param seed - picks the vertex the first landmark is farthest from
+     *      @return
+     */
+    public static AltHeuristic build(QueryEngine engine, int k, long seed)
+    {
+        CSRGraph graph = engine.getGraph();
+        int n = graph.getNumVertices();
+        k = Math.min(k, n);
+        QueryEngine backward = new QueryEngine(engine.getReverseGraph());
+
+        int[] landmarks = new int[k];
+        int[][] from = new int[k][];
+        int[][] to = new int[k][];
+
+        // closest[v] = distance from the nearest landmark so far
+        int[] closest = engine.distances(new Random(seed).nextInt(n));
+        for ( int i = 0; i < k; i++ )
+        {
+            // The farthest reachable vertex, or the first unreachable one
+            int best = 0;
+            for ( int v = 0; v < n; v++ )
+            {
+                if ( closest[v] == INFINITY || closest[v] > closest[best] )
+                {
+                    best = v;
+                    if ( closest[v] == INFINITY )
+                    {
+                        break;
+                    }
+                }
+            }
+
+            landmarks[i] = best;
+            from[i] = engine.distances(best);
+            to[i] = backward.distances(best);
+            for ( int v = 0; v < n; v++ )
+            {
+                closest[v] = i == 0 ? from[i][v] : Math.min(closest[v], from[i][v]);
+            }
+            closest[best] = 0;
+        }
+        return new AltHeuristic(landmarks, from, to);
+    }
+
+    /**
+     * Returns the largest landmark lower bound on the distance from v to target.
+     *      @param v
+     *      @param target
+     *      @return
+     */
+    public int estimate(int v, int target)
+    {
+        int best = 0;
+        for ( int i = 0; i < landmarks.length; i++ )
+        {
+            int[] toL = to[i];
+            if ( toL[v] != INFINITY && toL[target] != INFINITY && toL[v] - toL[target] > best )
+            {
+                best = toL[v] - toL[target];
+            }
+            int[] fromL = from[i];
+            if ( fromL[v] != INFINITY && fromL[target] != INFINITY && fromL[target] - fromL[v] > best )
+            {
+                best = fromL[target] - fromL[v];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the landmark vertices (0-based)
+     * @return
+     */
+    public int[] getLandmarks()
+    {
+        return landmarks.clone();
+    }
+
+    /**
+     * Writes the landmarks and their distance tables to a file.
+     *      @param filename
+     *      @throws IOException
+     */
+    public void write(String filename) throws IOException
+    {
+        int k = landmarks.length;
+        int n = k == 0 ? 0 : from[0].length;
+
+        try ( FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING) )
+        {
+            ByteBuffer buffer = ByteBuffer.allocate(4 * (4 + k)).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(k).putInt(n);
+            for ( int landmark : landmarks )
+            {
+                buffer.putInt(landmark);
+            }
+            GraphSnapshot.writeFully(channel, buffer);
+
+            ByteBuffer row = ByteBuffer.allocate(4 * n).order(ByteOrder.LITTLE_ENDIAN);
+            for ( int[][] table : new int[][][] { from, to } )
+            {
+                for ( int[] distances : table )
+                {
+                    row.clear();
+                    row.asIntBuffer().put(distances);
+                    GraphSnapshot.writeFully(channel, row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads tables written by write() for the given graph.
+     *      @param filename
+     *      @param graph - the graph the tables were built for
+     *      @return the heuristic, or null if the file cannot be read or does not
+     *              match the graph
+     */
+    public static AltHeuristic read(String filename, CSRGraph graph)
+    {
+        try ( FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ) )
+        {
+            ByteBuffer header = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+            GraphSnapshot.readFully(channel, header);
+            if ( header.getInt(0) != MAGIC || header.getInt(4) != VERSION )
+            {
+                throw new IOException("Not a landmark file: " + filename);
+            }
+            int k = header.getInt(8);
+            int n = header.getInt(12);
+            if ( n != graph.getNumVertices() || k < 0
+                    || channel.size() != 16 + 4L * k + 8L * k * n )
+            {
+                throw new IOException("Landmark file " + filename + " does not match the graph");
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(4 * k).order(ByteOrder.LITTLE_ENDIAN);
+            GraphSnapshot.readFully(channel, buffer);
+            int[] landmarks = new int[k];
+            buffer.asIntBuffer().get(landmarks);
+
+            int[][] from = new int[k][n];
+            int[][] to = new int[k][n];
+            ByteBuffer row = ByteBuffer.allocate(4 * n).order(ByteOrder.LITTLE_ENDIAN);
+            for ( int[][] table : new int[][][] { from, to } )
+            {
+                for ( int[] distances : table )
+                {
+                    GraphSnapshot.readFully(channel, row);
+                    IntBuffer ints = row.asIntBuffer();
+                    ints.get(distances);
+                }
+            }
+            return new AltHeuristic(landmarks, from, to);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Could not read file " + filename + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -1,9 +1,18 @@
 /** 
  * This main file is used to run the program in Indexer, which
  * 
+ * With arguments it runs BatchDriver instead, without any prompts:
+ *      java App --graph Test200vertices.txt --algorithm dijkstra4 --sources 1
+ *      java App --graph big.txt --parallel --sources 1     (parse the file on every core)
 */
 public class App {
     public static void main(String[] args) throws Exception {
+        if ( args.length > 0 )
+        {
+            BatchDriver.main(args);
+            return;
+        }
+
         Indexer a = new Indexer();
 
         System.out.println("The first (straightforward) implementation of solving the shortest path problem: " + "\n");
@@ -17,5 +26,13 @@ public class App {
         System.out.println("The second (heap) implementation of solving the shortest path problem (second ver): " + "\n");
         a.secondDijkstra2();
         a.printResults2second();
+
+        System.out.println("The heap implementation with an indexed 4-ary heap and decrease-key: " + "\n");
+        a.dijkstra3(4);
+        a.printResults3();
+
+        System.out.println("The bucket implementation (radix heap or Dial's buckets, picked from the max weight): " + "\n");
+        a.dijkstra4();
+        a.printResults4();
     }
 }
@@ -0,0 +1,505 @@
+/**
+ * BatchDriver: Runs shortest path searches from the command line without any
+ * dialogs, for scripts, pipelines and headless servers.
+ *
+ *      Indexer() and App prompt through ValidatedInputReader and always run
+ * every implementation. This driver takes everything as arguments, runs only
+ * the selected algorithm and writes its output through a ResultWriter (TSV,
+ * binary or varint, optionally gzipped), so it can be timed and piped like any
+ * other tool. With --time, the time spent inside the
+ * algorithm (not loading or writing) is reported on System.err; with --metrics
+ * the SearchMetrics of every search, added up by a MetricsRegistry, are too.
+ *
+ * Usage:
+ *      java BatchDriver --graph file [--algorithm dijkstra4] [--sources 1,5,9 | --sources all]
+ *                       [--queries pairs.txt] [--format tsv|binary|varint] [--gzip]
+ *                       [--reachable-only] [--vertices 2,7,9] [--output file] [--time]
+ *                       [--metrics json|prometheus] [--trace file] [--parallel]
+ *      java App --graph file ...       (the same; App only prompts without arguments)
+ *
+ *      --algorithm   dijkstra1, firstDijkstra2, secondDijkstra2, dijkstra3, dijkstra4
+ *                    (the Indexer implementations), dijkstra5 (overflow-safe), engine
+ *                    (QueryEngine), bidirectional (queries only). Default dijkstra4.
+ *      --sources     1-based starting vertices, or all. Default 1.
+ *      --queries     a file of "source target" lines (1-based, '#' starts a comment);
+ *                    each pair gets one distance instead of a whole row. engine and
+ *                    bidirectional stop at the target; the Indexer implementations
+ *                    search once per distinct source.
+ *      --gzip        compress the output with gzip (also implied by an --output ending in .gz)
+ *      --reachable-only, --vertices
+ *                    write only the reached vertices and/or the listed (1-based) vertices
+ *                    of every source row; they do not affect --queries
+ *      --output      a file, or - for System.out (the default)
+ *      --parallel    parse a text graph on every core (ParallelGraphReader)
+ *      --metrics     print the search counters and load/init/search/output times
+ *                    to System.err as JSON or Prometheus text
+ *      --trace       write the Trace events still in its buffer to a file (or - for
+ *                    System.err) at the end, one tab-separated line each; needs the
+ *                    JVM to run with -Ddijkstra.trace=true. Search vertices are 0-based
+ *
+ * Output:
+ *      tsv      one line "source<TAB>target<TAB>distance" per vertex of every source,
+ *               or per query; vertices 1-based, "inf" if unreachable
+ *      binary   little-endian: magic "DRES", version (1), kind, count, then per source
+ *               or per query the BINARY layout of ResultWriter; vertices 0-based,
+ *               -1 if unreachable. kind is 0 for rows, 1 for pairs, plus 2 when rows
+ *               are filtered ((vertex, distance) entries instead of n distances)
+ *      varint   the same header with 4 added to kind, then the VARINT layout
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+public class BatchDriver
+{
+    private static final int MAGIC = 'D' | 'R' << 8 | 'E' << 16 | 'S' << 24;
+    private static final int VERSION = 1;
+    private static final long INFINITY = Long.MAX_VALUE;
+
+    private final CSRGraph graph;
+    private final String algorithm;
+    private final QueryEngine engine;
+    private MetricsRegistry registry;   // null unless --metrics
+    private long nanos;             // time spent inside the algorithm
+
+    /**
+     * Creates a driver for one graph and algorithm.
+     *      @param graph
+     *      @param algorithm - one of the names listed above
+     */
+    public BatchDriver(CSRGraph graph, String algorithm)
+    {
+        switch ( algorithm )
+        {
+            case "dijkstra1": case "firstDijkstra2": case "secondDijkstra2": case "dijkstra3":
+            case "dijkstra4": case "dijkstra5": case "engine": case "bidirectional":
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown algorithm " + algorithm);
+        }
+        this.graph = graph;
+        this.algorithm = algorithm;
+        this.engine = new QueryEngine(graph);
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        String graphFile = null;
+        String algorithm = "dijkstra4";
+        String sources = "1";
+        String queries = null;
+        String format = "tsv";
+        String output = "-";
+        String vertices = null;
+        String metrics = null;
+        String trace = null;
+        boolean time = false;
+        boolean gzip = false;
+        boolean reachableOnly = false;
+        boolean parallel = false;
+
+        for ( int i = 0; i < args.length; i++ )
+        {
+            if ( args[i].equals("--time") )
+            {
+                time = true;
+                continue;
+            }
+            if ( args[i].equals("--gzip") )
+            {
+                gzip = true;
+                continue;
+            }
+            if ( args[i].equals("--reachable-only") )
+            {
+                reachableOnly = true;
+                continue;
+            }
+            if ( args[i].equals("--parallel") )
+            {
+                parallel = true;
+                continue;
+            }
+            if ( i + 1 == args.length )
+            {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            String value = args[++i];
+            switch ( args[i - 1] )
+            {
+                case "--graph":     graphFile = value; break;
+                case "--algorithm": algorithm = value; break;
+                case "--sources":   sources = value; break;
+                case "--queries":   queries = value; break;
+                case "--format":    format = value; break;
+                case "--output":    output = value; break;
+                case "--vertices":  vertices = value; break;
+                case "--metrics":   metrics = value; break;
+                case "--trace":     trace = value; break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+            }
+        }
+        if ( graphFile == null )
+        {
+            System.err.println("Usage: java BatchDriver --graph file [--algorithm name] [--sources 1,2|all]"
+                               + " [--queries file] [--format tsv|binary|varint] [--gzip] [--reachable-only]"
+                               + " [--vertices 1,2] [--output file] [--time] [--metrics json|prometheus]"
+                               + " [--trace file] [--parallel]");
+            System.exit(2);
+        }
+        ResultWriter.Format kind;
+        switch ( format )
+        {
+            case "tsv":     kind = ResultWriter.Format.TSV; break;
+            case "binary":  kind = ResultWriter.Format.BINARY; break;
+            case "varint":  kind = ResultWriter.Format.VARINT; break;
+            default:
+                throw new IllegalArgumentException("Unknown format " + format);
+        }
+        gzip |= output.endsWith(".gz");
+        if ( metrics != null && !metrics.equals("json") && !metrics.equals("prometheus") )
+        {
+            throw new IllegalArgumentException("Unknown metrics format " + metrics);
+        }
+        if ( trace != null && !Trace.ENABLED )
+        {
+            System.err.println("--trace records nothing unless java runs with -Ddijkstra.trace=true");
+        }
+
+        long loadStart = System.nanoTime();
+        CSRGraph graph = CSRGraph.load(graphFile, parallel);
+        if ( graph == null )
+        {
+            System.exit(1);
+        }
+        BatchDriver driver = new BatchDriver(graph, algorithm);
+        MetricsRegistry registry = null;
+        if ( metrics != null )
+        {
+            registry = new MetricsRegistry();
+            registry.recordLoad(System.nanoTime() - loadStart);
+            driver.setMetricsRegistry(registry);
+        }
+        long outputNanos = 0;
+
+        try ( ResultWriter writer = output.equals("-") ? ResultWriter.toStdout(kind, gzip)
+                                                       : ResultWriter.open(output, kind, gzip) )
+        {
+            writer.setReachableOnly(reachableOnly);
+            if ( vertices != null )
+            {
+                writer.setVertices(parseSources(vertices, graph.getNumVertices()));
+            }
+
+            if ( queries != null )
+            {
+                int[][] pairs = readQueries(queries, graph.getNumVertices());
+                long[] dist = driver.distances(pairs[0], pairs[1]);
+                long start = System.nanoTime();
+                header(writer, 1, dist.length);
+                for ( int i = 0; i < dist.length; i++ )
+                {
+                    writer.writePair(pairs[0][i], pairs[1][i], dist[i]);
+                }
+                outputNanos += System.nanoTime() - start;
+            }
+            else
+            {
+                int[] list = parseSources(sources, graph.getNumVertices());
+                header(writer, writer.isFiltered() ? 2 : 0, list.length);
+                for ( int source : list )
+                {
+                    long[] dist = driver.distances(source);
+                    long start = System.nanoTime();
+                    writer.writeRow(source, dist);
+                    outputNanos += System.nanoTime() - start;
+                }
+            }
+        }
+
+        if ( time )
+        {
+            System.err.printf("%s: %.3f ms in the algorithm%n", algorithm, driver.getNanos() / 1e6);
+        }
+        if ( registry != null )
+        {
+            registry.recordOutput(outputNanos);
+            System.err.print(metrics.equals("json") ? registry.toJson() + "\n" : registry.toPrometheus());
+        }
+        if ( trace != null )
+        {
+            writeTrace(trace);
+        }
+    }
+
+    /**
+     * Writes the events in the Trace buffer to a file, or to System.err for -.
+     *      @param filename
+     */
+    private static void writeTrace(String filename)
+    {
+        if ( filename.equals("-") )
+        {
+            Trace.dump(System.err);
+            return;
+        }
+        try ( PrintStream out = new PrintStream(filename) )
+        {
+            out.println("index\ttime\tthread\tkind\ta\tb\tc");
+            Trace.dump(out);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Could not write file " + filename);
+        }
+    }
+
+    /**
+     * Adds the metrics of every following search to a registry, or stops if null.
+     *      @param registry
+     */
+    public void setMetricsRegistry(MetricsRegistry registry)
+    {
+        this.registry = registry;
+        engine.setMetricsRegistry(registry);
+    }
+
+    /**
+     * Returns the nanoseconds spent inside the algorithm so far
+     * @return
+     */
+    public long getNanos()
+    {
+        return nanos;
+    }
+
+    /**
+     * Returns the distances from one source, Long.MAX_VALUE if unreachable.
+     *      @param source - 0-based starting vertex
+     *      @return
+     */
+    public long[] distances(int source)
+    {
+        if ( algorithm.equals("bidirectional") )
+        {
+            throw new IllegalArgumentException("bidirectional answers --queries only");
+        }
+
+        // Building the Indexer (allocating its arrays) is not timed, as in Benchmark
+        Indexer indexer = algorithm.equals("engine") ? null : new Indexer(graph, source + 1);
+        long start = System.nanoTime();
+        if ( algorithm.equals("dijkstra5") )
+        {
+            long[] dist = indexer.dijkstra5();
+            nanos += System.nanoTime() - start;
+            record(indexer);
+            return dist;
+        }
+        int[] dist = indexer == null ? engine.distances(source) : runIndexer(indexer);
+        nanos += System.nanoTime() - start;
+        if ( indexer != null )
+        {
+            record(indexer);
+        }
+        return widen(dist);
+    }
+
+    /**
+     * Returns the distance of every (sources[i], targets[i]) pair, Long.MAX_VALUE
+     * if unreachable.
+     *      @param sources - 0-based
+     *      @param targets - 0-based
+     *      @return
+     */
+    public long[] distances(int[] sources, int[] targets)
+    {
+        long[] result = new long[sources.length];
+        if ( algorithm.equals("engine") || algorithm.equals("bidirectional") )
+        {
+            boolean bidirectional = algorithm.equals("bidirectional");
+            long start = System.nanoTime();
+            for ( int i = 0; i < sources.length; i++ )
+            {
+                int d = bidirectional ? engine.bidirectionalDistance(sources[i], targets[i])
+                                      : engine.distance(sources[i], targets[i]);
+                result[i] = d == SearchState.INFINITY ? INFINITY : d;
+            }
+            nanos += System.nanoTime() - start;
+            return result;
+        }
+
+        // Whole-graph implementations: one search per distinct source, in source order
+        Integer[] order = new Integer[sources.length];
+        for ( int i = 0; i < order.length; i++ )
+        {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(sources[a], sources[b]));
+        long[] row = null;
+        for ( int k = 0; k < order.length; k++ )
+        {
+            int i = order[k];
+            if ( k == 0 || sources[i] != sources[order[k - 1]] )
+            {
+                row = distances(sources[i]);
+            }
+            result[i] = row[targets[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Adds the metrics of the Indexer's last run to the registry, if any.
+     *      @param indexer
+     */
+    private void record(Indexer indexer)
+    {
+        if ( registry != null )
+        {
+            registry.record(indexer.getMetrics());
+        }
+    }
+
+    /**
+     * Runs the selected Indexer implementation.
+     *      @param indexer
+     *      @return
+     */
+    private int[] runIndexer(Indexer indexer)
+    {
+        switch ( algorithm )
+        {
+            case "dijkstra1":       return indexer.dijkstra1();
+            case "firstDijkstra2":  return indexer.firstDijkstra2();
+            case "secondDijkstra2": return indexer.secondDijkstra2();
+            case "dijkstra3":       return indexer.dijkstra3(4);
+            default:                return indexer.dijkstra4();
+        }
+    }
+
+    /**
+     * Copies int distances into longs, turning int infinity into long infinity.
+     *      @param dist
+     *      @return
+     */
+    private static long[] widen(int[] dist)
+    {
+        long[] result = new long[dist.length];
+        for ( int v = 0; v < dist.length; v++ )
+        {
+            result[v] = dist[v] == SearchState.INFINITY ? INFINITY : dist[v];
+        }
+        return result;
+    }
+
+    /**
+     * Parses "all" or a comma-separated list of 1-based vertices.
+     *      @param list
+     *      @param n - number of vertices
+     *      @return 0-based vertices
+     */
+    private static int[] parseSources(String list, int n)
+    {
+        if ( list.equals("all") )
+        {
+            int[] all = new int[n];
+            for ( int v = 0; v < n; v++ )
+            {
+                all[v] = v;
+            }
+            return all;
+        }
+        String[] parts = list.split(",");
+        int[] sources = new int[parts.length];
+        for ( int i = 0; i < parts.length; i++ )
+        {
+            sources[i] = checkedVertex(Integer.parseInt(parts[i].trim()), n);
+        }
+        return sources;
+    }
+
+    /**
+     * Reads "source target" lines (1-based). Blank lines and text after '#' are ignored.
+     *      @param filename
+     *      @param n - number of vertices
+     *      @return { sources, targets }, 0-based
+     *      @throws IOException
+     */
+    private static int[][] readQueries(String filename, int n) throws IOException
+    {
+        int[] sources = new int[64];
+        int[] targets = new int[64];
+        int count = 0;
+        try ( BufferedReader reader = new BufferedReader(new FileReader(filename)) )
+        {
+            String line;
+            int lineNumber = 0;
+            while ( (line = reader.readLine()) != null )
+            {
+                lineNumber++;
+                int comment = line.indexOf('#');
+                String text = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                if ( text.isEmpty() )
+                {
+                    continue;
+                }
+                String[] parts = text.split("\\s+");
+                if ( parts.length != 2 )
+                {
+                    throw new IOException("Expected \"source target\" on line " + lineNumber + " of " + filename);
+                }
+                if ( count == sources.length )
+                {
+                    sources = Arrays.copyOf(sources, 2 * count);
+                    targets = Arrays.copyOf(targets, 2 * count);
+                }
+                sources[count] = checkedVertex(Integer.parseInt(parts[0]), n);
+                targets[count] = checkedVertex(Integer.parseInt(parts[1]), n);
+                count++;
+            }
+        }
+        return new int[][] { Arrays.copyOf(sources, count), Arrays.copyOf(targets, count) };
+    }
+
+    /**
+     * Checks a 1-based vertex and returns it 0-based.
+     *      @param vertex
+     *      @param n
+     *      @return
+     */
+    private static int checkedVertex(int vertex, int n)
+    {
+        if ( vertex < 1 || vertex > n )
+        {
+            throw new IllegalArgumentException("Vertex " + vertex + " is not between 1 and " + n);
+        }
+        return vertex - 1;
+    }
+
+    /**
+     * Writes the binary header; text output has none.
+     *      @param writer
+     *      @param kind - 0 rows, 1 pairs, 2 filtered rows (4 is added for varint)
+     *      @param count - number of rows or pairs
+     *      @throws IOException
+     */
+    private static void header(ResultWriter writer, int kind, int count) throws IOException
+    {
+        if ( writer.getFormat() == ResultWriter.Format.TSV )
+        {
+            return;
+        }
+        writer.writeInt(MAGIC);
+        writer.writeInt(VERSION);
+        writer.writeInt(writer.getFormat() == ResultWriter.Format.VARINT ? kind + 4 : kind);
+        writer.writeInt(count);
+    }
+}
@@ -0,0 +1,275 @@
+/**
+ * Benchmark: Headless timing harness for the Indexer algorithms.
+ *
+ *      For every combination of graph size, density and weight distribution,
+ * this class builds a seeded random graph, then runs each selected algorithm
+ * from random starting vertices. Every algorithm gets warmup runs (so the JIT has
+ * compiled it) before the measured runs. Nothing goes through Swing dialogs.
+ *
+ *      Only the algorithm call is measured; building the Indexer (allocating
+ * and resetting its distance arrays) happens before the timer starts.
+ *
+ * Usage:
+ *      java Benchmark [--sizes 1000,10000] [--degrees 4,16] [--weights uniform,small]
+ *                     [--algorithms dijkstra1,firstDijkstra2,...] [--warmup 5]
+ *                     [--iterations 20] [--seed 42] [--files a.txt,b.txt]
+ *
+ *      With --files, the listed adjacency files (e.g. written by GraphGenerator)
+ *      are benchmarked instead of the built-in random graphs.
+ *
+ *      Weight distributions:
+ *          uniform   weights in [1, 10000] like Test200vertices.txt
+ *          small     weights in [1, 16], where Dial's buckets are picked
+ *          heavy     weights in [1, 2^20], where the radix heap is picked
+ *
+ *      Algorithms: dijkstra1, firstDijkstra2, secondDijkstra2, dijkstra3 (4-ary
+ *      heap), dijkstra4 (automatic), radix, dial
+ *
+ * Output:
+ *      One line per run configuration with throughput (searches per second),
+ *      mean, p99 and maximum latency in microseconds, and bytes allocated per
+ *      search as reported by the JVM for the benchmark thread. With fewer than
+ *      100 measured runs p99 would just be the maximum, so it is printed as "-";
+ *      pass --iterations 1000 or more for a p99 worth reading.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Random;
+
+public class Benchmark
+{
+    private static final String[] ALL_ALGORITHMS = { "dijkstra1", "firstDijkstra2",
+        "secondDijkstra2", "dijkstra3", "dijkstra4", "radix", "dial" };
+
+    // Below this many measured runs the 99th percentile is the maximum
+    private static final int MIN_P99_ITERATIONS = 100;
+
+    // Keeps results alive so the JIT cannot drop a search as dead code
+    private static long blackhole;
+
+    public static void main(String[] args)
+    {
+        int[] sizes = { 1000, 10000 };
+        int[] degrees = { 4, 16 };
+        String[] weights = { "uniform", "small" };
+        String[] algorithms = ALL_ALGORITHMS;
+        int warmup = 5;
+        int iterations = 20;
+        long seed = 42;
+        String[] files = null;
+
+        for ( int i = 0; i + 1 < args.length; i += 2 )
+        {
+            String value = args[i + 1];
+            switch ( args[i] )
+            {
+                case "--sizes":      sizes = parseInts(value); break;
+                case "--degrees":    degrees = parseInts(value); break;
+                case "--weights":    weights = value.split(","); break;
+                case "--algorithms": algorithms = value.split(","); break;
+                case "--warmup":     warmup = Integer.parseInt(value); break;
+                case "--iterations": iterations = Integer.parseInt(value); break;
+                case "--seed":       seed = Long.parseLong(value); break;
+                case "--files":      files = value.split(","); break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        System.out.println("algorithm\tvertices\tedges\tweights\tops/s\tmean(us)\tp99(us)\tmax(us)\tbytes/op");
+        if ( files != null )
+        {
+            for ( String file : files )
+            {
+                CSRGraph graph = CSRGraph.load(file);
+                for ( String algorithm : algorithms )
+                {
+                    run(graph, file, algorithm, warmup, iterations, seed);
+                }
+            }
+            return;
+        }
+
+        for ( int n : sizes )
+        {
+            for ( int degree : degrees )
+            {
+                for ( String weight : weights )
+                {
+                    CSRGraph graph = randomGraph(n, degree, maxWeight(weight), seed);
+                    for ( String algorithm : algorithms )
+                    {
+                        run(graph, weight, algorithm, warmup, iterations, seed);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Warms up and then measures one algorithm on one graph, printing one line.
+     *      @param graph
+     *      @param weight - name of the weight distribution (or file), for the report
+     *      @param algorithm
+     *      @param warmup - number of unmeasured runs
+     *      @param iterations - number of measured runs
+     *      @param seed - seed for the starting vertices
+     */
+    private static void run(CSRGraph graph, String weight, String algorithm,
+                            int warmup, int iterations, long seed)
+    {
+        Random random = new Random(seed);
+        int n = graph.getNumVertices();
+
+        for ( int i = 0; i < warmup; i++ )
+        {
+            search(new Indexer(graph, random.nextInt(n) + 1), graph, algorithm);
+        }
+
+        long[] nanos = new long[iterations];
+        long allocated = 0;
+        for ( int i = 0; i < iterations; i++ )
+        {
+            Indexer indexer = new Indexer(graph, random.nextInt(n) + 1);
+
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+            search(indexer, graph, algorithm);
+            nanos[i] = System.nanoTime() - start;
+            allocated += allocatedBytes() - bytesBefore;
+        }
+
+        long total = 0;
+        for ( long t : nanos )
+        {
+            total += t;
+        }
+        Arrays.sort(nanos);
+        String p99 = "-";
+        if ( iterations >= MIN_P99_ITERATIONS )
+        {
+            p99 = String.format("%.1f", nanos[(int) Math.ceil(iterations * 0.99) - 1] / 1e3);
+        }
+
+        System.out.printf("%s\t%d\t%d\t%s\t%.1f\t%.1f\t%s\t%.1f\t%d%n", algorithm, n,
+                          graph.getNumEdges(), weight, iterations * 1e9 / total,
+                          total / 1e3 / iterations, p99, nanos[iterations - 1] / 1e3, allocated / iterations);
+    }
+
+    /**
+     * Runs the named algorithm once.
+     *      @param indexer - a fresh Indexer
+     *      @param graph
+     *      @param algorithm
+     */
+    private static void search(Indexer indexer, CSRGraph graph, String algorithm)
+    {
+        int[] dist;
+        switch ( algorithm )
+        {
+            case "dijkstra1":       dist = indexer.dijkstra1(); break;
+            case "firstDijkstra2":  dist = indexer.firstDijkstra2(); break;
+            case "secondDijkstra2": dist = indexer.secondDijkstra2(); break;
+            case "dijkstra3":       dist = indexer.dijkstra3(4); break;
+            case "dijkstra4":       dist = indexer.dijkstra4(); break;
+            case "radix":
+                dist = indexer.dijkstra4(new RadixHeap(graph.getNumVertices()));
+                break;
+            case "dial":
+                dist = indexer.dijkstra4(new DialQueue(graph.getNumVertices(), graph.getMaxWeight()));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown algorithm " + algorithm);
+        }
+        blackhole += dist[dist.length - 1];
+    }
+
+    /**
+     * Returns the bytes allocated so far by the current thread, or 0 if the JVM
+     * cannot tell.
+     *      @return
+     */
+    private static long allocatedBytes()
+    {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if ( bean instanceof com.sun.management.ThreadMXBean )
+        {
+            return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the largest weight for a named weight distribution.
+     *      @param weight
+     *      @return
+     */
+    private static int maxWeight(String weight)
+    {
+        switch ( weight )
+        {
+            case "uniform": return 10000;
+            case "small":   return 16;
+            case "heavy":   return 1 << 20;
+            default:
+                throw new IllegalArgumentException("Unknown weight distribution " + weight);
+        }
+    }
+
+    /**
+     * Builds a seeded random graph where every vertex has degree out-edges to
+     * uniformly chosen vertices, plus an edge to the next vertex so that every
+     * vertex is reachable.
+     *      @param n - number of vertices
+     *      @param degree - random out-edges per vertex
+     *      @param maxWeight - weights are uniform in [1, maxWeight]
+     *      @param seed
+     *      @return
+     */
+    private static CSRGraph randomGraph(int n, int degree, int maxWeight, long seed)
+    {
+        Random random = new Random(seed);
+        int perVertex = degree + 1;
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[n * perVertex];
+        int[] weights = new int[n * perVertex];
+
+        int e = 0;
+        for ( int v = 0; v < n; v++ )
+        {
+            targets[e] = (v + 1) % n;
+            weights[e] = random.nextInt(maxWeight) + 1;
+            e++;
+            for ( int k = 0; k < degree; k++ )
+            {
+                targets[e] = random.nextInt(n);
+                weights[e] = random.nextInt(maxWeight) + 1;
+                e++;
+            }
+            offsets[v + 1] = e;
+        }
+        return new ArrayCSRGraph(offsets, targets, weights);
+    }
+
+    /**
+     * Parses a comma separated list of ints.
+     *      @param list
+     *      @return
+     */
+    private static int[] parseInts(String list)
+    {
+        String[] parts = list.split(",");
+        int[] values = new int[parts.length];
+        for ( int i = 0; i < parts.length; i++ )
+        {
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * BufferCSRGraph: A CSRGraph whose offsets, targets and weights are IntBuffers
+ * instead of int arrays.
+ *
+ *      The buffers are used as they are, never copied, so they can be views of
+ * a memory-mapped GraphSnapshot: the graph is ready as soon as the file is
+ * mapped and the operating system pages edges in as the search touches them.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.nio.IntBuffer;
+
+public final class BufferCSRGraph extends CSRGraph
+{
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer weights;
+
+    /**
+     * Creates a graph over existing buffers. Only absolute gets are used, so the
+     * buffers' positions do not matter.
+     *      @param offsets - numVer + 1 entries, offsets[numVer] is the number of edges
+     *      @param targets - 0-based destination of every edge
+     *      @param weights - weight of every edge
+     *      @param maxWeight - largest weight, stored with the buffers
+     */
+    public BufferCSRGraph(IntBuffer offsets, IntBuffer targets, IntBuffer weights, int maxWeight)
+    {
+        super(offsets.capacity() - 1, targets.capacity(), maxWeight);
+        if ( offsets.capacity() == 0 || targets.capacity() != weights.capacity()
+                || offsets.get(offsets.capacity() - 1) != targets.capacity() )
+        {
+            throw new IllegalArgumentException("Inconsistent CSR buffers");
+        }
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    protected int readEdgeStart(int v)
+    {
+        return offsets.get(v);
+    }
+
+    protected int readEdgeEnd(int v)
+    {
+        return offsets.get(v + 1);
+    }
+
+    protected int readTarget(int e)
+    {
+        return targets.get(e);
+    }
+
+    protected int readWeight(int e)
+    {
+        return weights.get(e);
+    }
+}
@@ -0,0 +1,337 @@
+/**
+ * CSRGraph: An immutable directed graph stored in compressed-sparse-row form.
+ *
+ *      Instead of one LinkedList of Edge objects per vertex, all edges live in
+ * three flat int arrays:
+ *      offsets[v] .. offsets[v+1]-1    the positions of the out-edges of v
+ *      targets[e]                      the destination of edge e (0-based)
+ *      weights[e]                      the weight of edge e
+ * so offsets has numVer + 1 entries and targets/weights have numEdges entries.
+ * Walking the out-edges of a vertex is a plain index loop, with no boxing and
+ * no allocation.
+ *
+ *      This class only fixes the accessors; where the arrays live is up to the
+ * subclass:
+ *      ArrayCSRGraph   int[] arrays on the heap (what the text readers build)
+ *      BufferCSRGraph  IntBuffers, e.g. views of a memory-mapped GraphSnapshot
+ *      DirectCSRGraph  DirectIntArrays outside the heap, for graphs bigger than it
+ *
+ *      The accessors are final and read the int arrays of an ArrayCSRGraph
+ * themselves; only the other storages go through readEdgeStart() and friends.
+ * Every search loop calls getTarget() and getWeight() on each edge, and if
+ * those calls were dispatched to three subclasses, the JIT would stop inlining
+ * them once all three had run through the same loop. With the arrays checked
+ * here, the common heap graph always gets plain array reads, and the virtual
+ * call never sees more than the two off-heap storages.
+ *
+ * Usage:
+ *      CSRGraph graph = CSRGraph.load(filename);
+ *      for (int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++)
+ *      {
+ *          int w = graph.getTarget(e);
+ *          int weight = graph.getWeight(e);
+ *      }
+ *
+ * Functions:
+ *      1. getNumVertices() / getNumEdges(): size of the graph
+ *      2. edgeStart(v) / edgeEnd(v): range of edge indices leaving v
+ *      3. getTarget(e) / getWeight(e): destination and weight of edge e
+ *      4. getMaxWeight(): largest edge weight, used to pick a search engine
+ *      5. load(filename): reads a text adjacency file or a binary snapshot and
+ *         checks that every edge leads to one of its vertices
+ *         load(filename, true): the same, but parses text on every core
+ *         loadDirect(filename): the same, but keeps the arrays off the heap
+ *      6. reverse(): the same graph with every edge turned around
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.util.Arrays;
+
+public abstract class CSRGraph
+{
+    private final int numVer;
+    private final int numEdges;
+    private final int maxWeight;
+
+    // The arrays of an ArrayCSRGraph, null for every other storage
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+
+    /**
+     * Saves the sizes shared by every storage.
+     *      @param numVer
+     *      @param numEdges
+     *      @param maxWeight - largest edge weight, 0 without edges
+     */
+    protected CSRGraph(int numVer, int numEdges, int maxWeight)
+    {
+        this(numVer, numEdges, maxWeight, null, null, null);
+    }
+
+    /**
+     * Saves the sizes and, for an ArrayCSRGraph, the arrays the accessors read.
+     *      @param numVer
+     *      @param numEdges
+     *      @param maxWeight - largest edge weight, 0 without edges
+     *      @param offsets - null unless the edges are in int arrays
+     *      @param targets
+     *      @param weights
+     */
+    CSRGraph(int numVer, int numEdges, int maxWeight, int[] offsets, int[] targets, int[] weights)
+    {
+        this.numVer = numVer;
+        this.numEdges = numEdges;
+        this.maxWeight = maxWeight;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Loads a graph from a file: files ending in GraphSnapshot.EXTENSION are
+     * memory-mapped binary snapshots, anything else is parsed as text.
+     *      @param filename
+     *      @return the graph, or null if the file cannot be read
+     */
+    public static CSRGraph load(String filename)
+    {
+        return load(filename, false);
+    }
+
+    /**
+     * Loads a graph like load(), parsing a text file with ParallelGraphReader
+     * when parallel is true. Both readers build the same graph; the parallel one
+     * pays off on large files and many cores.
+     *      @param filename
+     *      @param parallel - parse text on the common ForkJoinPool
+     *      @return the graph, or null if the file cannot be read
+     */
+    public static CSRGraph load(String filename, boolean parallel)
+    {
+        if ( filename.endsWith(GraphSnapshot.EXTENSION) )
+        {
+            return checkTargets(GraphSnapshot.read(filename));
+        }
+        if ( parallel )
+        {
+            return checkTargets(new ParallelGraphReader(filename).readGraph());
+        }
+        return checkTargets(new MappedGraphReader(filename).readGraph());
+    }
+
+    /**
+     * Loads a graph like load(), but with its arrays outside the Java heap: a
+     * snapshot is mapped as always, a text file is read into a DirectCSRGraph.
+     *      @param filename
+     *      @return the graph, or null if the file cannot be read
+     */
+    public static CSRGraph loadDirect(String filename)
+    {
+        if ( filename.endsWith(GraphSnapshot.EXTENSION) )
+        {
+            return checkTargets(GraphSnapshot.read(filename));
+        }
+        return checkTargets(new MappedGraphReader(filename).readDirectGraph());
+    }
+
+    /**
+     * Checks that every edge leads to a vertex of the graph, so that a bad file
+     * fails here instead of with an ArrayIndexOutOfBoundsException in a search.
+     *      @param graph - may be null
+     *      @return graph
+     */
+    static CSRGraph checkTargets(CSRGraph graph)
+    {
+        if ( graph == null )
+        {
+            return null;
+        }
+        int n = graph.getNumVertices();
+        for ( int v = 0; v < n; v++ )
+        {
+            int end = graph.edgeEnd(v);
+            for ( int e = graph.edgeStart(v); e < end; e++ )
+            {
+                int target = graph.getTarget(e);
+                if ( target < 0 || target >= n )
+                {
+                    throw new IllegalArgumentException("Vertex " + (v + 1) + " has an edge to vertex "
+                                                       + (target + 1) + ", but the graph has " + n + " vertices");
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Returns the number of vertices
+     * @return
+     */
+    public final int getNumVertices()
+    {
+        return numVer;
+    }
+
+    /**
+     * Returns the number of edges
+     * @return
+     */
+    public final int getNumEdges()
+    {
+        return numEdges;
+    }
+
+    /**
+     * Returns the largest edge weight in the graph (0 for a graph without edges)
+     * @return
+     */
+    public final int getMaxWeight()
+    {
+        return maxWeight;
+    }
+
+    /**
+     * Returns the out-degree of vertex v (0-based)
+     * @param v
+     * @return
+     */
+    public int getDegree(int v)
+    {
+        return edgeEnd(v) - edgeStart(v);
+    }
+
+    /**
+     * Returns the index of the first out-edge of vertex v (0-based)
+     * @param v
+     * @return
+     */
+    public final int edgeStart(int v)
+    {
+        if ( offsets != null )
+        {
+            return offsets[v];
+        }
+        return readEdgeStart(v);
+    }
+
+    /**
+     * Returns one past the index of the last out-edge of vertex v (0-based)
+     * @param v
+     * @return
+     */
+    public final int edgeEnd(int v)
+    {
+        if ( offsets != null )
+        {
+            return offsets[v + 1];
+        }
+        return readEdgeEnd(v);
+    }
+
+    /**
+     * Returns the 0-based destination of edge e
+     * @param e
+     * @return
+     */
+    public final int getTarget(int e)
+    {
+        if ( targets != null )
+        {
+            return targets[e];
+        }
+        return readTarget(e);
+    }
+
+    /**
+     * Returns the weight of edge e
+     * @param e
+     * @return
+     */
+    public final int getWeight(int e)
+    {
+        if ( weights != null )
+        {
+            return weights[e];
+        }
+        return readWeight(e);
+    }
+
+    /**
+     * Returns edgeStart(v) from the subclass's storage
+     * @param v
+     * @return
+     */
+    protected abstract int readEdgeStart(int v);
+
+    /**
+     * Returns edgeEnd(v) from the subclass's storage
+     * @param v
+     * @return
+     */
+    protected abstract int readEdgeEnd(int v);
+
+    /**
+     * Returns getTarget(e) from the subclass's storage
+     * @param e
+     * @return
+     */
+    protected abstract int readTarget(int e);
+
+    /**
+     * Returns getWeight(e) from the subclass's storage
+     * @param e
+     * @return
+     */
+    protected abstract int readWeight(int e);
+
+    /**
+     * Builds the reverse graph: an edge u -> v of weight w here becomes v -> u of
+     * weight w there. Backward searches (e.g. bidirectional Dijkstra) walk it to
+     * find the in-edges of a vertex. The edges are bucketed by destination with a
+     * counting sort, so this is O(n + m).
+     *      @return a new ArrayCSRGraph
+     */
+    public CSRGraph reverse()
+    {
+        int[] offsets = new int[numVer + 1];
+        int[] targets = new int[numEdges];
+        int[] weights = new int[numEdges];
+
+        // Count the in-degree of every vertex, then turn counts into offsets
+        for ( int e = 0; e < numEdges; e++ )
+        {
+            offsets[getTarget(e) + 1]++;
+        }
+        for ( int v = 0; v < numVer; v++ )
+        {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] next = Arrays.copyOf(offsets, numVer);
+        for ( int u = 0; u < numVer; u++ )
+        {
+            int end = edgeEnd(u);
+            for ( int e = edgeStart(u); e < end; e++ )
+            {
+                int slot = next[getTarget(e)]++;
+                targets[slot] = u;
+                weights[slot] = getWeight(e);
+            }
+        }
+        return new ArrayCSRGraph(offsets, targets, weights);
+    }
+
+    /**
+     * Returns a short description of the graph (sizes only, never the edges).
+     * @return string
+     */
+    public String toString()
+    {
+        return ("vertices: " + numVer + "\n" + "edges: " + numEdges + "\n"
+                + "max weight: " + maxWeight + "\n");
+    }
+}
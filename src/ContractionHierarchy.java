@@ -0,0 +1,940 @@
+/**
+ * ContractionHierarchy: Preprocessing and point-to-point queries with Contraction
+ * Hierarchies, for graphs that stay the same across many queries.
+ *
+ *      Preprocessing contracts the vertices one at a time in order of importance.
+ * Contracting v removes it from the remaining graph. For every remaining pair of
+ * edges u -> v -> w it adds a shortcut u -> w of the same length, unless a
+ * witness search from u finds a path to w at least as short that avoids v. The
+ * next vertex to contract is the one with the least priority:
+ *      2 * edge difference (shortcuts it would add - edges it would remove)
+ *      + number of neighbours already contracted (spreads contraction evenly)
+ *      + level, one more than the highest level of a contracted neighbour
+ *        (keeps the upward searches shallow)
+ * Priorities are kept up to date lazily: a vertex popped from the queue is
+ * re-evaluated and pushed back if it is no longer the best, and the neighbours of
+ * a contracted vertex are re-evaluated at once.
+ *
+ *      A vertex's rank is its position in that order. Every edge and shortcut
+ * runs from a lower to a higher rank or the other way, so the result is kept as
+ * two CSR graphs indexed by the lower-ranked end:
+ *      up:   v -> w with rank[w] > rank[v]
+ *      down: v -> u for each u -> v with rank[u] > rank[v] (reversed)
+ * A query searches upward from source in up and upward from target in down. Every
+ * shortest path has a highest-ranked vertex where the two meet, so each side only
+ * explores the few vertices above its endpoint.
+ *
+ *      Witness searches are cut off after WITNESS_LIMIT settled vertices. That
+ * can only add shortcuts that were not needed, never lose a distance.
+ *
+ *      Every edge also stores its middle: the vertex a shortcut bypasses, -1 for
+ * an edge of the original graph. path() unpacks each shortcut u -> w on the
+ * hierarchy path into u -> middle -> w, repeatedly, until only original edges
+ * remain.
+ *
+ * File format (all numbers little-endian ints):
+ *      magic "CHGR", version (2), n, up edges, down edges, largest weight,
+ *      2 reserved (0), then for up and for down: offsets (n + 1), targets,
+ *      weights, middles
+ *
+ * Usage:
+ *      java ContractionHierarchy <graph> <output.ch> [--validate samples]
+ *
+ *      or from code:
+ *      ContractionHierarchy ch = ContractionHierarchy.build(graph);
+ *      ch.write("graph.ch");
+ *      ContractionHierarchy ch = ContractionHierarchy.read("graph.ch");
+ *      int d = ch.distance(source, target);
+ *      int d = ch.path(source, target, pathBuffer);
+ *
+ *      Vertices are 0-based. Each query counts its work into a SearchMetrics and
+ * adds it to the MetricsRegistry given to setMetricsRegistry(), if any.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+public class ContractionHierarchy
+{
+    private static final int MAGIC = 'C' | 'H' << 8 | 'G' << 16 | 'R' << 24;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+    private static final int INFINITY = SearchState.INFINITY;
+
+    /** Settled vertices after which a witness search gives up. */
+    private static final int WITNESS_LIMIT = 500;
+    /** The same when only estimating a priority, which is done far more often. */
+    private static final int PRIORITY_WITNESS_LIMIT = 50;
+
+    private final CSRGraph up;
+    private final CSRGraph down;
+    private final IntBuffer upMiddle;       // middle vertex of each up edge, -1 if original
+    private final IntBuffer downMiddle;
+    private final QueryEngine upEngine;     // scratch state pools for the two sides
+    private final QueryEngine downEngine;
+    private final QueryEngine upPathEngine; // the same with predecessors, for path()
+    private final QueryEngine downPathEngine;
+    private volatile MetricsRegistry registry;  // null unless metrics are collected
+
+    /**
+     * Creates a hierarchy from its upward and downward graphs.
+     *      @param up
+     *      @param down
+     *      @param upMiddle
+     *      @param downMiddle
+     */
+    private ContractionHierarchy(CSRGraph up, CSRGraph down, IntBuffer upMiddle, IntBuffer downMiddle)
+    {
+        this.up = up;
+        this.down = down;
+        this.upMiddle = upMiddle;
+        this.downMiddle = downMiddle;
+        this.upEngine = new QueryEngine(up);
+        this.downEngine = new QueryEngine(down);
+        this.upPathEngine = new QueryEngine(up, true);
+        this.downPathEngine = new QueryEngine(down, true);
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        if ( args.length < 2 )
+        {
+            System.err.println("Usage: java ContractionHierarchy <graph> <output.ch> [--validate samples]");
+            System.exit(1);
+        }
+
+        CSRGraph graph = CSRGraph.load(args[0]);
+        if ( graph == null )
+        {
+            System.exit(1);
+        }
+
+        long start = System.nanoTime();
+        ContractionHierarchy ch = build(graph);
+        System.out.println("Contracted " + graph + " in " + (System.nanoTime() - start) / 1000000 + " ms, "
+                + ch.getNumShortcuts(graph) + " shortcuts");
+        ch.write(args[1]);
+
+        if ( args.length > 3 && args[2].equals("--validate") )
+        {
+            int mismatches = ch.validate(graph, Integer.parseInt(args[3]), 1);
+            System.out.println(mismatches == 0 ? "Validation passed" : mismatches + " distances differ");
+            if ( mismatches != 0 )
+            {
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Contracts every vertex of a graph and returns the resulting hierarchy.
+     *      @param graph
+     *      @return
+     */
+    public static ContractionHierarchy build(CSRGraph graph)
+    {
+        return new Builder(graph).contract();
+    }
+
+    /**
+     * Returns the distance from source to target with a bidirectional search that
+     * only follows edges towards higher-ranked vertices. Each side stops once its
+     * least queued key is at least the best meeting distance mu.
+     *      @param source - 0-based starting vertex
+     *      @param target - 0-based destination
+     *      @return shortest distance, SearchState.INFINITY if target is unreachable
+     */
+    public int distance(int source, int target)
+    {
+        return query(source, target, null);
+    }
+
+    /**
+     * Writes a shortest path from source to target into a buffer, with every
+     * shortcut unpacked into edges of the original graph.
+     *      @param source - 0-based starting vertex
+     *      @param target - 0-based destination
+     *      @param path - cleared, then filled from source to target
+     *      @return shortest distance, SearchState.INFINITY (and an empty path) if
+     *              target is unreachable
+     */
+    public int path(int source, int target, PathBuffer path)
+    {
+        path.clear();
+        return query(source, target, path);
+    }
+
+    /**
+     * Adds the metrics of every following query to a registry, or stops if null.
+     * Both sides of a query count as one search.
+     *      @param registry
+     */
+    public void setMetricsRegistry(MetricsRegistry registry)
+    {
+        this.registry = registry;
+    }
+
+    /**
+     * Runs the upward search, and fills path when it is not null.
+     *      @param source
+     *      @param target
+     *      @param path
+     *      @return
+     */
+    private int query(int source, int target, PathBuffer path)
+    {
+        // Only path() pays for predecessor arrays
+        QueryEngine forwardEngine = path != null ? upPathEngine : upEngine;
+        QueryEngine backwardEngine = path != null ? downPathEngine : downEngine;
+        SearchState forward = forwardEngine.borrow();
+        SearchState backward = backwardEngine.borrow();
+        try
+        {
+            // Both sides count into the forward state's metrics
+            SearchMetrics metrics = forward.getMetrics();
+            long start = 0;
+            if ( SearchMetrics.ENABLED )
+            {
+                metrics.reset();
+                start = System.nanoTime();
+            }
+            if ( source == target )
+            {
+                if ( path != null )
+                {
+                    path.add(source);
+                }
+                if ( SearchMetrics.ENABLED )
+                {
+                    finish(metrics, start);
+                }
+                return 0;
+            }
+
+            forward.begin(source);
+            backward.begin(target);
+            IndexedDHeap forwardHeap = forward.getHeap();
+            IndexedDHeap backwardHeap = backward.getHeap();
+            forwardHeap.insert(source, 0);
+            backwardHeap.insert(target, 0);
+
+            long mu = INFINITY;
+            int meet = -1;          // highest-ranked vertex of the best path
+            while ( true )
+            {
+                int forwardKey = forwardHeap.isEmpty() ? INFINITY : forwardHeap.minKey();
+                int backwardKey = backwardHeap.isEmpty() ? INFINITY : backwardHeap.minKey();
+                if ( Math.min(forwardKey, backwardKey) >= mu )
+                {
+                    break;
+                }
+
+                boolean goForward = forwardKey <= backwardKey;
+                SearchState side = goForward ? forward : backward;
+                SearchState other = goForward ? backward : forward;
+                CSRGraph sideGraph = goForward ? up : down;
+                IndexedDHeap heap = goForward ? forwardHeap : backwardHeap;
+
+                int u = heap.pollMin();
+                int du = side.getDistance(u);
+                if ( SearchMetrics.ENABLED )
+                {
+                    metrics.queueSize(forwardHeap.size() + backwardHeap.size() + 1);
+                    metrics.pops++;
+                    metrics.settled++;
+                }
+                if ( other.isReached(u) && (long) du + other.getDistance(u) < mu )
+                {
+                    mu = (long) du + other.getDistance(u);
+                    meet = u;
+                }
+
+                int begin = sideGraph.edgeStart(u);
+                int end = sideGraph.edgeEnd(u);
+                if ( SearchMetrics.ENABLED )
+                {
+                    metrics.edgesScanned += end - begin;
+                }
+                for ( int j = begin; j < end; j++ )
+                {
+                    int destination = sideGraph.getTarget(j);
+                    int length = du + sideGraph.getWeight(j);
+
+                    // A negative length wrapped around: too long for an int, leave it unreached
+                    if ( length >= 0 && length < side.getDistance(destination) )
+                    {
+                        side.setDistance(destination, length);
+                        if ( path != null )
+                        {
+                            side.setPredecessor(destination, u);
+                        }
+                        heap.insertOrDecrease(destination, length);
+                        if ( SearchMetrics.ENABLED )
+                        {
+                            metrics.relaxations++;
+                        }
+                    }
+                }
+            }
+
+            if ( path != null && meet != -1 )
+            {
+                // Hierarchy path: source up to meet, then meet down to target
+                forward.getPath(meet, path);
+                for ( int v = backward.getPredecessor(meet); v != -1; v = backward.getPredecessor(v) )
+                {
+                    path.add(v);
+                }
+                unpack(path);
+            }
+            if ( SearchMetrics.ENABLED )
+            {
+                metrics.pushes = metrics.relaxations + 2;
+                finish(metrics, start);
+            }
+            return (int) mu;
+        }
+        finally
+        {
+            forwardEngine.release(forward);
+            backwardEngine.release(backward);
+        }
+    }
+
+    /**
+     * Stops the clock of a query and adds its metrics to the registry, if any.
+     *      @param metrics
+     *      @param start - System.nanoTime() when the query began
+     */
+    private void finish(SearchMetrics metrics, long start)
+    {
+        metrics.searchNanos = System.nanoTime() - start;
+        MetricsRegistry registry = this.registry;
+        if ( registry != null )
+        {
+            registry.record(metrics);
+        }
+    }
+
+    /**
+     * Replaces every shortcut on a hierarchy path with the original edges it
+     * stands for.
+     *      @param path
+     */
+    private void unpack(PathBuffer path)
+    {
+        int[] hops = path.toArray();
+        path.clear();
+        path.add(hops[0]);
+
+        // Pending (from, to) edges, the next one to expand on top
+        int[] stack = new int[16];
+        for ( int i = 1; i < hops.length; i++ )
+        {
+            stack[0] = hops[i - 1];
+            stack[1] = hops[i];
+            int top = 2;
+            while ( top > 0 )
+            {
+                int to = stack[--top];
+                int from = stack[--top];
+                int middle = middleOf(from, to);
+                if ( middle == -1 )
+                {
+                    path.add(to);
+                    continue;
+                }
+                if ( top + 4 > stack.length )
+                {
+                    stack = Arrays.copyOf(stack, 2 * stack.length);
+                }
+                stack[top++] = middle;
+                stack[top++] = to;
+                stack[top++] = from;
+                stack[top++] = middle;
+            }
+        }
+    }
+
+    /**
+     * Returns the middle of the hierarchy edge from -> to. It is stored in up
+     * under from if to ranks higher, and in down under to otherwise.
+     *      @param from
+     *      @param to
+     *      @return
+     */
+    private int middleOf(int from, int to)
+    {
+        for ( int e = up.edgeStart(from); e < up.edgeEnd(from); e++ )
+        {
+            if ( up.getTarget(e) == to )
+            {
+                return upMiddle.get(e);
+            }
+        }
+        for ( int e = down.edgeStart(to); e < down.edgeEnd(to); e++ )
+        {
+            if ( down.getTarget(e) == from )
+            {
+                return downMiddle.get(e);
+            }
+        }
+        throw new IllegalStateException("No hierarchy edge " + from + " -> " + to);
+    }
+
+    /**
+     * Compares distance() with Indexer.firstDijkstra2() from a few random sources
+     * to every vertex of the graph the hierarchy was built from.
+     *      @param graph
+     *      @param samples - number of sources to check
+     *      @param seed
+     *      @return number of (source, target) pairs that differ
+     */
+    public int validate(CSRGraph graph, int samples, long seed)
+    {
+        int n = graph.getNumVertices();
+        Random random = new Random(seed);
+        int mismatches = 0;
+        for ( int i = 0; i < samples && n > 0; i++ )
+        {
+            int source = random.nextInt(n);
+            int[] expected = new Indexer(graph, source + 1).firstDijkstra2();
+            for ( int target = 0; target < n; target++ )
+            {
+                if ( distance(source, target) != expected[target] )
+                {
+                    mismatches++;
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Returns the number of vertices
+     * @return
+     */
+    public int getNumVertices()
+    {
+        return up.getNumVertices();
+    }
+
+    /**
+     * Returns how many edges the hierarchy has beyond those of the original graph
+     * @param graph - the graph the hierarchy was built from
+     * @return
+     */
+    public int getNumShortcuts(CSRGraph graph)
+    {
+        return up.getNumEdges() + down.getNumEdges() - graph.getNumEdges();
+    }
+
+    /**
+     * Writes the hierarchy to a file, replacing the file if it exists.
+     *      @param filename
+     *      @throws IOException
+     */
+    public void write(String filename) throws IOException
+    {
+        try ( FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING) )
+        {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(up.getNumVertices()).putInt(up.getNumEdges())
+                  .putInt(down.getNumEdges()).putInt(Math.max(up.getMaxWeight(), down.getMaxWeight()))
+                  .putInt(0).putInt(0);
+
+            for ( int side = 0; side < 2; side++ )
+            {
+                CSRGraph part = side == 0 ? up : down;
+                IntBuffer middles = side == 0 ? upMiddle : downMiddle;
+                int n = part.getNumVertices();
+                int m = part.getNumEdges();
+                for ( int v = 0; v <= n; v++ )
+                {
+                    GraphSnapshot.flushIfFull(channel, buffer, 4);
+                    buffer.putInt(v < n ? part.edgeStart(v) : m);
+                }
+                for ( int e = 0; e < m; e++ )
+                {
+                    GraphSnapshot.flushIfFull(channel, buffer, 4);
+                    buffer.putInt(part.getTarget(e));
+                }
+                for ( int e = 0; e < m; e++ )
+                {
+                    GraphSnapshot.flushIfFull(channel, buffer, 4);
+                    buffer.putInt(part.getWeight(e));
+                }
+                for ( int e = 0; e < m; e++ )
+                {
+                    GraphSnapshot.flushIfFull(channel, buffer, 4);
+                    buffer.putInt(middles.get(e));
+                }
+            }
+
+            GraphSnapshot.flushIfFull(channel, buffer, buffer.capacity());
+        }
+    }
+
+    /**
+     * Opens a hierarchy written by write(). The arrays are memory-mapped and used
+     * in place, like an uncompressed GraphSnapshot.
+     *      @param filename
+     *      @return the hierarchy, or null if the file cannot be read
+     */
+    public static ContractionHierarchy read(String filename)
+    {
+        try ( FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ) )
+        {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if ( channel.read(header, 0) != HEADER_SIZE || header.getInt(0) != MAGIC )
+            {
+                throw new IOException("Not a contraction hierarchy: " + filename);
+            }
+            if ( header.getInt(4) != VERSION )
+            {
+                throw new IOException("Unsupported hierarchy version " + header.getInt(4) + " in " + filename);
+            }
+
+            int n = header.getInt(8);
+            int upEdges = header.getInt(12);
+            int downEdges = header.getInt(16);
+            int maxWeight = header.getInt(20);
+            long upAt = HEADER_SIZE;
+            long downAt = upAt + 4L * (n + 1 + 3L * upEdges);
+            if ( n < 0 || upEdges < 0 || downEdges < 0
+                    || channel.size() != downAt + 4L * (n + 1 + 3L * downEdges) )
+            {
+                throw new IOException("Corrupt contraction hierarchy: " + filename);
+            }
+
+            CSRGraph up = new BufferCSRGraph(GraphSnapshot.mapInts(channel, upAt, n + 1),
+                    GraphSnapshot.mapInts(channel, upAt + 4L * (n + 1), upEdges),
+                    GraphSnapshot.mapInts(channel, upAt + 4L * (n + 1 + upEdges), upEdges), maxWeight);
+            CSRGraph down = new BufferCSRGraph(GraphSnapshot.mapInts(channel, downAt, n + 1),
+                    GraphSnapshot.mapInts(channel, downAt + 4L * (n + 1), downEdges),
+                    GraphSnapshot.mapInts(channel, downAt + 4L * (n + 1 + downEdges), downEdges), maxWeight);
+            return new ContractionHierarchy(up, down,
+                    GraphSnapshot.mapInts(channel, upAt + 4L * (n + 1 + 2L * upEdges), upEdges),
+                    GraphSnapshot.mapInts(channel, downAt + 4L * (n + 1 + 2L * downEdges), downEdges));
+        }
+        catch (IOException e)
+        {
+            System.err.println("Could not read file " + filename + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * The remaining graph during contraction. Each vertex keeps growable lists of
+     * its out- and in-edges as (neighbour, weight, middle) triples, where middle
+     * is the vertex a shortcut bypasses (-1 for an original edge); contracted
+     * vertices are removed from their neighbours' lists so the lists only hold
+     * live edges.
+     */
+    private static class Builder
+    {
+        private final int n;
+        private final int[][] out;
+        private final int[][] in;
+        private final int[] outSize;        // number of ints used, 3 per edge
+        private final int[] inSize;
+        private final int[] contractedNeighbours;
+        private final int[] level;
+
+        // Witness search scratch, reset in O(1) with a generation stamp
+        private final int[] witnessDist;
+        private final int[] witnessStamp;
+        private final int[] targetStamp;    // targetStamp[w] == generation if w still needs a witness
+        private final IndexedDHeap witnessHeap;
+        private int generation;
+
+        // Shortcuts found by the last call to shortcuts(), as (u, w, weight, v)
+        private int[] found = new int[64];
+        private int numFound;
+
+        Builder(CSRGraph graph)
+        {
+            n = graph.getNumVertices();
+            out = new int[n][];
+            in = new int[n][];
+            outSize = new int[n];
+            inSize = new int[n];
+            contractedNeighbours = new int[n];
+            level = new int[n];
+            witnessDist = new int[n];
+            witnessStamp = new int[n];
+            targetStamp = new int[n];
+            witnessHeap = new IndexedDHeap(n, 4);
+
+            for ( int v = 0; v < n; v++ )
+            {
+                out[v] = new int[3 * Math.max(graph.getDegree(v), 1)];
+                in[v] = new int[3];
+            }
+            for ( int v = 0; v < n; v++ )
+            {
+                for ( int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++ )
+                {
+                    // Self loops never lie on a shortest path
+                    if ( graph.getTarget(e) != v )
+                    {
+                        addEdge(v, graph.getTarget(e), graph.getWeight(e), -1);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Contracts every vertex and builds the upward and downward graphs.
+         *      @return
+         */
+        ContractionHierarchy contract()
+        {
+            IndexedDHeap order = new IndexedDHeap(n, 4);
+            for ( int v = 0; v < n; v++ )
+            {
+                order.insert(v, priority(v));
+            }
+
+            // Edges of each vertex to higher ranks, recorded as it is contracted
+            int[][] upEdges = new int[n][];
+            int[][] downEdges = new int[n][];
+
+            while ( !order.isEmpty() )
+            {
+                // Lazy update: re-evaluate the best vertex before trusting its key
+                int v = order.peekMin();
+                int p = priority(v);
+                if ( p != order.getKey(v) )
+                {
+                    order.changeKey(v, p);
+                    if ( order.peekMin() != v )
+                    {
+                        continue;
+                    }
+                }
+                order.pollMin();
+
+                upEdges[v] = Arrays.copyOf(out[v], outSize[v]);
+                downEdges[v] = Arrays.copyOf(in[v], inSize[v]);
+
+                shortcuts(v, WITNESS_LIMIT);
+                for ( int i = 0; i < 4 * numFound; i += 4 )
+                {
+                    addEdge(found[i], found[i + 1], found[i + 2], found[i + 3]);
+                }
+                remove(v);
+
+                // The neighbours' edge differences have changed
+                for ( int[] list : new int[][] { upEdges[v], downEdges[v] } )
+                {
+                    for ( int i = 0; i < list.length; i += 3 )
+                    {
+                        int w = list[i];
+                        contractedNeighbours[w]++;
+                        level[w] = Math.max(level[w], level[v] + 1);
+                        if ( order.contains(w) )
+                        {
+                            order.changeKey(w, priority(w));
+                        }
+                    }
+                }
+            }
+
+            return new ContractionHierarchy(toGraph(upEdges), toGraph(downEdges),
+                                            IntBuffer.wrap(middles(upEdges)), IntBuffer.wrap(middles(downEdges)));
+        }
+
+        /**
+         * Returns the contraction priority of v.
+         *      @param v
+         *      @return
+         */
+        private int priority(int v)
+        {
+            shortcuts(v, PRIORITY_WITNESS_LIMIT);
+            return 2 * (numFound - outSize[v] / 3 - inSize[v] / 3) + contractedNeighbours[v] + level[v];
+        }
+
+        /**
+         * Finds the shortcuts contracting v would need and leaves them in found.
+         *      @param v
+         *      @param settleLimit - settled vertices per witness search
+         */
+        private void shortcuts(int v, int settleLimit)
+        {
+            numFound = 0;
+            int[] vOut = out[v];
+            int[] vIn = in[v];
+
+            int maxOut = 0;
+            for ( int j = 1; j < outSize[v]; j += 3 )
+            {
+                maxOut = Math.max(maxOut, vOut[j]);
+            }
+
+            for ( int i = 0; i < inSize[v]; i += 3 )
+            {
+                int u = vIn[i];
+                int toV = vIn[i + 1];
+                witnessSearch(u, v, (long) toV + maxOut, settleLimit);
+
+                for ( int j = 0; j < outSize[v]; j += 3 )
+                {
+                    int w = vOut[j];
+                    long viaV = (long) toV + vOut[j + 1];
+                    if ( w != u && viaV < INFINITY && viaV < witnessDistance(w) )
+                    {
+                        if ( 4 * numFound + 4 > found.length )
+                        {
+                            found = Arrays.copyOf(found, 2 * found.length);
+                        }
+                        found[4 * numFound] = u;
+                        found[4 * numFound + 1] = w;
+                        found[4 * numFound + 2] = (int) viaV;
+                        found[4 * numFound + 3] = v;
+                        numFound++;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Runs Dijkstra from u in the remaining graph without v, up to distance
+         * limit or settleLimit settled vertices, or until every out-neighbour of v
+         * other than u is settled.
+         *      @param u
+         *      @param v
+         *      @param limit
+         *      @param settleLimit
+         */
+        private void witnessSearch(int u, int v, long limit, int settleLimit)
+        {
+            generation++;
+            witnessHeap.clear();
+            witnessStamp[u] = generation;
+            witnessDist[u] = 0;
+            witnessHeap.insert(u, 0);
+
+            int targets = 0;
+            for ( int j = 0; j < outSize[v]; j += 3 )
+            {
+                int w = out[v][j];
+                if ( w != u && targetStamp[w] != generation )
+                {
+                    targetStamp[w] = generation;
+                    targets++;
+                }
+            }
+
+            int settled = 0;
+            while ( targets > 0 && !witnessHeap.isEmpty() && witnessHeap.minKey() <= limit
+                    && settled < settleLimit )
+            {
+                int x = witnessHeap.pollMin();
+                int dx = witnessDist[x];
+                settled++;
+                if ( targetStamp[x] == generation )
+                {
+                    targets--;
+                }
+
+                int[] list = out[x];
+                for ( int j = 0; j < outSize[x]; j += 3 )
+                {
+                    int y = list[j];
+                    long length = (long) dx + list[j + 1];
+                    if ( y != v && length < witnessDistance(y) )
+                    {
+                        witnessStamp[y] = generation;
+                        witnessDist[y] = (int) length;
+                        witnessHeap.insertOrDecrease(y, (int) length);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns the distance the last witness search found to x.
+         *      @param x
+         *      @return
+         */
+        private int witnessDistance(int x)
+        {
+            return witnessStamp[x] == generation ? witnessDist[x] : INFINITY;
+        }
+
+        /**
+         * Adds the edge u -> w, or lowers its weight if it already exists.
+         *      @param u
+         *      @param w
+         *      @param weight
+         *      @param middle - the vertex the edge bypasses, -1 for an original edge
+         */
+        private void addEdge(int u, int w, int weight, int middle)
+        {
+            int[] list = out[u];
+            for ( int j = 0; j < outSize[u]; j += 3 )
+            {
+                if ( list[j] == w )
+                {
+                    if ( weight < list[j + 1] )
+                    {
+                        list[j + 1] = weight;
+                        list[j + 2] = middle;
+                        lowerInEdge(w, u, weight, middle);
+                    }
+                    return;
+                }
+            }
+            append(out, outSize, u, w, weight, middle);
+            append(in, inSize, w, u, weight, middle);
+        }
+
+        /**
+         * Sets the weight and middle of u in w's in-list.
+         *      @param w
+         *      @param u
+         *      @param weight
+         *      @param middle
+         */
+        private void lowerInEdge(int w, int u, int weight, int middle)
+        {
+            int[] list = in[w];
+            for ( int j = 0; j < inSize[w]; j += 3 )
+            {
+                if ( list[j] == u )
+                {
+                    list[j + 1] = weight;
+                    list[j + 2] = middle;
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Appends the triple (neighbour, weight, middle) to lists[v], growing it if
+         * needed.
+         *      @param lists
+         *      @param sizes
+         *      @param v
+         *      @param neighbour
+         *      @param weight
+         *      @param middle
+         */
+        private static void append(int[][] lists, int[] sizes, int v, int neighbour, int weight, int middle)
+        {
+            if ( sizes[v] + 3 > lists[v].length )
+            {
+                lists[v] = Arrays.copyOf(lists[v], 2 * lists[v].length);
+            }
+            lists[v][sizes[v]++] = neighbour;
+            lists[v][sizes[v]++] = weight;
+            lists[v][sizes[v]++] = middle;
+        }
+
+        /**
+         * Removes v from the lists of its neighbours.
+         *      @param v
+         */
+        private void remove(int v)
+        {
+            for ( int j = 0; j < outSize[v]; j += 3 )
+            {
+                removePair(in, inSize, out[v][j], v);
+            }
+            for ( int j = 0; j < inSize[v]; j += 3 )
+            {
+                removePair(out, outSize, in[v][j], v);
+            }
+            out[v] = null;
+            in[v] = null;
+            outSize[v] = 0;
+            inSize[v] = 0;
+        }
+
+        /**
+         * Removes neighbour from lists[v] by moving the last triple into its place.
+         *      @param lists
+         *      @param sizes
+         *      @param v
+         *      @param neighbour
+         */
+        private static void removePair(int[][] lists, int[] sizes, int v, int neighbour)
+        {
+            int[] list = lists[v];
+            for ( int j = 0; j < sizes[v]; j += 3 )
+            {
+                if ( list[j] == neighbour )
+                {
+                    sizes[v] -= 3;
+                    list[j] = list[sizes[v]];
+                    list[j + 1] = list[sizes[v] + 1];
+                    list[j + 2] = list[sizes[v] + 2];
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Packs per-vertex (neighbour, weight, middle) lists into a CSR graph.
+         *      @param lists
+         *      @return
+         */
+        private CSRGraph toGraph(int[][] lists)
+        {
+            int[] offsets = new int[n + 1];
+            for ( int v = 0; v < n; v++ )
+            {
+                offsets[v + 1] = offsets[v] + lists[v].length / 3;
+            }
+            int[] targets = new int[offsets[n]];
+            int[] weights = new int[offsets[n]];
+            for ( int v = 0; v < n; v++ )
+            {
+                for ( int j = 0; j < lists[v].length; j += 3 )
+                {
+                    targets[offsets[v] + j / 3] = lists[v][j];
+                    weights[offsets[v] + j / 3] = lists[v][j + 1];
+                }
+            }
+            return new ArrayCSRGraph(offsets, targets, weights);
+        }
+
+        /**
+         * Returns the middles of the edges toGraph() packs, in the same order.
+         *      @param lists
+         *      @return
+         */
+        private static int[] middles(int[][] lists)
+        {
+            int m = 0;
+            for ( int[] list : lists )
+            {
+                m += list.length / 3;
+            }
+            int[] result = new int[m];
+            int e = 0;
+            for ( int[] list : lists )
+            {
+                for ( int j = 2; j < list.length; j += 3 )
+                {
+                    result[e++] = list[j];
+                }
+            }
+            return result;
+        }
+    }
+}
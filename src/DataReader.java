@@ -32,12 +32,16 @@
  *      3. addEdge(LinkedList<Edge> a, int start, int destination, int weight):
  *         takes starting vertex, destination, and weight and adds the edge to 
  *          the correct linkedlist.
+ *      4. readGraph(): reads the same file into a CSRGraph (flat int arrays)
+ *                      instead of a list of linkedlists.
  * 
  * 
  *  Author: Chau Ta
  * 
  *  Creation Date: May 8th, 2022
  *          modified: May 9th, 2022 -- add comments
+ *          modified: October 18th, 2026 -- add readGraph() for the CSR graph
+ *          modified: October 18th, 2026 -- build debug messages only when debugging is on
  *  
  */
 import java.io.BufferedReader;
@@ -96,7 +100,10 @@ public class DataReader {
             {
                 // The line read in contains the first line of information for
                 // a vertex.
-                Debug.println("\n" + "nextLine: " + nextLine);
+                if ( Debug.isOn() )
+                {
+                    Debug.println("\n" + "nextLine: " + nextLine);
+                }
 
                 LinkedList<Edge> linkedlist = buildList(nextLine);
 
@@ -112,6 +119,67 @@ public class DataReader {
         return myArray;
     }
 
+    /**
+     * Reads edge information from the file into a CSRGraph. Each line is one
+     * vertex (in file order) and every block after the first is one edge. Blocks
+     * may be separated by tabs or spaces. Destinations are shifted down by 1 so
+     * the graph is 0-based.
+     *  Precondition: the file must have been successfully opened for
+     *                reading.
+     *      @return CSRGraph holding the adjacency list, or null if reading fails
+     */
+    public CSRGraph readGraph()
+    {
+        int numVer = 0;
+        int numEdges = 0;
+        int[] offsets = new int[16];
+        int[] targets = new int[64];
+        int[] weights = new int[64];
+
+        try
+        {
+            // Read lines until hitting a null or blank line.
+            String nextLine;
+            while ( !((nextLine = this.reader.readLine()) == null ) &&
+                    ! nextLine.trim().equals(""))
+            {
+                String[] blocks = nextLine.trim().split("\\s+");
+
+                // The first block is the starting vertex, the rest are edges
+                for ( int i = 1; i < blocks.length; i++ )
+                {
+                    if ( numEdges == targets.length )
+                    {
+                        targets = Arrays.copyOf(targets, numEdges * 2);
+                        weights = Arrays.copyOf(weights, numEdges * 2);
+                    }
+
+                    int comma = blocks[i].indexOf(',');
+                    targets[numEdges] = Integer.parseInt(blocks[i].substring(0, comma)) - 1;
+                    weights[numEdges] = Integer.parseInt(blocks[i].substring(comma + 1));
+                    numEdges++;
+                }
+
+                // Close the edge range of this vertex
+                numVer++;
+                if ( numVer == offsets.length )
+                {
+                    offsets = Arrays.copyOf(offsets, numVer * 2);
+                }
+                offsets[numVer] = numEdges;
+            }
+        }
+        catch (IOException e)
+        {
+            System.err.println("Could not read file " + filename);
+            return null;
+        }
+
+        return new ArrayCSRGraph(Arrays.copyOf(offsets, numVer + 1),
+                            Arrays.copyOf(targets, numEdges),
+                            Arrays.copyOf(weights, numEdges));
+    }
+
     /**
      * Build a LinkedList using initial information already read in (starting
      * vertex, destinations and weights).
@@ -130,7 +198,10 @@ public class DataReader {
         // Then concatenate all those strings together.
         for ( String eachBlock : blocks)
         {
-            Debug.println("\n" + eachBlock);
+            if ( Debug.isOn() )
+            {
+                Debug.println("\n" + eachBlock);
+            }
 
             // The first block is the starting vertex.
             String start = blocks[0];
@@ -159,8 +230,17 @@ public class DataReader {
     {
         Edge edge = new Edge(destination, weight);
         a.add(edge);
-        Debug.println("start: " + start);
-        Debug.println("destination: " + destination);
-        Debug.println("weight:" + weight);
+        if ( Trace.ENABLED )
+        {
+            Trace.record(Trace.EDGE, start, destination, weight);
+        }
+
+        // Only build the messages when they are printed, not for every edge
+        if ( Debug.isOn() )
+        {
+            Debug.println("start: " + start);
+            Debug.println("destination: " + destination);
+            Debug.println("weight:" + weight);
+        }
     }
 }
@@ -11,7 +11,8 @@
 // MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
 // GNU General Public License for more details.
 
-import java.util.Stack;
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
 
 /**
  *  AP&reg; Computer Science Marine Biology Simulation:<br>
@@ -61,18 +62,48 @@ import java.util.Stack;
  *  State restoration is controlled by a stack, not by a toggle.
  *  
  *  <p>
+ *  The on/off state and the stack of saved states are shared by all
+ *  threads.  Any thread may call <code>isOn</code> or print, and sees the
+ *  latest state without locking.  <code>turnOn</code>, <code>turnOff</code>
+ *  and <code>restoreState</code> must not interleave across threads, though:
+ *  <code>restoreState</code> pops the state saved last, whichever thread
+ *  saved it.  Change the state from one thread, for example before a
+ *  parallel load starts and after it ends.
+ *
+ *  <p>
+ *  Building a message costs time and garbage even when nothing is
+ *  printed, so hot code either checks <code>isOn</code> first or passes a
+ *  <code>Supplier</code>, which is only called when debugging is on:
+ *  <pre>
+ *      if ( Debug.isOn() )
+ *      {
+ *          Debug.println("start: " + start);
+ *      }
+ *      Debug.println(() -> "start: " + start);
+ *  </pre>
+ *  Running the JVM with <code>-Ddijkstra.debug=false</code> makes
+ *  <code>isOn</code> a constant false, so the JIT removes those blocks.
+ *  Structured events from the search loops go to <code>Trace</code>.
+ *
+ *  <p>
  *  The <code>Debug</code> class is
  *  copyright&copy; 2002 College Entrance Examination Board
  *  (www.collegeboard.com).
  *
  *  @author Alyce Brady
  *  @version 1 July 2002
+ *  modified: October 18th, 2026 (Chau Ta)  state visible to all threads,
+ *                                          lazy messages,
+ *                                          -Ddijkstra.debug=false
  **/
 public class Debug
 {
-    private static boolean debugOn = false;       // debugging is on or off?
-    private static Stack<Boolean> oldStates =
-                        new Stack<Boolean>(); // to restore previous states
+    /** False when the JVM runs with -Ddijkstra.debug=false; debugging can then never be on. */
+    public static final boolean ENABLED = !"false".equals(System.getProperty("dijkstra.debug"));
+
+    private static volatile boolean debugOn = false;       // debugging is on or off?
+    private static final ArrayDeque<Boolean> oldStates =
+                        new ArrayDeque<Boolean>(); // to restore previous states
 
 
     /** Checks whether debugging is on.  The <code>Debug.print</code>
@@ -81,7 +112,7 @@ public class Debug
      **/
     public static boolean isOn ()
     {
-        return debugOn;
+        return ENABLED && debugOn;
     }
 
 
@@ -95,20 +126,20 @@ public class Debug
 
     /** Turns debugging on.
      **/
-    public static void turnOn()
+    public static synchronized void turnOn()
     {
         // Push current state on stack.
-        oldStates.push (new Boolean(debugOn));
+        oldStates.push (Boolean.valueOf(debugOn));
 
         debugOn = true;
     }
 
     /** Turns debugging off.
      **/
-    public static void turnOff()
+    public static synchronized void turnOff()
     {
         // Push current state on stack.
-        oldStates.push (new Boolean(debugOn));
+        oldStates.push (Boolean.valueOf(debugOn));
 
         debugOn = false;
     }
@@ -117,13 +148,13 @@ public class Debug
      *  no previous state to restore, <code>restoreState</code> turns
      *  debugging off.
      **/
-    public static void restoreState()
+    public static synchronized void restoreState()
     {
         // Is there a previous state to restore to?
-        if ( oldStates.empty() )
+        if ( oldStates.isEmpty() )
             debugOn = false;
         else
-            debugOn = ((Boolean) oldStates.pop()).booleanValue();
+            debugOn = oldStates.pop().booleanValue();
     }
 
     /** Prints debugging message without appending a newline character at
@@ -134,7 +165,7 @@ public class Debug
      **/
     public static void print(String message)
     {
-        if ( debugOn )
+        if ( isOn() )
             System.out.print(message);
     }
 
@@ -145,9 +176,29 @@ public class Debug
      **/
     public static void println(String message)
     {
-        if ( debugOn )
+        if ( isOn() )
             System.out.println(message);
     }
 
+    /** Prints a debugging message built only if debugging is turned on,
+     *  without appending a newline character at the end.
+     *  @param    message    builds the debugging message to print
+     **/
+    public static void print(Supplier<String> message)
+    {
+        if ( isOn() )
+            System.out.print(message.get());
+    }
+
+    /** Prints a debugging message built only if debugging is turned on,
+     *  appending a newline character at the end.
+     *  @param    message    builds the debugging message to print
+     **/
+    public static void println(Supplier<String> message)
+    {
+        if ( isOn() )
+            System.out.println(message.get());
+    }
+
 }
 
@@ -0,0 +1,606 @@
+/**
+ * DeltaStepping: Parallel single-source shortest paths with Meyer and Sanders'
+ * delta-stepping, for single queries on graphs too large for one core.
+ *
+ *      Dijkstra settles one vertex at a time. Delta-stepping instead keeps the
+ * queued vertices in buckets of width delta (bucket i holds tentative distances
+ * in [i * delta, (i + 1) * delta)) and settles a whole bucket at once:
+ *      1. Take every vertex of the lowest non-empty bucket and relax its light
+ *         edges (weight <= delta) in parallel. Those can land in the same bucket,
+ *         so repeat until the bucket stays empty.
+ *      2. Relax the heavy edges (weight > delta) of every vertex the bucket
+ *         removed, once, in parallel. They always land in a later bucket.
+ * Small delta means little wasted work but many phases; large delta means few
+ * phases with vertices relaxed more than once. chooseDelta() picks roughly the
+ * average weight divided by the average degree, the classic choice for random
+ * weights, taken from a sample of the edges.
+ *
+ *      Distances live in an AtomicIntegerArray and are lowered with a
+ * compare-and-set loop, so workers never lock. shortestPathTree() packs each
+ * distance with its predecessor into one AtomicLongArray entry instead, so both
+ * change in the same compare-and-set and always belong together. distances()
+ * does not pay for that. Each worker collects the vertices
+ * it improved in its own list, and the lists are merged into the buckets between
+ * phases. A vertex may be in more than one bucket; only the entry matching its
+ * current distance is used. Buckets are kept in a circular array of
+ * maxWeight / delta + 2, like Dial's queue, since no queued distance is further
+ * than maxWeight from the current bucket.
+ *
+ *      The result is the same dist[] as every Indexer implementation, with
+ * Integer.MAX_VALUE for unreachable vertices; like QueryEngine, a distance too
+ * long for an int reads as unreachable.
+ *
+ *      Each run counts its work into a SearchMetrics and adds it to the
+ * MetricsRegistry given to setMetricsRegistry(), if any: settled counts every
+ * vertex a light pass expands (a vertex may be expanded more than once),
+ * edgesScanned every edge a light or heavy pass looks at, relaxations every
+ * distance a worker lowered and pops every bucket entry taken, stale or not.
+ *
+ * Usage:
+ *      java DeltaStepping <graph> <start vertex> [--delta d] [--validate] [--parallel]
+ *
+ *      or from code:
+ *      int[] dist = new DeltaStepping(graph).distances(source);
+ *      ShortestPathTree tree = new DeltaStepping(graph).shortestPathTree(source);
+ *
+ *      The start vertex on the command line is 1-based, as in the file; from
+ * code sources are 0-based. --validate compares the distances with
+ * Indexer.dijkstra3 (the indexed heap), which handles unreachable vertices.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class DeltaStepping
+{
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final int NOT_QUEUED = Integer.MAX_VALUE;
+
+    /** Frontiers smaller than this are relaxed on the calling thread. */
+    private static final int GRAIN = 512;
+    private static final int SLICES_PER_THREAD = 4;
+    /** Edges chooseDelta() looks at. */
+    private static final int SAMPLE_SIZE = 1 << 16;
+
+    private final CSRGraph graph;
+    private final ForkJoinPool pool;
+    private final int delta;
+    private volatile MetricsRegistry registry;  // null unless metrics are collected
+
+    /**
+     * Creates an engine on the common ForkJoinPool with delta from chooseDelta().
+     *      @param graph
+     */
+    public DeltaStepping(CSRGraph graph)
+    {
+        this(graph, ForkJoinPool.commonPool(), chooseDelta(graph));
+    }
+
+    /**
+     * Creates an engine on the given pool.
+     *      @param graph
+     *      @param pool
+     *      @param delta - bucket width, at least 1
+     */
+    public DeltaStepping(CSRGraph graph, ForkJoinPool pool, int delta)
+    {
+        if ( delta < 1 )
+        {
+            throw new IllegalArgumentException("delta must be at least 1, got " + delta);
+        }
+        this.graph = graph;
+        this.pool = pool;
+        this.delta = delta;
+    }
+
+    public static void main(String[] args)
+    {
+        if ( args.length < 2 )
+        {
+            System.err.println("Usage: java DeltaStepping <graph> <start vertex> [--delta d] [--validate]"
+                               + " [--parallel]");
+            System.exit(1);
+        }
+
+        int startVertex = Integer.parseInt(args[1]);
+        int delta = 0;
+        boolean validate = false;
+        boolean parallel = false;
+        for ( int i = 2; i < args.length; i++ )
+        {
+            if ( args[i].equals("--delta") && i + 1 < args.length )
+            {
+                delta = Integer.parseInt(args[++i]);
+            }
+            else if ( args[i].equals("--validate") )
+            {
+                validate = true;
+            }
+            else if ( args[i].equals("--parallel") )
+            {
+                parallel = true;
+            }
+        }
+
+        CSRGraph graph = CSRGraph.load(args[0], parallel);
+        if ( graph == null )
+        {
+            System.exit(1);
+        }
+        if ( delta == 0 )
+        {
+            delta = chooseDelta(graph);
+        }
+
+        DeltaStepping engine = new DeltaStepping(graph, ForkJoinPool.commonPool(), delta);
+        long start = System.nanoTime();
+        int[] dist = engine.distances(startVertex - 1);
+        System.out.println("delta " + delta + ", " + ForkJoinPool.commonPool().getParallelism() + " threads: "
+                + (System.nanoTime() - start) / 1000000 + " ms");
+
+        if ( validate )
+        {
+            boolean same = Arrays.equals(dist, new Indexer(graph, startVertex).dijkstra3(4));
+            System.out.println(same ? "Same distances as dijkstra3" : "Distances differ from dijkstra3");
+            if ( !same )
+            {
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Picks a bucket width from the weights: about twice the mean weight of a
+     * sample of edges over the average degree, so a bucket's light edges reach
+     * roughly one bucket ahead.
+     *      @param graph
+     *      @return delta, at least 1
+     */
+    public static int chooseDelta(CSRGraph graph)
+    {
+        int n = graph.getNumVertices();
+        int m = graph.getNumEdges();
+        if ( m == 0 )
+        {
+            return 1;
+        }
+
+        int step = Math.max(1, m / SAMPLE_SIZE);
+        long sum = 0;
+        int count = 0;
+        for ( int e = 0; e < m; e += step )
+        {
+            sum += graph.getWeight(e);
+            count++;
+        }
+        double averageDegree = (double) m / n;
+        double delta = 2.0 * sum / count / Math.max(1.0, averageDegree);
+        return (int) Math.max(1, Math.min(graph.getMaxWeight(), Math.round(delta)));
+    }
+
+    /**
+     * Returns the bucket width
+     * @return
+     */
+    public int getDelta()
+    {
+        return delta;
+    }
+
+    /**
+     * Adds the metrics of every following run to a registry, or stops if null.
+     *      @param registry
+     */
+    public void setMetricsRegistry(MetricsRegistry registry)
+    {
+        this.registry = registry;
+    }
+
+    /**
+     * Returns the distances from one source as a new n-sized array
+     * (Integer.MAX_VALUE for unreachable vertices).
+     *      @param source - 0-based starting vertex
+     *      @return
+     */
+    public int[] distances(int source)
+    {
+        int n = graph.getNumVertices();
+        DistanceLabels labels = new DistanceLabels(n, source);
+        run(source, labels);
+
+        int[] result = new int[n];
+        for ( int v = 0; v < n; v++ )
+        {
+            result[v] = labels.get(v);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the distances and predecessors from one source.
+     *      @param source - 0-based starting vertex
+     *      @return
+     */
+    public ShortestPathTree shortestPathTree(int source)
+    {
+        int n = graph.getNumVertices();
+        PathLabels labels = new PathLabels(n, source);
+        run(source, labels);
+
+        int[] dist = new int[n];
+        int[] pred = new int[n];
+        for ( int v = 0; v < n; v++ )
+        {
+            dist[v] = labels.get(v);
+            pred[v] = labels.getPredecessor(v);
+        }
+        return new ShortestPathTree(source, dist, pred);
+    }
+
+    /**
+     * Runs delta-stepping from source, lowering the labels until they are final.
+     *      @param source
+     *      @param dist
+     */
+    private void run(int source, Labels dist)
+    {
+        SearchMetrics metrics = SearchMetrics.ENABLED ? new SearchMetrics() : null;
+        long start = SearchMetrics.ENABLED ? System.nanoTime() : 0;
+        int n = graph.getNumVertices();
+        int numBuckets = graph.getMaxWeight() / delta + 2;
+        IntList[] buckets = new IntList[numBuckets];
+        for ( int b = 0; b < numBuckets; b++ )
+        {
+            buckets[b] = new IntList();
+        }
+        int[] queuedIn = new int[n];        // bucket v was last queued in, NOT_QUEUED once taken
+        Arrays.fill(queuedIn, NOT_QUEUED);
+        int[] removedIn = new int[n];       // 1 + the bucket whose heavy pass covers v
+        int slices = pool.getParallelism() * SLICES_PER_THREAD;
+        IntList[] improved = new IntList[slices];
+        for ( int i = 0; i < slices; i++ )
+        {
+            improved[i] = new IntList();
+        }
+
+        buckets[0].add(source);
+        queuedIn[source] = 0;
+        long pending = 1;                   // entries in all buckets, stale ones included
+
+        IntList frontier = new IntList();
+        IntList removed = new IntList();
+        for ( int current = 0; pending > 0; current++ )
+        {
+            IntList bucket = buckets[current % numBuckets];
+            removed.clear();
+
+            // Light edges, until nothing new lands in this bucket
+            while ( bucket.size() > 0 )
+            {
+                if ( SearchMetrics.ENABLED )
+                {
+                    metrics.queueSize(pending);
+                    metrics.pops += bucket.size();
+                }
+                pending -= bucket.size();
+                frontier.clear();
+                for ( int i = 0; i < bucket.size(); i++ )
+                {
+                    int v = bucket.get(i);
+                    if ( queuedIn[v] == current )
+                    {
+                        queuedIn[v] = NOT_QUEUED;
+                        frontier.add(v);
+                        if ( removedIn[v] != current + 1 )
+                        {
+                            removedIn[v] = current + 1;
+                            removed.add(v);
+                        }
+                    }
+                }
+                bucket.clear();
+
+                long scanned = relax(frontier, true, dist, improved);
+                if ( SearchMetrics.ENABLED )
+                {
+                    metrics.settled += frontier.size();
+                    metrics.edgesScanned += scanned;
+                }
+                pending += requeue(improved, dist, buckets, queuedIn, metrics);
+            }
+
+            // Heavy edges, once per removed vertex
+            long scanned = relax(removed, false, dist, improved);
+            if ( SearchMetrics.ENABLED )
+            {
+                metrics.edgesScanned += scanned;
+            }
+            pending += requeue(improved, dist, buckets, queuedIn, metrics);
+        }
+
+        if ( SearchMetrics.ENABLED )
+        {
+            metrics.stalePops = metrics.pops - metrics.settled;
+            metrics.pushes += 1;
+            metrics.searchNanos = System.nanoTime() - start;
+            MetricsRegistry registry = this.registry;
+            if ( registry != null )
+            {
+                registry.record(metrics);
+            }
+        }
+    }
+
+    /**
+     * Relaxes the light or heavy edges of every vertex in the frontier, in
+     * parallel slices when it is large enough. Slice i lists the vertices it
+     * improved in improved[i].
+     *      @param frontier
+     *      @param light - true for weights <= delta, false for the rest
+     *      @param dist
+     *      @param improved
+     *      @return number of edges the slices looked at
+     */
+    private long relax(IntList frontier, boolean light, Labels dist, IntList[] improved)
+    {
+        int size = frontier.size();
+        int slices = Math.min(improved.length, (size + GRAIN - 1) / GRAIN);
+        if ( slices <= 1 )
+        {
+            return relaxSlice(frontier, 0, size, light, dist, improved[0]);
+        }
+
+        List<Callable<Long>> tasks = new ArrayList<Callable<Long>>();
+        for ( int i = 0; i < slices; i++ )
+        {
+            int from = (int) ((long) size * i / slices);
+            int to = (int) ((long) size * (i + 1) / slices);
+            IntList out = improved[i];
+            tasks.add(() -> relaxSlice(frontier, from, to, light, dist, out));
+        }
+
+        long scanned = 0;
+        for ( Future<Long> result : pool.invokeAll(tasks) )
+        {
+            try
+            {
+                scanned += result.get();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted during delta-stepping", e);
+            }
+            catch (ExecutionException e)
+            {
+                Throwable cause = e.getCause();
+                if ( cause instanceof RuntimeException )
+                {
+                    throw (RuntimeException) cause;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+        return scanned;
+    }
+
+    /**
+     * Relaxes the light or heavy edges of frontier[from..to).
+     *      @param frontier
+     *      @param from
+     *      @param to
+     *      @param light
+     *      @param dist
+     *      @param out - receives every vertex whose distance this slice lowered
+     *      @return number of edges looked at, light and heavy alike
+     */
+    private long relaxSlice(IntList frontier, int from, int to, boolean light, Labels dist, IntList out)
+    {
+        long scanned = 0;
+        for ( int i = from; i < to; i++ )
+        {
+            int u = frontier.get(i);
+            int du = dist.get(u);
+            int begin = graph.edgeStart(u);
+            int end = graph.edgeEnd(u);
+            scanned += end - begin;
+            for ( int j = begin; j < end; j++ )
+            {
+                int weight = graph.getWeight(j);
+
+                // Sums past INFINITY are too long for an int: leave the vertex unreached
+                long length = (long) du + weight;
+                if ( (weight <= delta) == light && length < INFINITY
+                        && dist.lower(graph.getTarget(j), (int) length, u) )
+                {
+                    out.add(graph.getTarget(j));
+                }
+            }
+        }
+        return scanned;
+    }
+
+    /**
+     * Moves the improved vertices into the buckets their distances now map to
+     * and empties the improved lists.
+     *      @param improved
+     *      @param dist
+     *      @param buckets
+     *      @param queuedIn
+     *      @param metrics - counts the relaxations and pushes, null if disabled
+     *      @return number of entries added to the buckets
+     */
+    private int requeue(IntList[] improved, Labels dist, IntList[] buckets, int[] queuedIn, SearchMetrics metrics)
+    {
+        int added = 0;
+        for ( IntList list : improved )
+        {
+            if ( SearchMetrics.ENABLED )
+            {
+                metrics.relaxations += list.size();
+            }
+            for ( int i = 0; i < list.size(); i++ )
+            {
+                int v = list.get(i);
+                int b = dist.get(v) / delta;
+                if ( b < queuedIn[v] )
+                {
+                    queuedIn[v] = b;
+                    buckets[b % buckets.length].add(v);
+                    added++;
+                }
+            }
+            list.clear();
+        }
+        if ( SearchMetrics.ENABLED )
+        {
+            metrics.pushes += added;
+        }
+        return added;
+    }
+
+    /**
+     * The tentative distances the workers share.
+     */
+    private abstract static class Labels
+    {
+        /**
+         * Returns the current distance of v.
+         *      @param v
+         *      @return
+         */
+        abstract int get(int v);
+
+        /**
+         * Atomically lowers the distance of v to length, reached from u, if
+         * length is smaller.
+         *      @param v
+         *      @param length
+         *      @param u
+         *      @return true if this call lowered it
+         */
+        abstract boolean lower(int v, int length, int u);
+    }
+
+    /**
+     * Distances only, one int per vertex.
+     */
+    private static class DistanceLabels extends Labels
+    {
+        private final AtomicIntegerArray dist;
+
+        DistanceLabels(int n, int source)
+        {
+            int[] initial = new int[n];
+            Arrays.fill(initial, INFINITY);
+            initial[source] = 0;
+            dist = new AtomicIntegerArray(initial);
+        }
+
+        int get(int v)
+        {
+            return dist.get(v);
+        }
+
+        boolean lower(int v, int length, int u)
+        {
+            int current = dist.get(v);
+            while ( length < current )
+            {
+                if ( dist.compareAndSet(v, current, length) )
+                {
+                    return true;
+                }
+                current = dist.get(v);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Distance in the high half and predecessor in the low half of one long per
+     * vertex.
+     */
+    private static class PathLabels extends Labels
+    {
+        private static final long NO_PREDECESSOR = 0xFFFFFFFFL;
+
+        private final AtomicLongArray labels;
+
+        PathLabels(int n, int source)
+        {
+            long[] initial = new long[n];
+            Arrays.fill(initial, (long) INFINITY << 32 | NO_PREDECESSOR);
+            initial[source] = NO_PREDECESSOR;
+            labels = new AtomicLongArray(initial);
+        }
+
+        int get(int v)
+        {
+            return (int) (labels.get(v) >>> 32);
+        }
+
+        int getPredecessor(int v)
+        {
+            return (int) labels.get(v);
+        }
+
+        boolean lower(int v, int length, int u)
+        {
+            long current = labels.get(v);
+            while ( length < (int) (current >>> 32) )
+            {
+                if ( labels.compareAndSet(v, current, (long) length << 32 | (u & NO_PREDECESSOR)) )
+                {
+                    return true;
+                }
+                current = labels.get(v);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A growable list of ints without boxing.
+     */
+    private static class IntList
+    {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value)
+        {
+            if ( size == values.length )
+            {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = value;
+        }
+
+        int get(int i)
+        {
+            return values[i];
+        }
+
+        int size()
+        {
+            return size;
+        }
+
+        void clear()
+        {
+            size = 0;
+        }
+    }
+}
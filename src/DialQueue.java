@@ -0,0 +1,161 @@
+/**
+ * DialQueue: Dial's bucket queue for Dijkstra with small integer weights.
+ *
+ *      When every edge weight is at most C, all queued keys lie in the window
+ * [current minimum, current minimum + C]. So C + 1 circular buckets, indexed by
+ * key mod (C + 1), hold every queued vertex, and the minimum is found by moving a
+ * cursor forward until a bucket is non-empty. Insert and decrease-key are O(1);
+ * the cursor moves at most once per distance value overall.
+ *
+ *      Buckets are doubly linked lists threaded through int arrays indexed by
+ * vertex, so decrease-key unlinks the vertex instead of leaving a stale entry.
+ * Keys must be monotone, which Dijkstra guarantees.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.util.Arrays;
+
+public class DialQueue implements VertexQueue
+{
+    private final int numBuckets;
+    private final int[] head;       // head[b] is the first vertex in bucket b, -1 if empty
+    private final int[] next;       // next[v] / prev[v] link vertices in the same bucket
+    private final int[] prev;
+    private final int[] keys;       // keys[v] is the current key of v
+    private final boolean[] queued;
+    private int size;
+    private int cursor;             // no queued key is smaller than cursor
+    private boolean fresh = true;   // nothing inserted since construction or clear()
+
+    /**
+     * Creates an empty queue for vertices 0..capacity-1.
+     *      @param capacity - number of vertices
+     *      @param maxWeight - largest edge weight in the graph
+     */
+    public DialQueue(int capacity, int maxWeight)
+    {
+        this.numBuckets = maxWeight + 1;
+        this.head = new int[numBuckets];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.keys = new int[capacity];
+        this.queued = new boolean[capacity];
+        Arrays.fill(head, -1);
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public void insertOrDecrease(int v, int key)
+    {
+        if ( queued[v] )
+        {
+            if ( key >= keys[v] )
+            {
+                return;
+            }
+            unlink(v);
+        }
+        else
+        {
+            // The first vertex of a search sets the window. Later the queue may
+            // run empty, but the cursor must stay at the last polled key.
+            if ( fresh )
+            {
+                cursor = key;
+                fresh = false;
+            }
+            queued[v] = true;
+            size++;
+        }
+
+        keys[v] = key;
+        link(v, key % numBuckets);
+    }
+
+    public int pollMin()
+    {
+        // Move the cursor to the next non-empty bucket
+        int b = cursor % numBuckets;
+        while ( head[b] == -1 )
+        {
+            cursor++;
+            b++;
+            if ( b == numBuckets )
+            {
+                b = 0;
+            }
+        }
+
+        // Every vertex in the bucket has key == cursor, take the first one
+        int v = head[b];
+        unlink(v);
+        queued[v] = false;
+        size--;
+        return v;
+    }
+
+    public void clear()
+    {
+        for ( int b = 0; b < numBuckets && size > 0; b++ )
+        {
+            for ( int v = head[b]; v != -1; v = next[v] )
+            {
+                queued[v] = false;
+                size--;
+            }
+            head[b] = -1;
+        }
+        cursor = 0;
+        fresh = true;
+    }
+
+    /**
+     * Puts v at the front of bucket b.
+     *      @param v
+     *      @param b
+     */
+    private void link(int v, int b)
+    {
+        int first = head[b];
+        next[v] = first;
+        prev[v] = -1;
+        if ( first != -1 )
+        {
+            prev[first] = v;
+        }
+        head[b] = v;
+    }
+
+    /**
+     * Removes v from the bucket its current key maps to.
+     *      @param v
+     */
+    private void unlink(int v)
+    {
+        int p = prev[v];
+        int n = next[v];
+        if ( p != -1 )
+        {
+            next[p] = n;
+        }
+        else
+        {
+            head[keys[v] % numBuckets] = n;
+        }
+        if ( n != -1 )
+        {
+            prev[n] = p;
+        }
+    }
+}
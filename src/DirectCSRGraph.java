@@ -0,0 +1,61 @@
+/**
+ * DirectCSRGraph: A CSRGraph whose offsets, targets and weights are
+ * DirectIntArrays, outside the Java heap.
+ *
+ *      Use it for graphs too big for the heap: the arrays can be filled by
+ * MappedGraphReader.readDirectGraph() or mapped from a GraphSnapshot, and
+ * unlike BufferCSRGraph they may hold more than 2 GB each (up to
+ * Integer.MAX_VALUE edges).
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+public final class DirectCSRGraph extends CSRGraph
+{
+    private final DirectIntArray offsets;
+    private final DirectIntArray targets;
+    private final DirectIntArray weights;
+
+    /**
+     * Creates a graph over existing arrays, which are not copied, so the caller
+     * must not modify them afterwards.
+     *      @param offsets - numVer + 1 entries, offsets[numVer] is the number of edges
+     *      @param targets - 0-based destination of every edge
+     *      @param weights - weight of every edge
+     *      @param maxWeight - largest weight
+     */
+    public DirectCSRGraph(DirectIntArray offsets, DirectIntArray targets, DirectIntArray weights, int maxWeight)
+    {
+        super(offsets.length() - 1, targets.length(), maxWeight);
+        if ( offsets.length() == 0 || targets.length() != weights.length()
+                || offsets.get(offsets.length() - 1) != targets.length() )
+        {
+            throw new IllegalArgumentException("Inconsistent CSR arrays");
+        }
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    protected int readEdgeStart(int v)
+    {
+        return offsets.get(v);
+    }
+
+    protected int readEdgeEnd(int v)
+    {
+        return offsets.get(v + 1);
+    }
+
+    protected int readTarget(int e)
+    {
+        return targets.get(e);
+    }
+
+    protected int readWeight(int e)
+    {
+        return weights.get(e);
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * DirectIntArray: An int array that lives outside the Java heap, in direct or
+ * memory-mapped ByteBuffers.
+ *
+ *      The garbage collector never scans or copies it, so a graph of billions
+ * of edges needs only a small heap and adds nothing to GC pauses. One ByteBuffer
+ * holds at most 2 GB, so the array is split into chunks of 2^28 ints (1 GB) and
+ * index i is found in chunk i >>> 28 at i & (2^28 - 1). Any int index works, up
+ * to Integer.MAX_VALUE entries.
+ *
+ *      resize() grows the array by adding chunks; only the last, partly used
+ * chunk is ever copied, so growing a large array costs no more than the new
+ * space. Direct memory is released when the array is garbage collected, and
+ * its total is limited by -XX:MaxDirectMemorySize (by default the heap size).
+ *
+ * Usage:
+ *      DirectIntArray dist = new DirectIntArray(n);
+ *      dist.fill(Integer.MAX_VALUE);
+ *      dist.set(v, 0);
+ *      int d = dist.get(v);
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+public final class DirectIntArray
+{
+    private static final int CHUNK_SHIFT = 28;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private IntBuffer[] chunks;
+    private int length;
+
+    /**
+     * Allocates a zero-filled array.
+     *      @param length - number of entries
+     */
+    public DirectIntArray(int length)
+    {
+        if ( length < 0 )
+        {
+            throw new IllegalArgumentException("Negative length: " + length);
+        }
+        this.chunks = new IntBuffer[0];
+        resize(length);
+    }
+
+    private DirectIntArray(IntBuffer[] chunks, int length)
+    {
+        this.chunks = chunks;
+        this.length = length;
+    }
+
+    /**
+     * Maps count little-endian ints of a file, starting at position, read-only.
+     * The mapping stays valid after the channel is closed.
+     *      @param channel
+     *      @param position
+     *      @param count
+     *      @return
+     *      @throws IOException
+     */
+    static DirectIntArray map(FileChannel channel, long position, int count) throws IOException
+    {
+        IntBuffer[] chunks = new IntBuffer[numChunks(count)];
+        for ( int c = 0; c < chunks.length; c++ )
+        {
+            int size = Math.min(CHUNK_SIZE, count - c * CHUNK_SIZE);
+            chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, position + 4L * c * CHUNK_SIZE, 4L * size)
+                               .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+        return new DirectIntArray(chunks, count);
+    }
+
+    /**
+     * Returns the number of entries
+     * @return
+     */
+    public int length()
+    {
+        return length;
+    }
+
+    /**
+     * Returns entry i
+     * @param i
+     * @return
+     */
+    public int get(int i)
+    {
+        return chunks[i >>> CHUNK_SHIFT].get(i & CHUNK_MASK);
+    }
+
+    /**
+     * Sets entry i.
+     *      @param i
+     *      @param value
+     */
+    public void set(int i, int value)
+    {
+        chunks[i >>> CHUNK_SHIFT].put(i & CHUNK_MASK, value);
+    }
+
+    /**
+     * Sets every entry to value.
+     *      @param value
+     */
+    public void fill(int value)
+    {
+        int[] block = new int[1 << 12];
+        Arrays.fill(block, value);
+        for ( int c = 0; c < chunks.length; c++ )
+        {
+            IntBuffer chunk = chunks[c].duplicate();
+            chunk.clear().limit(Math.max(0, Math.min(chunk.capacity(), length - c * CHUNK_SIZE)));
+            while ( chunk.hasRemaining() )
+            {
+                chunk.put(block, 0, Math.min(block.length, chunk.remaining()));
+            }
+        }
+    }
+
+    /**
+     * Changes the number of entries, keeping the first min(old, new) of them.
+     * Shrinking keeps the memory for a later grow; new entries are 0 only if
+     * that memory was never used.
+     *      @param newLength
+     */
+    public void resize(int newLength)
+    {
+        if ( newLength < 0 )
+        {
+            throw new IllegalArgumentException("Negative length: " + newLength);
+        }
+        int capacity = 0;
+        for ( IntBuffer chunk : chunks )
+        {
+            capacity += chunk.capacity();
+        }
+        if ( newLength > capacity )
+        {
+            IntBuffer[] grown = Arrays.copyOf(chunks, numChunks(newLength));
+            int last = chunks.length - 1;
+            if ( last >= 0 && chunks[last].capacity() < CHUNK_SIZE )
+            {
+                // Replace the partly used last chunk with a bigger one
+                IntBuffer bigger = allocate(Math.min(CHUNK_SIZE, newLength - last * CHUNK_SIZE));
+                bigger.put(chunks[last].duplicate().clear());
+                grown[last] = bigger;
+            }
+            for ( int c = chunks.length; c < grown.length; c++ )
+            {
+                grown[c] = allocate(Math.min(CHUNK_SIZE, newLength - c * CHUNK_SIZE));
+            }
+            chunks = grown;
+        }
+        length = newLength;
+    }
+
+    /**
+     * Allocates one zero-filled direct chunk in the platform's byte order.
+     *      @param size - number of ints
+     *      @return
+     */
+    private static IntBuffer allocate(int size)
+    {
+        return ByteBuffer.allocateDirect(4 * size).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    /**
+     * Returns the number of chunks needed for count ints.
+     *      @param count
+     *      @return
+     */
+    private static int numChunks(int count)
+    {
+        return (int) ((count + (long) CHUNK_MASK) >>> CHUNK_SHIFT);
+    }
+}
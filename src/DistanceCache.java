@@ -0,0 +1,363 @@
+/**
+ * DistanceCache: Keeps the distance arrays of recently queried sources, so a hot
+ * starting vertex is searched once and then answered from memory.
+ *
+ *      Entries are keyed by (graph version, source). The version changes when
+ * the graph does: on every snapshot of a GraphWatcher the cache follows, or on
+ * every update() call. Entries of the old version are dropped at that moment,
+ * and a search that finishes after the change is not stored.
+ *
+ *      Each distance array is stored as narrowly as its largest finite distance
+ * allows: one byte per vertex below 255, two below 65535, else four, with the
+ * all-ones value of the width meaning unreachable. The cache is capped by the
+ * total bytes of its entries and evicts the least recently used entry when it
+ * is full. A single array bigger than the cap is returned but not stored.
+ *
+ *      hits, misses and evictions are counted for monitoring. All methods may be
+ * called from several threads; searches run outside the lock, so two threads
+ * missing on the same source at once both search.
+ *
+ * Usage:
+ *      DistanceCache cache = new DistanceCache(graph, 64L << 20);
+ *      int d = cache.distance(source, target);
+ *      int[] dist = cache.distances(source);
+ *      cache.update(newGraph);
+ *  or, to follow a file:
+ *      DistanceCache cache = new DistanceCache(watcher, 64L << 20);
+ *
+ *      Vertices are 0-based.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+public class DistanceCache
+{
+    private static final int INFINITY = SearchState.INFINITY;
+    private static final int ENTRY_OVERHEAD = 96;   // map node, key, entry and array headers
+
+    /**
+     * One cached distance array, in exactly one of three widths.
+     */
+    private static final class Entry
+    {
+        private final byte[] bytes;
+        private final char[] chars;
+        private final int[] ints;
+        private final int n;
+        private final long size;
+
+        private Entry(byte[] bytes, char[] chars, int[] ints, int n, int width)
+        {
+            this.bytes = bytes;
+            this.chars = chars;
+            this.ints = ints;
+            this.n = n;
+            this.size = ENTRY_OVERHEAD + (long) n * width;
+        }
+
+        private int get(int v)
+        {
+            if ( bytes != null )
+            {
+                int d = bytes[v] & 0xFF;
+                return d == 0xFF ? INFINITY : d;
+            }
+            if ( chars != null )
+            {
+                int d = chars[v];
+                return d == 0xFFFF ? INFINITY : d;
+            }
+            return ints[v];
+        }
+    }
+
+    private final GraphWatcher watcher;     // null if the graph is set by update()
+    private final long maxBytes;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true);
+
+    // Guarded by this
+    private QueryEngine engine;
+    private long version;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a cache for one graph; call update() when it changes.
+     *      @param graph
+     *      @param maxBytes - total size of the stored arrays
+     */
+    public DistanceCache(CSRGraph graph, long maxBytes)
+    {
+        this(null, graph, 0, maxBytes);
+    }
+
+    /**
+     * Creates a cache that always answers for the latest snapshot of a watcher.
+     *      @param watcher
+     *      @param maxBytes - total size of the stored arrays
+     */
+    public DistanceCache(GraphWatcher watcher, long maxBytes)
+    {
+        this(watcher, watcher.getSnapshot(), maxBytes);
+    }
+
+    private DistanceCache(GraphWatcher watcher, GraphWatcher.Snapshot snapshot, long maxBytes)
+    {
+        this(watcher, snapshot.getGraph(), snapshot.getVersion(), maxBytes);
+    }
+
+    private DistanceCache(GraphWatcher watcher, CSRGraph graph, long version, long maxBytes)
+    {
+        if ( maxBytes < 0 )
+        {
+            throw new IllegalArgumentException("Invalid cache size: " + maxBytes);
+        }
+        this.watcher = watcher;
+        this.maxBytes = maxBytes;
+        this.engine = new QueryEngine(graph);
+        this.version = version;
+    }
+
+    /**
+     * Replaces the graph and drops every entry.
+     *      @param graph
+     */
+    public synchronized void update(CSRGraph graph)
+    {
+        switchTo(graph, version + 1);
+    }
+
+    /**
+     * Returns the distance from source to target, searching only if source is
+     * not cached.
+     *      @param source - 0-based starting vertex
+     *      @param target - 0-based destination
+     *      @return distance, or SearchState.INFINITY if unreachable
+     */
+    public int distance(int source, int target)
+    {
+        return lookup(source).get(target);
+    }
+
+    /**
+     * Returns the distances from source as a new n-sized array, searching only
+     * if source is not cached.
+     *      @param source - 0-based starting vertex
+     *      @return
+     */
+    public int[] distances(int source)
+    {
+        Entry entry = lookup(source);
+        int[] dist = new int[entry.n];
+        for ( int v = 0; v < dist.length; v++ )
+        {
+            dist[v] = entry.get(v);
+        }
+        return dist;
+    }
+
+    /**
+     * Returns the version of the graph the cache currently answers for
+     * @return
+     */
+    public synchronized long getVersion()
+    {
+        refresh();
+        return version;
+    }
+
+    /**
+     * Returns the number of queries answered from the cache
+     * @return
+     */
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * Returns the number of queries that had to search
+     * @return
+     */
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * Returns the number of entries dropped to stay under the size cap
+     * @return
+     */
+    public synchronized long getEvictions()
+    {
+        return evictions;
+    }
+
+    /**
+     * Returns the number of cached sources
+     * @return
+     */
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Returns the total bytes of the cached entries
+     * @return
+     */
+    public synchronized long getBytes()
+    {
+        return bytes;
+    }
+
+    /**
+     * Drops every entry and keeps the counters.
+     */
+    public synchronized void clear()
+    {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized String toString()
+    {
+        long queries = hits + misses;
+        return "DistanceCache: version " + version + ", " + entries.size() + " sources, " + bytes + " of "
+               + maxBytes + " bytes, " + hits + " hits, " + misses + " misses ("
+               + (queries == 0 ? 0 : 100 * hits / queries) + "% hit), " + evictions + " evictions";
+    }
+
+    /**
+     * Returns the cached entry of source, searching and storing it on a miss.
+     *      @param source
+     *      @return
+     */
+    private Entry lookup(int source)
+    {
+        QueryEngine current;
+        long key;
+        synchronized (this)
+        {
+            refresh();
+            if ( source < 0 || source >= engine.getGraph().getNumVertices() )
+            {
+                throw new IllegalArgumentException("Invalid source vertex: " + source);
+            }
+            key = version << 32 | source;
+            Entry entry = entries.get(key);
+            if ( entry != null )
+            {
+                hits++;
+                return entry;
+            }
+            misses++;
+            current = engine;
+        }
+
+        Entry entry = search(current, source);
+
+        synchronized (this)
+        {
+            // Not stored if the graph changed during the search or it can never fit
+            if ( current == engine && entry.size <= maxBytes && !entries.containsKey(key) )
+            {
+                entries.put(key, entry);
+                bytes += entry.size;
+                Iterator<Entry> eldest = entries.values().iterator();
+                while ( bytes > maxBytes )
+                {
+                    bytes -= eldest.next().size;
+                    eldest.remove();
+                    evictions++;
+                }
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Switches to the watcher's latest snapshot if it has a new version.
+     */
+    private void refresh()
+    {
+        if ( watcher != null )
+        {
+            GraphWatcher.Snapshot snapshot = watcher.getSnapshot();
+            if ( snapshot.getVersion() != version )
+            {
+                switchTo(snapshot.getGraph(), snapshot.getVersion());
+            }
+        }
+    }
+
+    /**
+     * Replaces the engine and drops every entry.
+     *      @param graph
+     *      @param newVersion
+     */
+    private void switchTo(CSRGraph graph, long newVersion)
+    {
+        engine = new QueryEngine(graph);
+        version = newVersion;
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Runs one search and stores its distances in the narrowest width.
+     *      @param engine
+     *      @param source
+     *      @return
+     */
+    private static Entry search(QueryEngine engine, int source)
+    {
+        SearchState state = engine.borrow();
+        try
+        {
+            engine.search(state, source);
+            int n = state.getNumVertices();
+            int max = 0;
+            for ( int i = 0; i < state.getNumReached(); i++ )
+            {
+                max = Math.max(max, state.getDistance(state.getReached(i)));
+            }
+
+            if ( max < 0xFF )
+            {
+                byte[] dist = new byte[n];
+                Arrays.fill(dist, (byte) 0xFF);
+                for ( int i = 0; i < state.getNumReached(); i++ )
+                {
+                    int v = state.getReached(i);
+                    dist[v] = (byte) state.getDistance(v);
+                }
+                return new Entry(dist, null, null, n, 1);
+            }
+            if ( max < 0xFFFF )
+            {
+                char[] dist = new char[n];
+                Arrays.fill(dist, (char) 0xFFFF);
+                for ( int i = 0; i < state.getNumReached(); i++ )
+                {
+                    int v = state.getReached(i);
+                    dist[v] = (char) state.getDistance(v);
+                }
+                return new Entry(null, dist, null, n, 2);
+            }
+            return new Entry(null, null, state.toArray(), n, 4);
+        }
+        finally
+        {
+            engine.release(state);
+        }
+    }
+}
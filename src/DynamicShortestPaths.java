@@ -0,0 +1,271 @@
+/**
+ * DynamicShortestPaths: Keeps the distances and shortest path tree from one
+ * source up to date while edges of a GraphOverlay are inserted, deleted and
+ * reweighted, in the style of Ramalingam and Reps.
+ *
+ *      repair() reads the overlay's delta log from where the last repair
+ * stopped and fixes dist[] and pred[] for the whole batch in three steps:
+ *      1. Edges that got worse. If u -> v was v's tree edge and now is gone or
+ *         got heavier, every vertex in the subtree below v may have
+ *         lost its path. The subtree is found by following tree edges down from
+ *         v, its distances are forgotten, and each of its vertices takes its best
+ *         entry from an in-neighbour outside the subtree as a tentative distance.
+ *      2. Edges that got better. If dist[u] + w(u, v) < dist[v], v improves.
+ *      3. Dijkstra from every vertex that changed in 1 or 2, which carries the
+ *         changes on to the vertices below them and stops where nothing improves.
+ * Vertices outside the affected subtrees keep their distances unless an
+ * improvement reaches them, so a repair costs about as much as the part of the
+ * tree it really changes, not a new search.
+ *
+ * Usage:
+ *      GraphOverlay overlay = new GraphOverlay(graph);
+ *      DynamicShortestPaths paths = new DynamicShortestPaths(overlay, source);
+ *      overlay.setEdge(u, v, 7);
+ *      overlay.removeEdge(x, y);
+ *      paths.repair();
+ *      int d = paths.getDistance(target);
+ *
+ *      Vertices are 0-based. Like the overlay, it is not thread-safe.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.util.Arrays;
+
+public class DynamicShortestPaths
+{
+    private static final int INFINITY = SearchState.INFINITY;
+
+    private final GraphOverlay graph;
+    private final int source;
+    private final int[] dist;
+    private final int[] pred;               // -1 for the source and unreachable vertices
+    private final IndexedDHeap heap;
+
+    // Vertices of the subtrees cut off by the current repair
+    private final int[] affected;
+    private final int[] mark;               // mark[v] == generation if v is in affected
+    private int numAffected;
+    private int generation;
+
+    private int applied;                    // changes of the overlay's log already repaired
+
+    /**
+     * Computes the shortest path tree of the overlay as it is now.
+     *      @param graph
+     *      @param source - 0-based starting vertex
+     */
+    public DynamicShortestPaths(GraphOverlay graph, int source)
+    {
+        int n = graph.getNumVertices();
+        this.graph = graph;
+        this.source = source;
+        this.dist = new int[n];
+        this.pred = new int[n];
+        this.heap = new IndexedDHeap(n, 4);
+        this.affected = new int[n];
+        this.mark = new int[n];
+        Arrays.fill(dist, INFINITY);
+        Arrays.fill(pred, -1);
+
+        dist[source] = 0;
+        heap.insert(source, 0);
+        propagate();
+        applied = graph.getNumChanges();
+    }
+
+    /**
+     * Brings the distances and tree up to date with every change made to the
+     * overlay since the last repair.
+     *      @return number of vertices whose distance was recomputed
+     */
+    public int repair()
+    {
+        int end = graph.getNumChanges();
+        if ( applied == end )
+        {
+            return 0;
+        }
+
+        // 1. Cut off the subtrees below tree edges that got worse
+        generation++;
+        numAffected = 0;
+        for ( int c = applied; c < end; c++ )
+        {
+            int u = graph.getChangeSource(c);
+            int v = graph.getChangeTarget(c);
+            if ( pred[v] == u && mark[v] != generation )
+            {
+                int weight = graph.getWeight(u, v);
+                if ( weight == -1 || (long) dist[u] + weight > dist[v] )
+                {
+                    cutSubtree(v);
+                }
+            }
+        }
+        for ( int i = 0; i < numAffected; i++ )
+        {
+            dist[affected[i]] = INFINITY;
+            pred[affected[i]] = -1;
+        }
+        for ( int i = 0; i < numAffected; i++ )
+        {
+            int v = affected[i];
+            int degree = graph.getInDegree(v);
+            for ( int j = 0; j < degree; j++ )
+            {
+                int u = graph.getInSource(v, j);
+                if ( mark[u] != generation )
+                {
+                    lower(u, v, graph.getInWeight(v, j));
+                }
+            }
+        }
+
+        // 2. Edges that got better
+        for ( int c = applied; c < end; c++ )
+        {
+            int u = graph.getChangeSource(c);
+            int v = graph.getChangeTarget(c);
+            int weight = graph.getWeight(u, v);
+            if ( weight != -1 )
+            {
+                lower(u, v, weight);
+            }
+        }
+
+        // 3. Carry the changes on
+        applied = end;
+        return propagate();
+    }
+
+    /**
+     * Returns the 0-based starting vertex
+     * @return
+     */
+    public int getSource()
+    {
+        return source;
+    }
+
+    /**
+     * Returns the distance from the source to v, SearchState.INFINITY if unreachable
+     * @param v
+     * @return
+     */
+    public int getDistance(int v)
+    {
+        return dist[v];
+    }
+
+    /**
+     * Returns the vertex before v on its shortest path, -1 for the source and
+     * unreachable vertices
+     * @param v
+     * @return
+     */
+    public int getPredecessor(int v)
+    {
+        return pred[v];
+    }
+
+    /**
+     * Writes the path from the source to target into a buffer.
+     *      @param target - 0-based destination
+     *      @param path - cleared, then filled from source to target
+     *      @return false (and an empty path) if target is unreachable
+     */
+    public boolean getPath(int target, PathBuffer path)
+    {
+        path.clear();
+        if ( dist[target] == INFINITY )
+        {
+            return false;
+        }
+        for ( int v = target; v != -1; v = pred[v] )
+        {
+            path.add(v);
+        }
+        path.reverse(0);
+        return true;
+    }
+
+    /**
+     * Copies the current distances and tree.
+     *      @return
+     */
+    public ShortestPathTree toTree()
+    {
+        return new ShortestPathTree(source, dist.clone(), pred.clone());
+    }
+
+    /**
+     * Adds v and every vertex below it in the tree to the affected set.
+     *      @param v
+     */
+    private void cutSubtree(int v)
+    {
+        int first = numAffected;
+        mark[v] = generation;
+        affected[numAffected++] = v;
+
+        // The affected array doubles as the queue of the walk
+        for ( int i = first; i < numAffected; i++ )
+        {
+            int y = affected[i];
+            int degree = graph.getOutDegree(y);
+            for ( int j = 0; j < degree; j++ )
+            {
+                int x = graph.getOutTarget(y, j);
+                if ( pred[x] == y && mark[x] != generation )
+                {
+                    mark[x] = generation;
+                    affected[numAffected++] = x;
+                }
+            }
+        }
+    }
+
+    /**
+     * Lowers dist[v] through the edge u -> v if that is shorter, and queues v.
+     *      @param u
+     *      @param v
+     *      @param weight
+     */
+    private void lower(int u, int v, int weight)
+    {
+        if ( dist[u] == INFINITY )
+        {
+            return;
+        }
+        long length = (long) dist[u] + weight;
+        if ( length < dist[v] )
+        {
+            dist[v] = (int) length;
+            pred[v] = u;
+            heap.insertOrDecrease(v, (int) length);
+        }
+    }
+
+    /**
+     * Runs Dijkstra from the queued vertices until nothing improves.
+     *      @return number of vertices settled
+     */
+    private int propagate()
+    {
+        int settled = 0;
+        while ( !heap.isEmpty() )
+        {
+            int u = heap.pollMin();
+            settled++;
+            int degree = graph.getOutDegree(u);
+            for ( int j = 0; j < degree; j++ )
+            {
+                lower(u, graph.getOutTarget(u, j), graph.getOutWeight(u, j));
+            }
+        }
+        return settled;
+    }
+}
@@ -0,0 +1,370 @@
+/**
+ * GraphGenerator: Writes seeded synthetic graphs in the adjacency-list text
+ * format that DataReader reads.
+ *
+ *      Every vertex gets exactly one line, in vertex order, starting with the
+ * vertex number followed by tab separated "destination,weight" blocks:
+ *      "1	3,2	4,1"
+ * Vertices are numbered from 1 as in Test.txt. The same seed always produces
+ * the same file.
+ *
+ *      Edges are generated one source vertex at a time and streamed through a
+ * fixed size buffer that is flushed even in the middle of a long line, so memory
+ * stays bounded no matter how many edges are written; 10^8 edges need no more
+ * heap than 10^3.
+ *
+ * Models:
+ *      random      G(n,m): m edges with uniformly random endpoints
+ *      grid        rows x cols grid with edges both ways between neighbours,
+ *                  a road-like graph with large diameter
+ *      rmat        R-MAT power-law graph on 2^scale vertices with m edges and
+ *                  quadrant probabilities a, b, c (d = 1 - a - b - c)
+ *      complete    every vertex connects to every other vertex
+ *
+ * Usage:
+ *      java GraphGenerator random   <output> <n> <m>        [--seed s] [--max-weight w]
+ *      java GraphGenerator grid     <output> <rows> <cols>  [--seed s] [--max-weight w]
+ *      java GraphGenerator rmat     <output> <scale> <m>    [--seed s] [--max-weight w]
+ *      java GraphGenerator complete <output> <n>            [--seed s] [--max-weight w]
+ *
+ *      or from code:
+ *      new GraphGenerator(seed, maxWeight).writeRandom(out, n, m);
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+
+public class GraphGenerator
+{
+    // Default R-MAT quadrant probabilities (Graph500)
+    public static final double RMAT_A = 0.57;
+    public static final double RMAT_B = 0.19;
+    public static final double RMAT_C = 0.19;
+
+    private static final int FLUSH_SIZE = 1 << 16;
+
+    private final Random random;
+    private final int maxWeight;
+    private OutputStream out;
+    private final byte[] line = new byte[FLUSH_SIZE + 64];
+    private int length;
+
+    /**
+     * Creates a generator. Weights are uniform in [1, maxWeight].
+     *      @param seed
+     *      @param maxWeight
+     */
+    public GraphGenerator(long seed, int maxWeight)
+    {
+        if ( maxWeight < 1 )
+        {
+            throw new IllegalArgumentException("max weight must be at least 1: " + maxWeight);
+        }
+        this.random = new Random(seed);
+        this.maxWeight = maxWeight;
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        if ( args.length < 3 )
+        {
+            System.err.println("Usage: java GraphGenerator random|grid|rmat|complete <output> <sizes...>"
+                               + " [--seed s] [--max-weight w]");
+            System.exit(1);
+        }
+
+        String model = args[0];
+        String output = args[1];
+        long seed = 1;
+        int maxWeight = 10000;
+        long[] sizes = new long[args.length];
+        int numSizes = 0;
+
+        for ( int i = 2; i < args.length; i++ )
+        {
+            if ( args[i].equals("--seed") )
+            {
+                seed = Long.parseLong(args[++i]);
+            }
+            else if ( args[i].equals("--max-weight") )
+            {
+                maxWeight = Integer.parseInt(args[++i]);
+            }
+            else
+            {
+                sizes[numSizes++] = Long.parseLong(args[i]);
+            }
+        }
+
+        GraphGenerator generator = new GraphGenerator(seed, maxWeight);
+        try ( OutputStream out = new BufferedOutputStream(new FileOutputStream(output), 1 << 16) )
+        {
+            switch ( model )
+            {
+                case "random":   generator.writeRandom(out, (int) sizes[0], sizes[1]); break;
+                case "grid":     generator.writeGrid(out, (int) sizes[0], (int) sizes[1]); break;
+                case "rmat":     generator.writeRMat(out, (int) sizes[0], sizes[1], RMAT_A, RMAT_B, RMAT_C); break;
+                case "complete": generator.writeComplete(out, (int) sizes[0]); break;
+                default:
+                    throw new IllegalArgumentException("Unknown model " + model);
+            }
+        }
+    }
+
+    /**
+     * Writes a G(n,m) graph: m edges whose endpoints are uniformly random. The
+     * out-degree of each vertex is drawn from the binomial distribution of the
+     * edges not yet placed, so the total is exactly m.
+     *      @param out
+     *      @param n - number of vertices
+     *      @param m - number of edges
+     *      @throws IOException
+     */
+    public void writeRandom(OutputStream out, int n, long m) throws IOException
+    {
+        this.out = out;
+        long remaining = m;
+        for ( int v = 0; v < n; v++ )
+        {
+            long degree = binomial(remaining, 1.0 / (n - v));
+            remaining -= degree;
+
+            startLine(v);
+            for ( long k = 0; k < degree; k++ )
+            {
+                addEdge(random.nextInt(n));
+            }
+            endLine();
+        }
+    }
+
+    /**
+     * Writes a rows x cols grid where each cell connects to its up, down, left
+     * and right neighbours. Cell (r, c) is vertex r * cols + c + 1.
+     *      @param out
+     *      @param rows
+     *      @param cols
+     *      @throws IOException
+     */
+    public void writeGrid(OutputStream out, int rows, int cols) throws IOException
+    {
+        this.out = out;
+        for ( int r = 0; r < rows; r++ )
+        {
+            for ( int c = 0; c < cols; c++ )
+            {
+                int v = r * cols + c;
+                startLine(v);
+                if ( r > 0 )
+                {
+                    addEdge(v - cols);
+                }
+                if ( r < rows - 1 )
+                {
+                    addEdge(v + cols);
+                }
+                if ( c > 0 )
+                {
+                    addEdge(v - 1);
+                }
+                if ( c < cols - 1 )
+                {
+                    addEdge(v + 1);
+                }
+                endLine();
+            }
+        }
+    }
+
+    /**
+     * Writes an R-MAT graph on 2^scale vertices with m edges. In R-MAT each edge
+     * picks one quadrant of the adjacency matrix per bit with probabilities a, b,
+     * c, d. Since the row bits alone decide the source, the out-degree of every
+     * source is drawn first and its targets are then drawn bit by bit given the
+     * source bits, which lets the edges stream out in source order.
+     *      @param out
+     *      @param scale - log2 of the number of vertices
+     *      @param m - number of edges
+     *      @param a - probability of the top-left quadrant
+     *      @param b - probability of the top-right quadrant
+     *      @param c - probability of the bottom-left quadrant
+     *      @throws IOException
+     */
+    public void writeRMat(OutputStream out, int scale, long m, double a, double b, double c)
+            throws IOException
+    {
+        double d = 1.0 - a - b - c;
+        if ( scale < 1 || scale > 30 || a < 0 || b < 0 || c < 0 || d < 0 )
+        {
+            throw new IllegalArgumentException("Invalid R-MAT parameters");
+        }
+
+        this.out = out;
+        int n = 1 << scale;
+        double top = a + b;            // probability a row bit is 0
+        long remaining = m;
+        double remainingMass = 1.0;    // probability mass of sources not yet written
+
+        for ( int v = 0; v < n; v++ )
+        {
+            // Probability that an edge starts at v
+            double mass = 1.0;
+            for ( int bit = scale - 1; bit >= 0; bit-- )
+            {
+                mass *= ((v >>> bit) & 1) == 0 ? top : 1.0 - top;
+            }
+
+            long degree = v == n - 1 ? remaining
+                                     : binomial(remaining, Math.min(1.0, mass / remainingMass));
+            remaining -= degree;
+            remainingMass -= mass;
+
+            startLine(v);
+            for ( long k = 0; k < degree; k++ )
+            {
+                int target = 0;
+                for ( int bit = scale - 1; bit >= 0; bit-- )
+                {
+                    // Chance the column bit is 0 given the row bit
+                    double left = ((v >>> bit) & 1) == 0 ? a / top : c / (1.0 - top);
+                    if ( random.nextDouble() >= left )
+                    {
+                        target |= 1 << bit;
+                    }
+                }
+                addEdge(target);
+            }
+            endLine();
+        }
+    }
+
+    /**
+     * Writes a complete directed graph: every vertex connects to every other one.
+     *      @param out
+     *      @param n - number of vertices
+     *      @throws IOException
+     */
+    public void writeComplete(OutputStream out, int n) throws IOException
+    {
+        this.out = out;
+        for ( int v = 0; v < n; v++ )
+        {
+            startLine(v);
+            for ( int w = 0; w < n; w++ )
+            {
+                if ( w != v )
+                {
+                    addEdge(w);
+                }
+            }
+            endLine();
+        }
+    }
+
+    /**
+     * Draws from Binomial(trials, p): by inversion when the mean is small, by the
+     * normal approximation when it is large.
+     *      @param trials
+     *      @param p
+     *      @return
+     */
+    private long binomial(long trials, double p)
+    {
+        if ( trials == 0 || p <= 0 )
+        {
+            return 0;
+        }
+        if ( p >= 1 )
+        {
+            return trials;
+        }
+
+        double mean = trials * p;
+        if ( mean > 30 )
+        {
+            double sd = Math.sqrt(mean * (1 - p));
+            long k = Math.round(mean + sd * random.nextGaussian());
+            return Math.max(0, Math.min(trials, k));
+        }
+
+        double u = random.nextDouble();
+        double prob = Math.exp(trials * Math.log1p(-p));
+        double cumulative = prob;
+        long k = 0;
+        while ( u > cumulative && k < trials )
+        {
+            prob *= (double) (trials - k) / (k + 1) * p / (1 - p);
+            k++;
+            cumulative += prob;
+        }
+        return k;
+    }
+
+    /**
+     * Starts the line of vertex v (0-based) by writing its 1-based number.
+     *      @param v
+     */
+    private void startLine(int v)
+    {
+        length = 0;
+        appendInt(v + 1);
+    }
+
+    /**
+     * Adds an edge to 0-based vertex target with a random weight to the current
+     * line, writing out what the buffer holds so far when it is full.
+     *      @param target
+     *      @throws IOException
+     */
+    private void addEdge(int target) throws IOException
+    {
+        if ( length >= FLUSH_SIZE )
+        {
+            out.write(line, 0, length);
+            length = 0;
+        }
+        line[length++] = '\t';
+        appendInt(target + 1);
+        line[length++] = ',';
+        appendInt(random.nextInt(maxWeight) + 1);
+    }
+
+    /**
+     * Ends the current line and hands it to the output stream.
+     *      @throws IOException
+     */
+    private void endLine() throws IOException
+    {
+        line[length++] = '\n';
+        out.write(line, 0, length);
+    }
+
+    /**
+     * Appends the decimal digits of a non-negative int to the current line.
+     *      @param value
+     */
+    private void appendInt(int value)
+    {
+        int start = length;
+        do
+        {
+            line[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while ( value != 0 );
+
+        // The digits came out backwards
+        for ( int i = start, j = length - 1; i < j; i++, j-- )
+        {
+            byte tmp = line[i];
+            line[i] = line[j];
+            line[j] = tmp;
+        }
+    }
+}
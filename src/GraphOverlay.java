@@ -0,0 +1,442 @@
+/**
+ * GraphOverlay: A mutable view of a loaded CSRGraph that records edge insertions,
+ * deletions and weight changes without rebuilding the graph.
+ *
+ *      A CSRGraph is immutable, so a change would otherwise mean re-reading the
+ * file. The overlay leaves the base graph untouched and keeps a private copy of
+ * the edge list of each vertex the first time one of its edges changes; every
+ * other vertex reads straight from the base. So memory and work grow with the
+ * number of changed vertices, not with the graph.
+ *
+ *      There is at most one edge u -> v in the overlay's view: setEdge() replaces
+ * all parallel u -> v edges with one, and getWeight() reports the lightest of
+ * them.
+ *
+ *      Every change is also appended to a delta log (source, target, weight
+ * before, weight after, -1 meaning no edge) that consumers read from the index
+ * they last processed, e.g. DynamicShortestPaths.repair(). toGraph() compacts
+ * the base and all changes into a new CSRGraph.
+ *
+ *      In-edges are served from the reverse of the base graph, which is built on
+ * the first call that needs them. The overlay is not thread-safe.
+ *
+ * Usage:
+ *      GraphOverlay overlay = new GraphOverlay(graph);
+ *      overlay.setEdge(u, v, 12);
+ *      overlay.removeEdge(u, w);
+ *      for ( int i = processed; i < overlay.getNumChanges(); i++ ) ... overlay.getChangeSource(i) ...
+ *
+ *      Vertices are 0-based.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.util.Arrays;
+
+public class GraphOverlay
+{
+    private final CSRGraph base;
+    private CSRGraph reverse;       // built on the first in-edge access
+
+    // Patched lists as (neighbour, weight) pairs, null while a vertex is unchanged
+    private final int[][] out;
+    private final int[] outSize;    // number of ints used, 2 per edge
+    private final int[][] in;
+    private final int[] inSize;
+
+    // Delta log, 4 ints per change: source, target, old weight, new weight
+    private int[] log = new int[64];
+    private int numChanges;
+    private int numEdges;
+
+    /**
+     * Creates an overlay with no changes over a graph.
+     *      @param base
+     */
+    public GraphOverlay(CSRGraph base)
+    {
+        int n = base.getNumVertices();
+        this.base = base;
+        this.out = new int[n][];
+        this.outSize = new int[n];
+        this.in = new int[n][];
+        this.inSize = new int[n];
+        this.numEdges = base.getNumEdges();
+    }
+
+    /**
+     * Returns the graph the overlay started from
+     * @return
+     */
+    public CSRGraph getBase()
+    {
+        return base;
+    }
+
+    /**
+     * Returns the number of vertices
+     * @return
+     */
+    public int getNumVertices()
+    {
+        return base.getNumVertices();
+    }
+
+    /**
+     * Returns the number of edges with all changes applied
+     * @return
+     */
+    public int getNumEdges()
+    {
+        return numEdges;
+    }
+
+    /**
+     * Returns the number of out-edges of u
+     * @param u
+     * @return
+     */
+    public int getOutDegree(int u)
+    {
+        return out[u] != null ? outSize[u] / 2 : base.getDegree(u);
+    }
+
+    /**
+     * Returns the target of the i-th out-edge of u
+     * @param u
+     * @param i
+     * @return
+     */
+    public int getOutTarget(int u, int i)
+    {
+        return out[u] != null ? out[u][2 * i] : base.getTarget(base.edgeStart(u) + i);
+    }
+
+    /**
+     * Returns the weight of the i-th out-edge of u
+     * @param u
+     * @param i
+     * @return
+     */
+    public int getOutWeight(int u, int i)
+    {
+        return out[u] != null ? out[u][2 * i + 1] : base.getWeight(base.edgeStart(u) + i);
+    }
+
+    /**
+     * Returns the number of in-edges of v
+     * @param v
+     * @return
+     */
+    public int getInDegree(int v)
+    {
+        return in[v] != null ? inSize[v] / 2 : getReverse().getDegree(v);
+    }
+
+    /**
+     * Returns the source of the i-th in-edge of v
+     * @param v
+     * @param i
+     * @return
+     */
+    public int getInSource(int v, int i)
+    {
+        if ( in[v] != null )
+        {
+            return in[v][2 * i];
+        }
+        CSRGraph r = getReverse();
+        return r.getTarget(r.edgeStart(v) + i);
+    }
+
+    /**
+     * Returns the weight of the i-th in-edge of v
+     * @param v
+     * @param i
+     * @return
+     */
+    public int getInWeight(int v, int i)
+    {
+        if ( in[v] != null )
+        {
+            return in[v][2 * i + 1];
+        }
+        CSRGraph r = getReverse();
+        return r.getWeight(r.edgeStart(v) + i);
+    }
+
+    /**
+     * Returns the weight of the edge u -> v, the lightest if there are several,
+     * or -1 if there is none.
+     *      @param u
+     *      @param v
+     *      @return
+     */
+    public int getWeight(int u, int v)
+    {
+        int best = -1;
+        int degree = getOutDegree(u);
+        for ( int i = 0; i < degree; i++ )
+        {
+            if ( getOutTarget(u, i) == v && (best == -1 || getOutWeight(u, i) < best) )
+            {
+                best = getOutWeight(u, i);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Inserts the edge u -> v or changes its weight. Any parallel u -> v edges
+     * are replaced by this one.
+     *      @param u
+     *      @param v
+     *      @param weight - non-negative
+     */
+    public void setEdge(int u, int v, int weight)
+    {
+        if ( weight < 0 )
+        {
+            throw new IllegalArgumentException("Negative weight " + weight + " on edge " + u + " -> " + v);
+        }
+        int old = getWeight(u, v);
+        removeAll(u, v);
+        patchOut(u);
+        patchIn(v);
+        out[u] = append(out[u], outSize[u], v, weight);
+        outSize[u] += 2;
+        in[v] = append(in[v], inSize[v], u, weight);
+        inSize[v] += 2;
+        numEdges++;
+        record(u, v, old, weight);
+    }
+
+    /**
+     * Deletes the edge u -> v, and any parallel u -> v edges.
+     *      @param u
+     *      @param v
+     *      @return false if there was no such edge
+     */
+    public boolean removeEdge(int u, int v)
+    {
+        int old = getWeight(u, v);
+        if ( old == -1 )
+        {
+            return false;
+        }
+        removeAll(u, v);
+        record(u, v, old, -1);
+        return true;
+    }
+
+    /**
+     * Returns the number of changes made so far. Changes are numbered from 0 in
+     * the order they were made.
+     *      @return
+     */
+    public int getNumChanges()
+    {
+        return numChanges;
+    }
+
+    /**
+     * Returns the source vertex of change i
+     * @param i
+     * @return
+     */
+    public int getChangeSource(int i)
+    {
+        return log[4 * i];
+    }
+
+    /**
+     * Returns the target vertex of change i
+     * @param i
+     * @return
+     */
+    public int getChangeTarget(int i)
+    {
+        return log[4 * i + 1];
+    }
+
+    /**
+     * Returns the weight of the edge before change i, -1 if it did not exist
+     * @param i
+     * @return
+     */
+    public int getChangeOldWeight(int i)
+    {
+        return log[4 * i + 2];
+    }
+
+    /**
+     * Returns the weight of the edge after change i, -1 if it was removed
+     * @param i
+     * @return
+     */
+    public int getChangeNewWeight(int i)
+    {
+        return log[4 * i + 3];
+    }
+
+    /**
+     * Builds an immutable graph with every change applied.
+     *      @return
+     */
+    public CSRGraph toGraph()
+    {
+        int n = getNumVertices();
+        int[] offsets = new int[n + 1];
+        for ( int u = 0; u < n; u++ )
+        {
+            offsets[u + 1] = offsets[u] + getOutDegree(u);
+        }
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        for ( int u = 0; u < n; u++ )
+        {
+            for ( int i = 0; i < getOutDegree(u); i++ )
+            {
+                targets[offsets[u] + i] = getOutTarget(u, i);
+                weights[offsets[u] + i] = getOutWeight(u, i);
+            }
+        }
+        return new ArrayCSRGraph(offsets, targets, weights);
+    }
+
+    /**
+     * Removes every u -> v edge from both of the patched lists.
+     *      @param u
+     *      @param v
+     */
+    private void removeAll(int u, int v)
+    {
+        patchOut(u);
+        patchIn(v);
+        int removed = 0;
+        for ( int j = 0; j < outSize[u]; )
+        {
+            if ( out[u][j] == v )
+            {
+                outSize[u] -= 2;
+                out[u][j] = out[u][outSize[u]];
+                out[u][j + 1] = out[u][outSize[u] + 1];
+                removed++;
+            }
+            else
+            {
+                j += 2;
+            }
+        }
+        for ( int j = 0; j < inSize[v]; )
+        {
+            if ( in[v][j] == u )
+            {
+                inSize[v] -= 2;
+                in[v][j] = in[v][inSize[v]];
+                in[v][j + 1] = in[v][inSize[v] + 1];
+            }
+            else
+            {
+                j += 2;
+            }
+        }
+        numEdges -= removed;
+    }
+
+    /**
+     * Copies the base out-edges of u into a patched list, if not done yet.
+     *      @param u
+     */
+    private void patchOut(int u)
+    {
+        if ( out[u] == null )
+        {
+            int degree = base.getDegree(u);
+            int[] list = new int[2 * degree + 2];
+            for ( int i = 0; i < degree; i++ )
+            {
+                list[2 * i] = base.getTarget(base.edgeStart(u) + i);
+                list[2 * i + 1] = base.getWeight(base.edgeStart(u) + i);
+            }
+            out[u] = list;
+            outSize[u] = 2 * degree;
+        }
+    }
+
+    /**
+     * Copies the base in-edges of v into a patched list, if not done yet.
+     *      @param v
+     */
+    private void patchIn(int v)
+    {
+        if ( in[v] == null )
+        {
+            CSRGraph r = getReverse();
+            int degree = r.getDegree(v);
+            int[] list = new int[2 * degree + 2];
+            for ( int i = 0; i < degree; i++ )
+            {
+                list[2 * i] = r.getTarget(r.edgeStart(v) + i);
+                list[2 * i + 1] = r.getWeight(r.edgeStart(v) + i);
+            }
+            in[v] = list;
+            inSize[v] = 2 * degree;
+        }
+    }
+
+    /**
+     * Returns the reverse of the base graph, building it on first use.
+     *      @return
+     */
+    private CSRGraph getReverse()
+    {
+        if ( reverse == null )
+        {
+            reverse = base.reverse();
+        }
+        return reverse;
+    }
+
+    /**
+     * Writes the pair (neighbour, weight) at index size of list, growing it if
+     * needed.
+     *      @param list
+     *      @param size
+     *      @param neighbour
+     *      @param weight
+     *      @return the list, or its larger copy
+     */
+    private static int[] append(int[] list, int size, int neighbour, int weight)
+    {
+        if ( size + 2 > list.length )
+        {
+            list = Arrays.copyOf(list, 2 * list.length);
+        }
+        list[size] = neighbour;
+        list[size + 1] = weight;
+        return list;
+    }
+
+    /**
+     * Appends a change to the delta log.
+     *      @param u
+     *      @param v
+     *      @param oldWeight
+     *      @param newWeight
+     */
+    private void record(int u, int v, int oldWeight, int newWeight)
+    {
+        if ( 4 * numChanges + 4 > log.length )
+        {
+            log = Arrays.copyOf(log, 2 * log.length);
+        }
+        log[4 * numChanges] = u;
+        log[4 * numChanges + 1] = v;
+        log[4 * numChanges + 2] = oldWeight;
+        log[4 * numChanges + 3] = newWeight;
+        numChanges++;
+    }
+}
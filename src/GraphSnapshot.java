@@ -0,0 +1,337 @@
+/**
+ * GraphSnapshot: A compact, versioned binary file for a CSRGraph, so a graph is
+ * parsed from text once and then opened almost instantly on later runs.
+ *
+ * Format (all numbers little-endian):
+ *      offset  size    field
+ *      0       4       magic "CSRG"
+ *      4       4       version (1)
+ *      8       4       flags: bit 0 set = targets are varint/delta compressed
+ *      12      4       n, number of vertices
+ *      16      8       m, number of edges
+ *      24      4       largest edge weight
+ *      28      4       reserved (0)
+ *      32      8       length in bytes of the targets section, before padding
+ *      40              offsets: n + 1 ints
+ *                      targets: m ints, or the compressed bytes padded to 4
+ *                      weights: m ints
+ *
+ *      An uncompressed snapshot is memory-mapped and its sections are used
+ * directly as the graph's IntBuffers (BufferCSRGraph), so nothing is parsed or
+ * copied and startup does not depend on the size of the graph. Sections over
+ * 2 GB, the most one buffer can map, are mapped in chunks as a DirectCSRGraph.
+ *
+ *      A compressed snapshot stores each target as the zigzag varint of its
+ * difference from the previous target of the same vertex (the first one from the
+ * vertex itself), which is often 1-2 bytes instead of 4 when edges are local.
+ * Random access to edge e is then impossible, so opening a compressed snapshot
+ * decodes it into an ArrayCSRGraph. Use it for storage and transfer, and the
+ * uncompressed form for fast startup.
+ *
+ * Usage:
+ *      java GraphSnapshot <input.txt> <output.csr> [--compress]
+ *
+ *      or from code:
+ *      GraphSnapshot.write(graph, "graph.csr", false);
+ *      CSRGraph graph = GraphSnapshot.read("graph.csr");
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class GraphSnapshot
+{
+    /** File name extension CSRGraph.load() treats as a snapshot. */
+    public static final String EXTENSION = ".csr";
+
+    private static final int MAGIC = 'C' | 'S' << 8 | 'R' << 16 | 'G' << 24;
+    private static final int VERSION = 1;
+    private static final int FLAG_COMPRESSED = 1;
+    private static final int HEADER_SIZE = 40;
+
+    public static void main(String[] args) throws IOException
+    {
+        if ( args.length < 2 )
+        {
+            System.err.println("Usage: java GraphSnapshot <input.txt> <output" + EXTENSION + "> [--compress]");
+            System.exit(1);
+        }
+
+        CSRGraph graph = CSRGraph.load(args[0]);
+        if ( graph == null )
+        {
+            System.exit(1);
+        }
+        write(graph, args[1], args.length > 2 && args[2].equals("--compress"));
+    }
+
+    /**
+     * Writes a graph to a snapshot file, replacing the file if it exists.
+     *      @param graph
+     *      @param filename
+     *      @param compress - store targets as varint deltas
+     *      @throws IOException
+     */
+    public static void write(CSRGraph graph, String filename, boolean compress) throws IOException
+    {
+        int n = graph.getNumVertices();
+        int m = graph.getNumEdges();
+
+        try ( FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING) )
+        {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+
+            // Header, the targets length is patched in once it is known
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(compress ? FLAG_COMPRESSED : 0).putInt(n);
+            buffer.putLong(m).putInt(graph.getMaxWeight()).putInt(0).putLong(0);
+
+            for ( int v = 0; v <= n; v++ )
+            {
+                flushIfFull(channel, buffer, 4);
+                buffer.putInt(v < n ? graph.edgeStart(v) : m);
+            }
+
+            long targetsBytes = 0;
+            if ( compress )
+            {
+                for ( int v = 0; v < n; v++ )
+                {
+                    int previous = v;
+                    for ( int e = graph.edgeStart(v); e < graph.edgeEnd(v); e++ )
+                    {
+                        int delta = graph.getTarget(e) - previous;
+                        previous = graph.getTarget(e);
+
+                        // zigzag so small negative steps stay small
+                        int zigzag = (delta << 1) ^ (delta >> 31);
+                        flushIfFull(channel, buffer, 5);
+                        while ( (zigzag & ~0x7F) != 0 )
+                        {
+                            buffer.put((byte) ((zigzag & 0x7F) | 0x80));
+                            zigzag >>>= 7;
+                            targetsBytes++;
+                        }
+                        buffer.put((byte) zigzag);
+                        targetsBytes++;
+                    }
+                }
+
+                // Pad so the weights stay 4-byte aligned
+                for ( long pad = targetsBytes; pad % 4 != 0; pad++ )
+                {
+                    flushIfFull(channel, buffer, 1);
+                    buffer.put((byte) 0);
+                }
+            }
+            else
+            {
+                for ( int e = 0; e < m; e++ )
+                {
+                    flushIfFull(channel, buffer, 4);
+                    buffer.putInt(graph.getTarget(e));
+                }
+                targetsBytes = 4L * m;
+            }
+
+            for ( int e = 0; e < m; e++ )
+            {
+                flushIfFull(channel, buffer, 4);
+                buffer.putInt(graph.getWeight(e));
+            }
+            flushIfFull(channel, buffer, buffer.capacity());
+
+            // Patch the targets length into the header
+            buffer.clear();
+            buffer.putLong(targetsBytes).flip();
+            channel.write(buffer, 32);
+        }
+    }
+
+    /**
+     * Opens a snapshot. Uncompressed snapshots are memory-mapped and used in
+     * place; compressed ones are decoded onto the heap.
+     *      @param filename
+     *      @return the graph, or null if the file cannot be read
+     */
+    public static CSRGraph read(String filename)
+    {
+        try ( FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ) )
+        {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if ( channel.read(header, 0) != HEADER_SIZE || header.getInt(0) != MAGIC )
+            {
+                throw new IOException("Not a graph snapshot: " + filename);
+            }
+            if ( header.getInt(4) != VERSION )
+            {
+                throw new IOException("Unsupported snapshot version " + header.getInt(4) + " in " + filename);
+            }
+
+            boolean compressed = (header.getInt(8) & FLAG_COMPRESSED) != 0;
+            int n = header.getInt(12);
+            long m = header.getLong(16);
+            int maxWeight = header.getInt(24);
+            long targetsBytes = header.getLong(32);
+
+            long offsetsAt = HEADER_SIZE;
+            long targetsAt = offsetsAt + 4L * (n + 1);
+            long weightsAt = targetsAt + (targetsBytes + 3) / 4 * 4;
+            if ( n < 0 || m < 0 || m > Integer.MAX_VALUE || channel.size() != weightsAt + 4 * m )
+            {
+                throw new IOException("Corrupt graph snapshot: " + filename);
+            }
+
+            // A mapping stays valid after the channel is closed
+            if ( !compressed && 4L * Math.max(n + 1, m) > Integer.MAX_VALUE )
+            {
+                return new DirectCSRGraph(DirectIntArray.map(channel, offsetsAt, n + 1),
+                                          DirectIntArray.map(channel, targetsAt, (int) m),
+                                          DirectIntArray.map(channel, weightsAt, (int) m), maxWeight);
+            }
+            IntBuffer offsets = mapInts(channel, offsetsAt, n + 1);
+            IntBuffer weights = mapInts(channel, weightsAt, (int) m);
+            if ( !compressed )
+            {
+                return new BufferCSRGraph(offsets, mapInts(channel, targetsAt, (int) m), weights, maxWeight);
+            }
+
+            // Decode the varint deltas vertex by vertex
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, targetsAt, targetsBytes);
+            int[] targets = new int[(int) m];
+            int at = 0;
+            for ( int v = 0; v < n; v++ )
+            {
+                int previous = v;
+                for ( int e = offsets.get(v); e < offsets.get(v + 1); e++ )
+                {
+                    int zigzag = 0;
+                    int shift = 0;
+                    byte b;
+                    do
+                    {
+                        b = bytes.get(at++);
+                        zigzag |= (b & 0x7F) << shift;
+                        shift += 7;
+                    } while ( b < 0 );
+
+                    previous += (zigzag >>> 1) ^ -(zigzag & 1);
+                    targets[e] = previous;
+                }
+            }
+
+            int[] offsetArray = new int[n + 1];
+            int[] weightArray = new int[(int) m];
+            offsets.get(0, offsetArray);
+            weights.get(0, weightArray);
+            return new ArrayCSRGraph(offsetArray, targets, weightArray);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Could not read file " + filename + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Maps count little-endian ints starting at a file position.
+     *      @param channel
+     *      @param position
+     *      @param count
+     *      @return
+     *      @throws IOException
+     */
+    static IntBuffer mapInts(FileChannel channel, long position, int count) throws IOException
+    {
+        if ( 4L * count > Integer.MAX_VALUE )
+        {
+            throw new IOException("Section too large to map as one buffer: " + count + " ints");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, 4L * count)
+                      .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    /**
+     * Writes the whole buffer (from position 0 to its capacity) to the channel.
+     * Shared with the other files that write fixed-size rows (ShortestPathTree,
+     * AltHeuristic).
+     *      @param channel
+     *      @param buffer
+     *      @throws IOException
+     */
+    static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException
+    {
+        buffer.position(buffer.capacity()).flip();
+        while ( buffer.hasRemaining() )
+        {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Writes the buffer's remaining bytes at a file position, leaving the
+     * channel's own position alone so several threads can write rows of one file.
+     * Shared with MultiSourceRunner.
+     *      @param channel
+     *      @param buffer
+     *      @param position
+     *      @throws IOException
+     */
+    static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException
+    {
+        while ( buffer.hasRemaining() )
+        {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Fills the whole buffer from the channel and rewinds it.
+     *      @param channel
+     *      @param buffer
+     *      @throws IOException if the file ends first
+     */
+    static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException
+    {
+        buffer.clear();
+        while ( buffer.hasRemaining() )
+        {
+            if ( channel.read(buffer) < 0 )
+            {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Writes the buffer out if fewer than needed bytes are free; with needed set
+     * to the capacity, writes whatever it holds. Shared with ContractionHierarchy.
+     *      @param channel
+     *      @param buffer
+     *      @param needed
+     *      @throws IOException
+     */
+    static void flushIfFull(FileChannel channel, ByteBuffer buffer, int needed) throws IOException
+    {
+        if ( buffer.remaining() < needed )
+        {
+            buffer.flip();
+            while ( buffer.hasRemaining() )
+            {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,546 @@
+/**
+ * GraphWatcher: Follows an adjacency-list file that keeps growing and publishes
+ * a new CSRGraph every time lines are appended to it, without reading the file
+ * again from the start.
+ *
+ *      The watcher remembers how many bytes it has read. When the file grows it
+ * reads only the new bytes, parses the complete lines among them (a line still
+ * being written stays buffered until its newline arrives) and merges their edges
+ * into a copy of the current graph. The copy is published as a new Snapshot in
+ * one volatile write. Snapshots are never modified after that, so a search that
+ * started on one keeps a consistent view while later searches see the update:
+ *      Indexer indexer = new Indexer(watcher.getGraph(), startVertex);
+ *
+ *      A publish copies the whole graph, O(n + m), so publishes are batched:
+ *  parsed edges wait until they are at least 1/BATCH_FRACTION of the published
+ *  edges, which spreads the copy over the new edges (a constant per edge), or
+ *  until the oldest of them has waited maxDelay, so a slow trickle of lines
+ *  still shows up. flush() publishes them at once.
+ *
+ *      The file is watched with a WatchService on its directory. It is also
+ *  polled every interval, since some file systems do not report changes. If the
+ *  file becomes shorter than what was read, it is taken as a new file and read
+ *  again from the start.
+ *
+ * Input:
+ *      The same "1   2,1   3,1" lines as DataReader. Appended lines may repeat a
+ *  starting vertex, so each line's edges are added to the vertex it starts with
+ *  (1-based) instead of the vertex numbered by its line. For a file written the
+ *  usual way, with line i starting with i, this is the same graph. New vertices
+ *  (as starting vertex or destination) enlarge the graph. Blank lines are
+ *  skipped rather than ending the input, since more lines may follow. A malformed
+ *  line, or one with a number too large for an int, is reported on System.err
+ *  and dropped.
+ *
+ * Usage:
+ *      GraphWatcher watcher = new GraphWatcher(filename);
+ *      watcher.start();
+ *      ...
+ *      GraphWatcher.Snapshot snapshot = watcher.getSnapshot();
+ *      QueryEngine engine = new QueryEngine(snapshot.getGraph());
+ *      ...
+ *      watcher.close();
+ *  or call poll() yourself instead of start() to pick up changes when you want,
+ *  and flush() to see every line read so far.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+public class GraphWatcher implements AutoCloseable
+{
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long DEFAULT_INTERVAL = 1000;
+    private static final long DEFAULT_MAX_DELAY = 10000;
+    /** Parsed edges are published once they are this fraction of the published ones. */
+    private static final int BATCH_FRACTION = 16;
+
+    /**
+     * One published version of the graph. Never changes once published.
+     */
+    public static final class Snapshot
+    {
+        private final CSRGraph graph;
+        private final long version;
+
+        private Snapshot(CSRGraph graph, long version)
+        {
+            this.graph = graph;
+            this.version = version;
+        }
+
+        /**
+         * Returns the graph of this version
+         * @return
+         */
+        public CSRGraph getGraph()
+        {
+            return graph;
+        }
+
+        /**
+         * Returns the version number: 0 before the first read, then one more
+         * every time a change is published
+         * @return
+         */
+        public long getVersion()
+        {
+            return version;
+        }
+    }
+
+    private final Path path;
+    private final long interval;
+    private final long maxDelay;
+    private volatile Snapshot snapshot;
+    private volatile boolean closed;
+    private Thread thread;
+
+    // Arrays of the published graph, shared with it and never modified
+    private int[] offsets = new int[1];
+    private int[] targets = new int[0];
+    private int[] weights = new int[0];
+
+    // Bytes read so far; the buffer keeps the start of an unfinished line
+    private long position;
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    // Edges parsed since the last publish, as (source, target, weight)
+    private int[] pending = new int[3 * 64];
+    private int numPending;
+    private int numVer;             // vertices including the pending edges
+    private boolean waiting;        // some parsed lines are not published yet
+    private long waitingSince;      // System.nanoTime() when the first of them was parsed
+
+    /**
+     * Creates a watcher that polls every second and publishes parsed lines
+     * within 10 seconds.
+     *      @param filename
+     */
+    public GraphWatcher(String filename)
+    {
+        this(filename, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Creates a watcher that publishes parsed lines within 10 seconds. Nothing
+     * is read until poll() or start().
+     *      @param filename
+     *      @param interval - milliseconds between polls when no change is reported
+     */
+    public GraphWatcher(String filename, long interval)
+    {
+        this(filename, interval, DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Creates a watcher. Nothing is read until poll() or start().
+     *      @param filename
+     *      @param interval - milliseconds between polls when no change is reported
+     *      @param maxDelay - milliseconds a parsed line may wait for a batch, 0 to
+     *                        publish on every poll that parsed one
+     */
+    public GraphWatcher(String filename, long interval, long maxDelay)
+    {
+        if ( interval < 1 )
+        {
+            throw new IllegalArgumentException("Invalid poll interval: " + interval);
+        }
+        if ( maxDelay < 0 )
+        {
+            throw new IllegalArgumentException("Invalid publish delay: " + maxDelay);
+        }
+        this.path = Paths.get(filename).toAbsolutePath();
+        this.interval = interval;
+        this.maxDelay = maxDelay;
+        this.snapshot = new Snapshot(new ArrayCSRGraph(offsets, targets, weights), 0);
+    }
+
+    /**
+     * Returns the latest published snapshot
+     * @return
+     */
+    public Snapshot getSnapshot()
+    {
+        return snapshot;
+    }
+
+    /**
+     * Returns the graph of the latest published snapshot
+     * @return
+     */
+    public CSRGraph getGraph()
+    {
+        return snapshot.getGraph();
+    }
+
+    /**
+     * Reads whatever was appended since the last call and publishes a new
+     * snapshot if the file was replaced or the lines parsed so far make a
+     * batch (see the class comment).
+     *      @return true if a new snapshot was published
+     *      @throws IOException
+     */
+    public synchronized boolean poll() throws IOException
+    {
+        boolean changed = false;
+        try ( FileChannel channel = FileChannel.open(path, StandardOpenOption.READ) )
+        {
+            long size = channel.size();
+            if ( size < position )
+            {
+                // Truncated or replaced: start over with an empty graph
+                offsets = new int[1];
+                targets = new int[0];
+                weights = new int[0];
+                numVer = 0;
+                numPending = 0;
+                waiting = false;
+                position = 0;
+                buffer.clear();
+                changed = true;
+            }
+
+            channel.position(position);
+            while ( position < size )
+            {
+                if ( !buffer.hasRemaining() )
+                {
+                    // One line fills the buffer
+                    buffer = ByteBuffer.allocate(2 * buffer.capacity()).put(buffer.flip());
+                }
+                int read = channel.read(buffer);
+                if ( read < 0 )
+                {
+                    break;
+                }
+                position += read;
+                parseLines();
+            }
+        }
+
+        boolean unpublished = numPending > 0 || numVer > offsets.length - 1;
+        if ( unpublished && !waiting )
+        {
+            waiting = true;
+            waitingSince = System.nanoTime();
+        }
+        if ( changed || (unpublished && (numPending >= targets.length / BATCH_FRACTION
+                                         || System.nanoTime() - waitingSince >= maxDelay * 1000000)) )
+        {
+            publish();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Publishes the lines parsed so far without waiting for a batch.
+     *      @return true if a new snapshot was published
+     */
+    public synchronized boolean flush()
+    {
+        if ( numPending > 0 || numVer > offsets.length - 1 )
+        {
+            publish();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Starts a background thread that calls poll() whenever the file changes.
+     * The first read happens on the calling thread, so the snapshot is current
+     * when this returns.
+     *      @throws IOException
+     */
+    public synchronized void start() throws IOException
+    {
+        if ( thread != null )
+        {
+            throw new IllegalStateException("Watcher already started");
+        }
+        poll();
+
+        WatchService watch = FileSystems.getDefault().newWatchService();
+        path.getParent().register(watch, StandardWatchEventKinds.ENTRY_CREATE,
+                                  StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(() -> run(watch), "GraphWatcher " + path.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the background thread, if any, and waits for it.
+     */
+    public void close()
+    {
+        closed = true;
+        Thread t;
+        synchronized (this)
+        {
+            t = thread;
+        }
+        if ( t != null )
+        {
+            t.interrupt();
+            try
+            {
+                t.join();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Body of the background thread: waits for an event or the interval, then polls.
+     *      @param watch
+     */
+    private void run(WatchService watch)
+    {
+        try ( WatchService w = watch )
+        {
+            while ( !closed )
+            {
+                WatchKey key = w.poll(interval, TimeUnit.MILLISECONDS);
+                if ( key != null )
+                {
+                    key.pollEvents();
+                    key.reset();
+                }
+                try
+                {
+                    poll();
+                }
+                catch (IOException e)
+                {
+                    // The file may be in the middle of being replaced, try again later
+                    System.err.println("Could not read file " + path + ": " + e.getMessage());
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            // close() was called
+        }
+        catch (IOException e)
+        {
+            System.err.println("Could not watch file " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses the complete lines in the buffer and keeps the unfinished one.
+     */
+    private void parseLines()
+    {
+        buffer.flip();
+        int start = 0;
+        int limit = buffer.limit();
+        for ( int i = 0; i < limit; i++ )
+        {
+            if ( buffer.get(i) == '\n' )
+            {
+                parseLine(start, i);
+                start = i + 1;
+            }
+        }
+        buffer.position(start);
+        buffer.compact();
+    }
+
+    /**
+     * Parses one line of the buffer into pending edges. A malformed line is
+     * reported and dropped.
+     *      @param from - index of the first byte
+     *      @param to - index of the newline
+     */
+    private void parseLine(int from, int to)
+    {
+        int mark = numPending;
+        int source = -1;
+        int target = 0;
+        int number = 0;
+        boolean inNumber = false;
+        boolean afterComma = false;
+        for ( int i = from; i <= to; i++ )
+        {
+            byte b = i < to ? buffer.get(i) : (byte) ' ';
+            if ( b >= '0' && b <= '9' )
+            {
+                int digit = b - '0';
+                if ( number >= MappedGraphReader.MAX_PREFIX
+                        && (number > MappedGraphReader.MAX_PREFIX || digit > MappedGraphReader.MAX_LAST_DIGIT) )
+                {
+                    // Too large for an int
+                    source = -2;
+                    break;
+                }
+                number = number * 10 + digit;
+                inNumber = true;
+            }
+            else if ( b == ',' && inNumber && number > 0 && source >= 0 && !afterComma )
+            {
+                target = number - 1;
+                afterComma = true;
+                number = 0;
+                inNumber = false;
+            }
+            else if ( b == '\t' || b == ' ' || b == '\r' )
+            {
+                if ( inNumber )
+                {
+                    if ( afterComma )
+                    {
+                        addPending(source, target, number);
+                        afterComma = false;
+                    }
+                    else if ( source < 0 && number > 0 )
+                    {
+                        source = number - 1;
+                    }
+                    else
+                    {
+                        source = -2;
+                        break;
+                    }
+                    number = 0;
+                    inNumber = false;
+                }
+            }
+            else
+            {
+                source = -2;
+                break;
+            }
+        }
+
+        if ( source == -2 || afterComma )
+        {
+            numPending = mark;
+            System.err.println("Skipping malformed line at byte " + (position - buffer.limit() + from)
+                               + " of " + path);
+        }
+        else if ( source >= 0 )
+        {
+            numVer = Math.max(numVer, source + 1);
+        }
+    }
+
+    /**
+     * Appends one parsed edge.
+     *      @param source - 0-based
+     *      @param target - 0-based
+     *      @param weight
+     */
+    private void addPending(int source, int target, int weight)
+    {
+        if ( 3 * numPending + 3 > pending.length )
+        {
+            pending = Arrays.copyOf(pending, 2 * pending.length);
+        }
+        pending[3 * numPending] = source;
+        pending[3 * numPending + 1] = target;
+        pending[3 * numPending + 2] = weight;
+        numPending++;
+        numVer = Math.max(numVer, target + 1);
+    }
+
+    /**
+     * Merges the pending edges into new CSR arrays and publishes them.
+     */
+    private void publish()
+    {
+        int oldVer = offsets.length - 1;
+        int n = Math.max(numVer, oldVer);
+
+        int[] newOffsets = new int[n + 1];
+        for ( int v = 0; v < oldVer; v++ )
+        {
+            newOffsets[v + 1] = offsets[v + 1] - offsets[v];
+        }
+        for ( int i = 0; i < numPending; i++ )
+        {
+            newOffsets[pending[3 * i] + 1]++;
+        }
+        for ( int v = 0; v < n; v++ )
+        {
+            newOffsets[v + 1] += newOffsets[v];
+        }
+
+        // Old edges keep their order and come before the new ones of each vertex
+        int[] newTargets = new int[newOffsets[n]];
+        int[] newWeights = new int[newOffsets[n]];
+        int[] next = new int[n];
+        for ( int v = 0; v < n; v++ )
+        {
+            int degree = v < oldVer ? offsets[v + 1] - offsets[v] : 0;
+            if ( degree > 0 )
+            {
+                System.arraycopy(targets, offsets[v], newTargets, newOffsets[v], degree);
+                System.arraycopy(weights, offsets[v], newWeights, newOffsets[v], degree);
+            }
+            next[v] = newOffsets[v] + degree;
+        }
+        for ( int i = 0; i < numPending; i++ )
+        {
+            int e = next[pending[3 * i]]++;
+            newTargets[e] = pending[3 * i + 1];
+            newWeights[e] = pending[3 * i + 2];
+        }
+
+        offsets = newOffsets;
+        targets = newTargets;
+        weights = newWeights;
+        numPending = 0;
+        waiting = false;
+        snapshot = new Snapshot(new ArrayCSRGraph(offsets, targets, weights), snapshot.getVersion() + 1);
+    }
+
+    /**
+     * Follows a file and prints every new version.
+     *      java GraphWatcher file [interval in ms]
+     * @param args
+     * @throws IOException
+     * @throws InterruptedException
+     */
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        if ( args.length < 1 )
+        {
+            System.err.println("Usage: java GraphWatcher file [interval in ms]");
+            return;
+        }
+        GraphWatcher watcher = new GraphWatcher(args[0], args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_INTERVAL);
+        watcher.start();
+        long seen = -1;
+        while ( true )
+        {
+            Snapshot s = watcher.getSnapshot();
+            if ( s.getVersion() != seen )
+            {
+                seen = s.getVersion();
+                System.out.println("version " + seen + ": " + s.getGraph().getNumVertices() + " vertices, "
+                                   + s.getGraph().getNumEdges() + " edges");
+            }
+            Thread.sleep(100);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/**
+ * Heuristic: A lower bound on the distance between two vertices, used by A*
+ * (QueryEngine.aStarDistance) to steer the search towards the target.
+ *
+ *      The estimate must never be more than the true distance (admissible),
+ *  otherwise A* may return a longer path. A heuristic that always returns 0 makes
+ *  A* the same as Dijkstra.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+public interface Heuristic
+{
+    /** The heuristic that knows nothing; A* with it is plain Dijkstra. */
+    Heuristic NONE = (v, target) -> 0;
+
+    /**
+     * Returns a lower bound on the distance from v to target.
+     *      @param v - 0-based vertex
+     *      @param target - 0-based destination
+     *      @return a non-negative lower bound
+     */
+    int estimate(int v, int target);
+}
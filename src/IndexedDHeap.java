@@ -0,0 +1,294 @@
+/**
+ * IndexedDHeap: A d-ary min-heap of vertices keyed by int distances, with
+ * decrease-key.
+ *
+ *      Every vertex 0..capacity-1 appears in the heap at most once. The heap
+ * remembers where each vertex sits, so a shorter distance found later moves the
+ * existing entry up instead of adding a second one. Memory is O(n) no matter how
+ * many edges get relaxed, and nothing is allocated after construction.
+ *
+ *      A larger arity d makes the heap shallower (cheaper decreaseKey, which
+ * Dijkstra calls most often) at the cost of more comparisons per poll. 2, 4 and
+ * 8 are the usual choices.
+ *
+ * Usage:
+ *      IndexedDHeap heap = new IndexedDHeap(numVer, 4);
+ *      heap.insert(start, 0);
+ *      while ( !heap.isEmpty() )
+ *      {
+ *          int u = heap.pollMin();
+ *          ...
+ *          heap.insertOrDecrease(v, newDist);
+ *      }
+ *
+ * Functions:
+ *      1. insert(v, key) / decreaseKey(v, key) / insertOrDecrease(v, key) /
+ *         changeKey(v, key)
+ *      2. pollMin(): removes and returns the vertex with the least key
+ *      3. peekMin() / minKey(): look at the top without removing it
+ *      4. contains(v), getKey(v), size(), isEmpty(), clear()
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.util.Arrays;
+
+public class IndexedDHeap implements VertexQueue
+{
+    private final int arity;
+    private final int[] heap;       // heap[i] is the vertex stored at slot i
+    private final int[] position;   // position[v] is the slot of v, -1 if absent
+    private final int[] keys;       // keys[v] is the current key of v
+    private int size;
+
+    /**
+     * Creates an empty heap for vertices 0..capacity-1.
+     *      @param capacity - number of vertices
+     *      @param arity - number of children per node, at least 2
+     */
+    public IndexedDHeap(int capacity, int arity)
+    {
+        if ( arity < 2 )
+        {
+            throw new IllegalArgumentException("Heap arity must be at least 2: " + arity);
+        }
+
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.keys = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Returns the number of vertices in the heap
+     * @return
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns true if the heap holds no vertices
+     * @return
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Returns true if v is currently in the heap
+     * @param v
+     * @return
+     */
+    public boolean contains(int v)
+    {
+        return position[v] >= 0;
+    }
+
+    /**
+     * Returns the key of v. Only meaningful while v is in the heap.
+     * @param v
+     * @return
+     */
+    public int getKey(int v)
+    {
+        return keys[v];
+    }
+
+    /**
+     * Adds v with the given key. v must not already be in the heap.
+     *      @param v
+     *      @param key
+     */
+    public void insert(int v, int key)
+    {
+        if ( position[v] >= 0 )
+        {
+            throw new IllegalStateException("Vertex already in heap: " + v);
+        }
+
+        keys[v] = key;
+        heap[size] = v;
+        position[v] = size;
+        size++;
+        siftUp(size - 1);
+    }
+
+    /**
+     * Lowers the key of v, which must be in the heap. A key that is not smaller
+     * than the current one is ignored.
+     *      @param v
+     *      @param key
+     */
+    public void decreaseKey(int v, int key)
+    {
+        if ( key < keys[v] )
+        {
+            keys[v] = key;
+            siftUp(position[v]);
+        }
+    }
+
+    /**
+     * Inserts v if it is absent, otherwise lowers its key. This is the single
+     * call Dijkstra needs after relaxing an edge.
+     *      @param v
+     *      @param key
+     */
+    public void insertOrDecrease(int v, int key)
+    {
+        if ( position[v] >= 0 )
+        {
+            decreaseKey(v, key);
+        }
+        else
+        {
+            insert(v, key);
+        }
+    }
+
+    /**
+     * Sets the key of v, which must be in the heap, to any value, moving it up or
+     * down as needed. Dijkstra only ever lowers keys; this is for users whose
+     * priorities can also grow (e.g. contraction order in ContractionHierarchy).
+     *      @param v
+     *      @param key
+     */
+    public void changeKey(int v, int key)
+    {
+        int old = keys[v];
+        keys[v] = key;
+        if ( key < old )
+        {
+            siftUp(position[v]);
+        }
+        else if ( key > old )
+        {
+            siftDown(position[v]);
+        }
+    }
+
+    /**
+     * Returns the vertex with the least key without removing it
+     * @return
+     */
+    public int peekMin()
+    {
+        return heap[0];
+    }
+
+    /**
+     * Returns the least key in the heap
+     * @return
+     */
+    public int minKey()
+    {
+        return keys[heap[0]];
+    }
+
+    /**
+     * Removes and returns the vertex with the least key. The heap must not be empty.
+     * @return
+     */
+    public int pollMin()
+    {
+        int min = heap[0];
+        size--;
+        position[min] = -1;
+
+        if ( size > 0 )
+        {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Removes every vertex. Costs O(size), not O(capacity).
+     */
+    public void clear()
+    {
+        for ( int i = 0; i < size; i++ )
+        {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves the vertex at slot i towards the root until its parent is not larger.
+     *      @param i
+     */
+    private void siftUp(int i)
+    {
+        int v = heap[i];
+        int key = keys[v];
+
+        while ( i > 0 )
+        {
+            int parent = (i - 1) / arity;
+            int p = heap[parent];
+            if ( keys[p] <= key )
+            {
+                break;
+            }
+            heap[i] = p;
+            position[p] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        position[v] = i;
+    }
+
+    /**
+     * Moves the vertex at slot i towards the leaves until no child is smaller.
+     *      @param i
+     */
+    private void siftDown(int i)
+    {
+        int v = heap[i];
+        int key = keys[v];
+
+        while ( true )
+        {
+            int first = i * arity + 1;
+            if ( first >= size )
+            {
+                break;
+            }
+
+            // Find the smallest child
+            int last = Math.min(first + arity, size);
+            int best = first;
+            int bestKey = keys[heap[first]];
+            for ( int c = first + 1; c < last; c++ )
+            {
+                int k = keys[heap[c]];
+                if ( k < bestKey )
+                {
+                    best = c;
+                    bestKey = k;
+                }
+            }
+
+            if ( bestKey >= key )
+            {
+                break;
+            }
+            int child = heap[best];
+            heap[i] = child;
+            position[child] = i;
+            i = best;
+        }
+        heap[i] = v;
+        position[v] = i;
+    }
+}
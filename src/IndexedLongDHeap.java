@@ -0,0 +1,212 @@
+/**
+ * IndexedLongDHeap: The d-ary min-heap of IndexedDHeap with long keys, for
+ * searches whose distances may not fit in an int (see LongQueryEngine).
+ *
+ *      Keys are compared with < and >=, never by subtracting them, so even keys
+ * near Long.MIN_VALUE / Long.MAX_VALUE keep their order.
+ *
+ * Usage:
+ *      IndexedLongDHeap heap = new IndexedLongDHeap(numVer, 4);
+ *      heap.insertOrDecrease(start, 0L);
+ *      while ( !heap.isEmpty() )
+ *      {
+ *          long d = heap.minKey();
+ *          int u = heap.pollMin();
+ *          ...
+ *      }
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.util.Arrays;
+
+public class IndexedLongDHeap
+{
+    private final int arity;
+    private final int[] heap;       // heap[i] is the vertex stored at slot i
+    private final int[] position;   // position[v] is the slot of v, -1 if absent
+    private final long[] keys;      // keys[v] is the current key of v
+    private int size;
+
+    /**
+     * Creates an empty heap for vertices 0..capacity-1.
+     *      @param capacity - number of vertices
+     *      @param arity - number of children per node, at least 2
+     */
+    public IndexedLongDHeap(int capacity, int arity)
+    {
+        if ( arity < 2 )
+        {
+            throw new IllegalArgumentException("Heap arity must be at least 2: " + arity);
+        }
+
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.position = new int[capacity];
+        this.keys = new long[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Returns the number of vertices in the heap
+     * @return
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns true if the heap holds no vertices
+     * @return
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Returns true if v is currently in the heap
+     * @param v
+     * @return
+     */
+    public boolean contains(int v)
+    {
+        return position[v] >= 0;
+    }
+
+    /**
+     * Inserts v if it is absent, otherwise lowers its key. A key that is not
+     * smaller than the current one is ignored.
+     *      @param v
+     *      @param key
+     */
+    public void insertOrDecrease(int v, long key)
+    {
+        if ( position[v] < 0 )
+        {
+            keys[v] = key;
+            heap[size] = v;
+            position[v] = size;
+            size++;
+            siftUp(size - 1);
+        }
+        else if ( key < keys[v] )
+        {
+            keys[v] = key;
+            siftUp(position[v]);
+        }
+    }
+
+    /**
+     * Returns the least key in the heap
+     * @return
+     */
+    public long minKey()
+    {
+        return keys[heap[0]];
+    }
+
+    /**
+     * Removes and returns the vertex with the least key. The heap must not be empty.
+     * @return
+     */
+    public int pollMin()
+    {
+        int min = heap[0];
+        size--;
+        position[min] = -1;
+
+        if ( size > 0 )
+        {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Removes every vertex. Costs O(size), not O(capacity).
+     */
+    public void clear()
+    {
+        for ( int i = 0; i < size; i++ )
+        {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves the vertex at slot i towards the root until its parent is not larger.
+     *      @param i
+     */
+    private void siftUp(int i)
+    {
+        int v = heap[i];
+        long key = keys[v];
+
+        while ( i > 0 )
+        {
+            int parent = (i - 1) / arity;
+            int p = heap[parent];
+            if ( keys[p] <= key )
+            {
+                break;
+            }
+            heap[i] = p;
+            position[p] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        position[v] = i;
+    }
+
+    /**
+     * Moves the vertex at slot i towards the leaves until no child is smaller.
+     *      @param i
+     */
+    private void siftDown(int i)
+    {
+        int v = heap[i];
+        long key = keys[v];
+
+        while ( true )
+        {
+            int first = i * arity + 1;
+            if ( first >= size )
+            {
+                break;
+            }
+
+            // Find the smallest child
+            int last = Math.min(first + arity, size);
+            int best = first;
+            long bestKey = keys[heap[first]];
+            for ( int c = first + 1; c < last; c++ )
+            {
+                long k = keys[heap[c]];
+                if ( k < bestKey )
+                {
+                    best = c;
+                    bestKey = k;
+                }
+            }
+
+            if ( bestKey >= key )
+            {
+                break;
+            }
+            int child = heap[best];
+            heap[i] = child;
+            position[child] = i;
+            i = best;
+        }
+        heap[i] = v;
+        position[v] = i;
+    }
+}
@@ -26,17 +26,27 @@
  * 
  * Creation Date: May 8th, 2022
  *          modified: May 9th, 2022      edit comments and print debug to be more readable
+ *          modified: October 18th, 2026  traverse a CSRGraph by index instead of
+ *                                        ArrayList<LinkedList<Edge>>
+ *          modified: October 18th, 2026  optional predecessor array for paths
+ *          modified: October 18th, 2026  saturating distance sums, overflow-free comparators
+ *                                        and the long-distance dijkstra5
+ *          modified: October 18th, 2026  print results through ResultWriter
+ *          modified: October 18th, 2026  SearchMetrics of every run (getMetrics)
  *      
  */
-import java.util.ArrayList;
-import java.util.LinkedList;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.PriorityQueue;
 
 public class Indexer {
-    private ArrayList<LinkedList<Edge>> graph;
+    private CSRGraph graph;
     private int[] dist1;
     private int[] firstDist2;
     private int[] secondDist2;
+    private int[] dist3;
+    private int[] dist4;
+    private int[] pred;         // predecessors of the last implementation run, null unless tracked
     private boolean[] visited1;
     private boolean[] firstVisited2;
     private boolean[] secondVisited2;
@@ -49,6 +59,15 @@ public class Indexer {
     private int countEdge1;     // Total number of edges visited in straightforward implementation
     private int countEdge2;     // Total number of edges visited in the second implementation (without adding all vertices)
     private int countEdge3;     // Total number of edges visited in the second implementation following the book (adding all vertices)
+    private int countVer4;      // Total number of vertices visited in the indexed d-ary heap implementation
+    private int countEdge4;     // Total number of edges visited in the indexed d-ary heap implementation
+    private int countVer5;      // Total number of vertices visited in the bucket (radix heap / Dial) implementation
+    private int countEdge5;     // Total number of edges visited in the bucket (radix heap / Dial) implementation
+    private long[] dist5;       // Distances of the overflow-safe implementation, Long.MAX_VALUE if unreachable
+    private int countVer6;      // Total number of vertices visited in the overflow-safe implementation
+    private int countEdge6;     // Total number of edges visited in the overflow-safe implementation
+    private final SearchMetrics metrics = new SearchMetrics();  // counters of the last implementation run
+    private long initNanos;     // time init() took to allocate and reset the arrays
     
     public Indexer() {
         //Prompt user for filename
@@ -60,11 +79,32 @@ public class Indexer {
                         1, Integer.MAX_VALUE, 1, "");
 
         // Read the file and save it in a graph holding my adjacency list
-        DataReader a = new DataReader(filename);
-        graph = a.readData();
+        init(CSRGraph.load(filename), startVertex);
+    }
+
+    /**
+     * Creates an Indexer over an already loaded graph without prompting.
+     *      @param graph - the adjacency list in CSR form
+     *      @param startVertex - the starting vertex (1-based, as in the file)
+     */
+    public Indexer(CSRGraph graph, int startVertex)
+    {
+        init(graph, startVertex);
+    }
+
+    /**
+     * Saves the graph and starting vertex and resets every distance and counter.
+     *      @param graph
+     *      @param startVertex
+     */
+    private void init(CSRGraph graph, int startVertex)
+    {
+        long start = System.nanoTime();
+        this.graph = graph;
+        this.startVertex = startVertex;
 
         // The number of vertices
-        numVer = graph.size();
+        numVer = graph.getNumVertices();
 
         // Initialize boolean[] to check whether one vertex is visited or not
         // Initialize int[] to save the shortest distance from starting vertex
@@ -77,6 +117,8 @@ public class Indexer {
         dist1 = new int[numVer];
         firstDist2 = new int[numVer];
         secondDist2 = new int[numVer];
+        dist3 = new int[numVer];
+        dist4 = new int[numVer];
 
         // Set every vertex to be unvisited and distances to infinity
         for (int i = 0; i < numVer; i++)
@@ -87,12 +129,16 @@ public class Indexer {
             dist1[i] = Integer.MAX_VALUE;
             firstDist2[i] = Integer.MAX_VALUE;
             secondDist2[i] = Integer.MAX_VALUE;
+            dist3[i] = Integer.MAX_VALUE;
+            dist4[i] = Integer.MAX_VALUE;
         }
 
         // distance of the starting vertex is 0
         dist1[startVertex-1] = 0;
         firstDist2[startVertex-1] = 0;
         secondDist2[startVertex-1] = 0;
+        dist3[startVertex-1] = 0;
+        dist4[startVertex-1] = 0;
 
         // Set total number of edges/vertices visited in three implementations to 0
         countEdge1 = 0;
@@ -101,7 +147,13 @@ public class Indexer {
         countVer1 = 0;
         countVer2 = 0;
         countVer3 = 0;
-
+        countVer4 = 0;
+        countEdge4 = 0;
+        countVer5 = 0;
+        countEdge5 = 0;
+        countVer6 = 0;
+        countEdge6 = 0;
+        initNanos = System.nanoTime() - start;
     }
 
     /**
@@ -111,6 +163,8 @@ public class Indexer {
      */
     public int[] dijkstra1()
     {
+        long start = startMetrics();
+
         // Loop through the adjacency list to every vertex
         for (int i = 0; i < numVer; i++)
         {
@@ -120,25 +174,40 @@ public class Indexer {
             // Find the minimum distance
             int minVertex = findMinVertex(dist1, visited1);
 
+            // The remaining vertices are unreachable
+            if ( minVertex == -1 )
+            {
+                break;
+            }
+
             // Mark that vertex to be visited
             visited1[minVertex] = true;
 
-            // Number of vertices that vertex connects
-            int numVerInList = graph.get(minVertex).size();
-
             // For each vertex connecting the given vertex, update the distance if 
             // find the shorter path
-            for (int j = 0; j < numVerInList; j++)
+            int end = graph.edgeEnd(minVertex);
+            if ( SearchMetrics.ENABLED )
             {
-                int length = dist1[minVertex] + graph.get(minVertex).get(j).getWeight();
-                if ( length < dist1[graph.get(minVertex).get(j).getDestination() - 1])
+                metrics.settled++;
+                metrics.edgesScanned += end - graph.edgeStart(minVertex);
+            }
+            for (int j = graph.edgeStart(minVertex); j < end; j++)
+            {
+                int length = addSaturated(dist1[minVertex], graph.getWeight(j));
+                int destination = graph.getTarget(j);
+                if ( length < dist1[destination])
                 {    
-                    dist1[graph.get(minVertex).get(j).getDestination() - 1] = length;
+                    dist1[destination] = length;
+                    if ( pred != null )
+                    {
+                        pred[destination] = minVertex;
+                    }
                     countEdge1++;
                 }
             }
         }
 
+        finishMetrics(start, countEdge1);
         return dist1;
     }
 
@@ -170,6 +239,20 @@ public class Indexer {
         return minVertex;
     }
 
+    /**
+     * Adds a weight to a distance, stopping at Integer.MAX_VALUE (infinity)
+     * instead of wrapping around to a negative number. Both are non-negative,
+     * so a wrapped sum is exactly a negative one.
+     *      @param distance
+     *      @param weight
+     *      @return
+     */
+    private static int addSaturated(int distance, int weight)
+    {
+        int sum = distance + weight;
+        return sum < 0 ? Integer.MAX_VALUE : sum;
+    }
+
     /**
      * heap version of solving single-source shortest path problem in different 
      * directed graphs using priority queue.
@@ -179,29 +262,59 @@ public class Indexer {
     public int[] firstDijkstra2()
     {
         // Initialize a priority queue with vertex with less key comes first
-        PriorityQueue<Edge> myQueue = new PriorityQueue<Edge>(numVer, (edge1, edge2) -> edge1.getWeight() - edge2.getWeight());
+        PriorityQueue<Edge> myQueue = new PriorityQueue<Edge>(numVer, (edge1, edge2) -> Integer.compare(edge1.getWeight(), edge2.getWeight()));
         
         // 1st implementation without adding all vertices from the beginning.
+        long start = startMetrics();
         myQueue.add( new Edge(startVertex - 1, firstDist2[startVertex - 1]) );
 
          while ( !myQueue.isEmpty() )
         {
             Edge cur = myQueue.poll();
+            int u = cur.getDestination();
             
             countVer2++;
 
-            for ( Edge edge : graph.get(cur.getDestination()) )
+            int end = graph.edgeEnd(u);
+            if ( SearchMetrics.ENABLED )
             {
-                if ( firstDist2[cur.getDestination()] + edge.getWeight() < firstDist2[edge.getDestination() - 1])
+                // An entry whose key is above the distance was superseded, but
+                // this version still scans its edges again
+                if ( cur.getWeight() > firstDist2[u] )
+                {
+                    metrics.stalePops++;
+                }
+                else
+                {
+                    metrics.settled++;
+                }
+                metrics.pops++;
+                metrics.edgesScanned += end - graph.edgeStart(u);
+                metrics.queueSize(myQueue.size() + 1);
+            }
+            for ( int j = graph.edgeStart(u); j < end; j++ )
+            {
+                int destination = graph.getTarget(j);
+                int length = addSaturated(firstDist2[u], graph.getWeight(j));
+                if ( length < firstDist2[destination])
                 {    
-                    firstDist2[edge.getDestination() - 1] = firstDist2[cur.getDestination()] + edge.getWeight();
+                    firstDist2[destination] = length;
+                    if ( pred != null )
+                    {
+                        pred[destination] = u;
+                    }
                 
-                    myQueue.add( new Edge(edge.getDestination() - 1, firstDist2[edge.getDestination() - 1]));
+                    myQueue.add( new Edge(destination, firstDist2[destination]));
                     countEdge2++;
                 }
             }
         } 
 
+        if ( SearchMetrics.ENABLED )
+        {
+            metrics.pushes = countEdge2 + 1L;
+        }
+        finishMetrics(start, countEdge2);
         return firstDist2;
     }
     
@@ -214,11 +327,12 @@ public class Indexer {
     public int[] secondDijkstra2()
     {
         // Initialize a priority queue with vertex with less key comes first
-        PriorityQueue<Edge> myQueue = new PriorityQueue<Edge>(numVer, (edge1, edge2) -> edge1.getWeight() - edge2.getWeight());
+        PriorityQueue<Edge> myQueue = new PriorityQueue<Edge>(numVer, (edge1, edge2) -> Integer.compare(edge1.getWeight(), edge2.getWeight()));
         
         /* 2nd implementation with adding all vertices form the beginning 
          following the instructions in the book*/
         // Add all vertices in the queue with keys are min distance from starting vertex
+        long start = startMetrics();
         for ( int i = 0; i < numVer; i++)
         {
             myQueue.add( new Edge( i, secondDist2[i]));
@@ -231,53 +345,398 @@ public class Indexer {
 
             // poll the first vertex with least key (min dist)
             Edge cur = myQueue.poll();
+            int u = cur.getDestination();
+
+            // Every vertex left in the queue is unreachable, and infinity plus a
+            // weight would wrap around to a negative distance
+            if ( SearchMetrics.ENABLED )
+            {
+                metrics.pops++;
+                metrics.queueSize(myQueue.size() + 1);
+            }
+            if ( secondDist2[u] == Integer.MAX_VALUE )
+            {
+                break;
+            }
             
             // mark that vertex as visited
-            secondVisited2[cur.getDestination()] = true;
+            secondVisited2[u] = true;
 
             // for each vertices that vertex connects
-            for ( Edge edge : graph.get(cur.getDestination()) )
+            int end = graph.edgeEnd(u);
+            if ( SearchMetrics.ENABLED )
+            {
+                if ( cur.getWeight() > secondDist2[u] )
+                {
+                    metrics.stalePops++;
+                }
+                else
+                {
+                    metrics.settled++;
+                }
+                metrics.edgesScanned += end - graph.edgeStart(u);
+            }
+            for ( int j = graph.edgeStart(u); j < end; j++ )
             {
                 // update the distance of connecting vertex if the path through current vertex is smaller
-                if ( secondDist2[cur.getDestination()] + edge.getWeight() < secondDist2[edge.getDestination() - 1])
+                int destination = graph.getTarget(j);
+                int length = addSaturated(secondDist2[u], graph.getWeight(j));
+                if ( length < secondDist2[destination])
                 {    
-                    secondDist2[edge.getDestination() - 1] = secondDist2[cur.getDestination()] + edge.getWeight();
+                    secondDist2[destination] = length;
+                    if ( pred != null )
+                    {
+                        pred[destination] = u;
+                    }
                     
                     // add connecting vertex with new key to the queue
-                    myQueue.add( new Edge(edge.getDestination() - 1, secondDist2[edge.getDestination() - 1]));
+                    myQueue.add( new Edge(destination, secondDist2[destination]));
                     
                     countEdge3++;
                 }
             }
         }
 
+        if ( SearchMetrics.ENABLED )
+        {
+            metrics.pushes = (long) numVer + countEdge3;
+        }
+        finishMetrics(start, countEdge3);
         return secondDist2;
     }
     
     /**
-     * Print all distances from the first implementation
+     * heap version of solving single-source shortest path problem using an indexed
+     * d-ary heap with decrease-key. Unlike the PriorityQueue versions, each vertex
+     * is in the heap at most once, so the heap holds O(n) entries and every vertex
+     * is settled (and its edges scanned) exactly once.
+     * 
+     *      @param arity number of children per heap node (e.g. 2, 4 or 8)
+     *      @return int[] with distance from starting vertex to other vertices in the graph
      */
-    public void printResults()
+    public int[] dijkstra3(int arity)
+    {
+        long start = startMetrics();
+        IndexedDHeap heap = new IndexedDHeap(numVer, arity);
+        heap.insert(startVertex - 1, dist3[startVertex - 1]);
+
+        while ( !heap.isEmpty() )
+        {
+            // settle the vertex with least key, its distance is final
+            int u = heap.pollMin();
+            int du = dist3[u];
+
+            countVer4++;
+
+            int end = graph.edgeEnd(u);
+            countSettled(u, end, heap.size() + 1);
+            for ( int j = graph.edgeStart(u); j < end; j++ )
+            {
+                // update the distance of connecting vertex and move it up in the heap
+                int destination = graph.getTarget(j);
+                int length = addSaturated(du, graph.getWeight(j));
+                if ( length < dist3[destination] )
+                {
+                    dist3[destination] = length;
+                    if ( pred != null )
+                    {
+                        pred[destination] = u;
+                    }
+                    heap.insertOrDecrease(destination, length);
+                    countEdge4++;
+                }
+            }
+        }
+
+        finishQueueMetrics(start, countEdge4);
+        return dist3;
+    }
+
+    /**
+     * Bucket version of solving single-source shortest path problem for integer
+     * weights. The queue is picked from the largest weight DataReader saw: Dial's
+     * circular buckets when it is small, a monotone radix heap otherwise.
+     * 
+     *      @return int[] with distance from starting vertex to other vertices in the graph
+     */
+    public int[] dijkstra4()
+    {
+        return dijkstra4(VertexQueue.forGraph(graph));
+    }
+
+    /**
+     * Bucket version of solving single-source shortest path problem with a given
+     * monotone queue (e.g. to compare RadixHeap and DialQueue on the same graph).
+     * 
+     *      @param queue an empty queue with room for every vertex
+     *      @return int[] with distance from starting vertex to other vertices in the graph
+     */
+    public int[] dijkstra4(VertexQueue queue)
     {
-        System.out.println("Total number of vertices visited: " + countVer1);
-        System.out.println("Total number of edges visited: " + countEdge1);
-        for ( int i = 0; i < numVer; i++ )
+        long start = startMetrics();
+        queue.insertOrDecrease(startVertex - 1, dist4[startVertex - 1]);
+
+        while ( !queue.isEmpty() )
         {
-            System.out.println("dist" + i + ": " + dist1[i]);
+            // settle the vertex with least key, its distance is final
+            int u = queue.pollMin();
+            int du = dist4[u];
+
+            countVer5++;
+
+            int end = graph.edgeEnd(u);
+            countSettled(u, end, queue.size() + 1);
+            for ( int j = graph.edgeStart(u); j < end; j++ )
+            {
+                int destination = graph.getTarget(j);
+                int length = addSaturated(du, graph.getWeight(j));
+                if ( length < dist4[destination] )
+                {
+                    dist4[destination] = length;
+                    if ( pred != null )
+                    {
+                        pred[destination] = u;
+                    }
+                    queue.insertOrDecrease(destination, length);
+                    countEdge5++;
+                }
+            }
         }
+
+        finishQueueMetrics(start, countEdge5);
+        return dist4;
     }
 
     /**
-     * Print all distances from the second implementation (heap) (first ver)
+     * Overflow-safe version of solving single-source shortest path problem. If
+     * the largest weight times (n - 1) fits in an int, no path can be longer, so
+     * it runs the int bucket search of dijkstra4, on its own arrays so that the
+     * two versions do not share state. Otherwise the distances are
+     * longs and the heap is keyed by longs, so long paths keep their real length
+     * instead of saturating at infinity.
+     *
+     *      @return long[] with distance from starting vertex to other vertices in
+     *              the graph, Long.MAX_VALUE if unreachable
      */
-    public void printResults2first()
+    public long[] dijkstra5()
     {
-        System.out.println("Total number of vertices visited: " + countVer2);
-        System.out.println("Total number of edges visited: " + countEdge2);
-        for ( int i = 0; i < numVer; i++ )
+        dist5 = new long[numVer];
+        long start = startMetrics();
+        if ( LongQueryEngine.fitsInt(graph) )
         {
-            System.out.print("dist" + i + ": " + firstDist2[i] + "\n");
+            // The bucket search of dijkstra4, on its own scratch array and counters
+            int[] dist = new int[numVer];
+            Arrays.fill(dist, Integer.MAX_VALUE);
+            dist[startVertex - 1] = 0;
+            VertexQueue queue = VertexQueue.forGraph(graph);
+            queue.insertOrDecrease(startVertex - 1, 0);
+
+            while ( !queue.isEmpty() )
+            {
+                // settle the vertex with least key, its distance is final
+                int u = queue.pollMin();
+                int du = dist[u];
+
+                countVer6++;
+
+                int end = graph.edgeEnd(u);
+                countSettled(u, end, queue.size() + 1);
+                for ( int j = graph.edgeStart(u); j < end; j++ )
+                {
+                    int destination = graph.getTarget(j);
+                    int length = addSaturated(du, graph.getWeight(j));
+                    if ( length < dist[destination] )
+                    {
+                        dist[destination] = length;
+                        if ( pred != null )
+                        {
+                            pred[destination] = u;
+                        }
+                        queue.insertOrDecrease(destination, length);
+                        countEdge6++;
+                    }
+                }
+            }
+
+            finishQueueMetrics(start, countEdge6);
+            for ( int i = 0; i < numVer; i++ )
+            {
+                dist5[i] = dist[i] == Integer.MAX_VALUE ? Long.MAX_VALUE : dist[i];
+            }
+            return dist5;
         }
+
+        Arrays.fill(dist5, Long.MAX_VALUE);
+        dist5[startVertex - 1] = 0;
+        IndexedLongDHeap heap = new IndexedLongDHeap(numVer, 4);
+        heap.insertOrDecrease(startVertex - 1, 0);
+
+        while ( !heap.isEmpty() )
+        {
+            // settle the vertex with least key, its distance is final
+            int u = heap.pollMin();
+            long du = dist5[u];
+
+            countVer6++;
+
+            int end = graph.edgeEnd(u);
+            countSettled(u, end, heap.size() + 1);
+            for ( int j = graph.edgeStart(u); j < end; j++ )
+            {
+                int destination = graph.getTarget(j);
+                long length = du + graph.getWeight(j);
+                if ( length < dist5[destination] )
+                {
+                    dist5[destination] = length;
+                    if ( pred != null )
+                    {
+                        pred[destination] = u;
+                    }
+                    heap.insertOrDecrease(destination, length);
+                    countEdge6++;
+                }
+            }
+        }
+
+        finishQueueMetrics(start, countEdge6);
+        return dist5;
+    }
+
+    /**
+     * Returns the counters and times of the last implementation run. The object
+     * is reused by the next run.
+     *      @return
+     */
+    public SearchMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Clears the metrics for a new run and returns its start time, 0 with
+     * metrics off.
+     *      @return
+     */
+    private long startMetrics()
+    {
+        if ( !SearchMetrics.ENABLED )
+        {
+            return 0;
+        }
+        metrics.reset();
+        metrics.initNanos = initNanos;
+        return System.nanoTime();
+    }
+
+    /**
+     * Counts a vertex taken out of an indexed queue (which holds no stale entries)
+     * and the edges about to be scanned from it. The queue only grows between
+     * pops, so its size before each pop is enough to find the peak.
+     *      @param u
+     *      @param end - graph.edgeEnd(u)
+     *      @param queued - entries in the queue before u was taken out
+     */
+    private void countSettled(int u, int end, int queued)
+    {
+        if ( SearchMetrics.ENABLED )
+        {
+            metrics.queueSize(queued);
+            metrics.settled++;
+            metrics.pops++;
+            metrics.edgesScanned += end - graph.edgeStart(u);
+        }
+    }
+
+    /**
+     * Records the search time and the number of relaxations of a finished run.
+     *      @param start - what startMetrics() returned
+     *      @param relaxations
+     */
+    private void finishMetrics(long start, int relaxations)
+    {
+        if ( SearchMetrics.ENABLED )
+        {
+            metrics.searchNanos = System.nanoTime() - start;
+            metrics.relaxations = relaxations;
+        }
+    }
+
+    /**
+     * finishMetrics() for the indexed queue versions, where every relaxation is
+     * one insert or decrease-key after the starting vertex's insert.
+     *      @param start
+     *      @param relaxations
+     */
+    private void finishQueueMetrics(long start, int relaxations)
+    {
+        if ( SearchMetrics.ENABLED )
+        {
+            metrics.pushes = relaxations + 1L;
+            finishMetrics(start, relaxations);
+        }
+    }
+
+    /**
+     * Turns the predecessor array on or off (it is off by default). When on,
+     * every implementation records the vertex before each vertex on its shortest
+     * path, so getPredecessors() holds the tree of the last one run.
+     *      @param track
+     */
+    public void setTrackPredecessors(boolean track)
+    {
+        if ( !track )
+        {
+            pred = null;
+        }
+        else if ( pred == null )
+        {
+            pred = new int[numVer];
+            for ( int i = 0; i < numVer; i++ )
+            {
+                pred[i] = -1;
+            }
+        }
+    }
+
+    /**
+     * Returns the predecessor array (0-based, -1 for the starting vertex and
+     * unreachable vertices), or null if predecessors are not tracked
+     * @return
+     */
+    public int[] getPredecessors()
+    {
+        return pred;
+    }
+
+    /**
+     * Returns a copy of the shortest path tree of an implementation that has
+     * been run.
+     *      @param dist - the array that implementation returned
+     *      @return
+     */
+    public ShortestPathTree getShortestPathTree(int[] dist)
+    {
+        if ( pred == null )
+        {
+            throw new IllegalStateException("Call setTrackPredecessors(true) before running an implementation");
+        }
+        return new ShortestPathTree(startVertex - 1, dist.clone(), pred.clone());
+    }
+
+    /**
+     * Print all distances from the first implementation
+     */
+    public void printResults()
+    {
+        printDistances(countVer1, countEdge1, dist1);
+    }
+
+    /**
+     * Print all distances from the second implementation (heap) (first ver)
+     */
+    public void printResults2first()
+    {
+        printDistances(countVer2, countEdge2, firstDist2);
     }
 
     /**
@@ -285,11 +744,90 @@ public class Indexer {
      */
     public void printResults2second()
     {
-        System.out.println("Total number of vertices visited: " + countVer3);
-        System.out.println("Total number of edges visited: " + countEdge3);
-        for ( int i = 0; i < numVer; i++ )
+        printDistances(countVer3, countEdge3, secondDist2);
+    }
+
+    /**
+     * Print all distances from the indexed d-ary heap implementation
+     */
+    public void printResults3()
+    {
+        printDistances(countVer4, countEdge4, dist3);
+    }
+
+    /**
+     * Print all distances from the bucket (radix heap / Dial) implementation
+     */
+    public void printResults4()
+    {
+        printDistances(countVer5, countEdge5, dist4);
+    }
+
+    /**
+     * Print all distances from the overflow-safe implementation
+     */
+    public void printResults5()
+    {
+        printDistances(countVer6, countEdge6, dist5);
+    }
+
+    /**
+     * Prints the visit counters and all distances of one implementation to
+     * System.out through a ResultWriter, which formats them without Strings and
+     * writes them in large blocks.
+     *      @param countVer
+     *      @param countEdge
+     *      @param dist
+     */
+    private void printDistances(int countVer, int countEdge, int[] dist)
+    {
+        long start = System.nanoTime();
+        try ( ResultWriter out = ResultWriter.toStdout(ResultWriter.Format.TEXT, false) )
+        {
+            printCounts(out, countVer, countEdge);
+            out.writeRow(startVertex - 1, dist);
+        }
+        catch ( IOException e )
         {
-            System.out.print("dist" + i + ": " + secondDist2[i] + "\n");
+            System.err.println("Could not write results: " + e.getMessage());
         }
+        metrics.outputNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Prints the visit counters and all long distances of one implementation.
+     *      @param countVer
+     *      @param countEdge
+     *      @param dist
+     */
+    private void printDistances(int countVer, int countEdge, long[] dist)
+    {
+        long start = System.nanoTime();
+        try ( ResultWriter out = ResultWriter.toStdout(ResultWriter.Format.TEXT, false) )
+        {
+            printCounts(out, countVer, countEdge);
+            out.writeRow(startVertex - 1, dist);
+        }
+        catch ( IOException e )
+        {
+            System.err.println("Could not write results: " + e.getMessage());
+        }
+        metrics.outputNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Writes the "Total number of ... visited" lines.
+     *      @param out
+     *      @param countVer
+     *      @param countEdge
+     *      @throws IOException
+     */
+    private static void printCounts(ResultWriter out, int countVer, int countEdge) throws IOException
+    {
+        out.writeAscii("Total number of vertices visited: ");
+        out.writeDecimal(countVer);
+        out.writeAscii("\nTotal number of edges visited: ");
+        out.writeDecimal(countEdge);
+        out.writeAscii("\n");
     }
 }
@@ -0,0 +1,150 @@
+/**
+ * LatencyHistogram: A fixed-size, thread-safe histogram of non-negative longs
+ * (e.g. nanoseconds) that answers percentiles to within 1%.
+ *
+ *      Like HdrHistogram, buckets are log-linear: values below 128 get one
+ * bucket each, and every power of two above that is split into 64 equal
+ * buckets, so each bucket is at most 1/64 of its values wide. 3712 buckets cover
+ * every long, so recording never allocates and never needs a range up front.
+ * A record is one atomic increment plus two adders, so many threads can record
+ * into one histogram at once.
+ *
+ * Usage:
+ *      LatencyHistogram h = new LatencyHistogram();
+ *      h.record(System.nanoTime() - start);
+ *      long p99 = h.getValueAtPercentile(99.0);
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LatencyHistogram
+{
+    private static final int SUB_BUCKET_BITS = 6;                   // 64 buckets per power of two
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Adds one value.
+     *      @param value - negative values count as 0
+     */
+    public void record(long value)
+    {
+        value = Math.max(value, 0);
+        counts.incrementAndGet(bucket(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns the number of values recorded
+     * @return
+     */
+    public long getCount()
+    {
+        return count.sum();
+    }
+
+    /**
+     * Returns the sum of the values recorded
+     * @return
+     */
+    public long getSum()
+    {
+        return sum.sum();
+    }
+
+    /**
+     * Returns the largest value recorded, 0 if none
+     * @return
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of the values recorded, 0 if none
+     * @return
+     */
+    public double getMean()
+    {
+        long n = getCount();
+        return n == 0 ? 0 : (double) getSum() / n;
+    }
+
+    /**
+     * Returns a value that at least percentile percent of the recorded values do
+     * not exceed (the top of its bucket, but never above the maximum), 0 if none
+     * were recorded.
+     *      @param percentile - between 0 and 100
+     *      @return
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        long total = 0;
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            total += counts.get(i);
+        }
+        if ( total == 0 )
+        {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for ( int i = 0; i < BUCKETS; i++ )
+        {
+            seen += counts.get(i);
+            if ( seen >= rank )
+            {
+                return Math.min(highest(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Returns the bucket of a non-negative value.
+     *      @param value
+     *      @return
+     */
+    private static int bucket(long value)
+    {
+        if ( value < 2 * SUB_BUCKETS )
+        {
+            return (int) value;
+        }
+        // Keep the top SUB_BUCKET_BITS + 1 bits; the shift says which power of two
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Returns the largest value that falls into a bucket.
+     *      @param bucket
+     *      @return
+     */
+    private static long highest(int bucket)
+    {
+        if ( bucket < 2 * SUB_BUCKETS )
+        {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long top = bucket - (long) shift * SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * LongQueryEngine: Single-source shortest paths with long distances, for graphs
+ * whose path lengths may not fit in an int.
+ *
+ *      The int engines (Indexer, QueryEngine, ...) use Integer.MAX_VALUE as
+ * infinity, so a path longer than that cannot be represented. With weights up
+ * to Integer.MAX_VALUE and fewer than 2^31 vertices, a shortest path (at most
+ * n - 1 edges) is below 2^62, so long distances can never overflow here.
+ *
+ *      fitsInt() tells whether a graph needs this engine: when
+ * maxWeight x (n - 1) < Integer.MAX_VALUE no path can exceed an int and the
+ * faster int engines are exact. Indexer.dijkstra5() makes that choice itself.
+ *
+ * Usage:
+ *      if ( !LongQueryEngine.fitsInt(graph) )
+ *      {
+ *          long[] dist = new LongQueryEngine(graph).distances(source);
+ *      }
+ *
+ *      Vertices are 0-based. Unreachable vertices have distance INFINITY.
+ *  Several threads may query one engine at once.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class LongQueryEngine
+{
+    /** Distance of an unreachable vertex. */
+    public static final long INFINITY = Long.MAX_VALUE;
+
+    private final CSRGraph graph;
+    private final ConcurrentLinkedQueue<IndexedLongDHeap> pool = new ConcurrentLinkedQueue<IndexedLongDHeap>();
+
+    /**
+     * Creates an engine over a loaded graph.
+     *      @param graph
+     */
+    public LongQueryEngine(CSRGraph graph)
+    {
+        this.graph = graph;
+    }
+
+    /**
+     * Returns true if every shortest path of the graph fits in an int, so the
+     * int engines give exact results.
+     *      @param graph
+     *      @return
+     */
+    public static boolean fitsInt(CSRGraph graph)
+    {
+        long longest = (long) graph.getMaxWeight() * Math.max(graph.getNumVertices() - 1, 0);
+        return longest < Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns the graph this engine searches
+     * @return
+     */
+    public CSRGraph getGraph()
+    {
+        return graph;
+    }
+
+    /**
+     * Returns the distances from one source as a new n-sized array.
+     *      @param source - 0-based starting vertex
+     *      @return
+     */
+    public long[] distances(int source)
+    {
+        long[] dist = new long[graph.getNumVertices()];
+        search(source, -1, dist);
+        return dist;
+    }
+
+    /**
+     * Returns the distance from source to target, stopping as soon as target is
+     * settled.
+     *      @param source - 0-based starting vertex
+     *      @param target - 0-based destination
+     *      @return shortest distance, INFINITY if target is unreachable
+     */
+    public long distance(int source, int target)
+    {
+        return search(source, target, new long[graph.getNumVertices()]);
+    }
+
+    /**
+     * Runs Dijkstra from source into dist until target (or every vertex) is settled.
+     *      @param source
+     *      @param target - or -1 to settle every vertex
+     *      @param dist - n entries, overwritten
+     *      @return distance of target, INFINITY if unreachable or target is -1
+     */
+    private long search(int source, int target, long[] dist)
+    {
+        IndexedLongDHeap heap = pool.poll();
+        if ( heap == null )
+        {
+            heap = new IndexedLongDHeap(graph.getNumVertices(), 4);
+        }
+        try
+        {
+            Arrays.fill(dist, INFINITY);
+            dist[source] = 0;
+            heap.insertOrDecrease(source, 0);
+
+            while ( !heap.isEmpty() )
+            {
+                // settle the vertex with least key, its distance is final
+                int u = heap.pollMin();
+                long du = dist[u];
+                if ( u == target )
+                {
+                    return du;
+                }
+
+                int end = graph.edgeEnd(u);
+                for ( int j = graph.edgeStart(u); j < end; j++ )
+                {
+                    int destination = graph.getTarget(j);
+                    long length = du + graph.getWeight(j);
+                    if ( length < dist[destination] )
+                    {
+                        dist[destination] = length;
+                        heap.insertOrDecrease(destination, length);
+                    }
+                }
+            }
+            return INFINITY;
+        }
+        finally
+        {
+            heap.clear();
+            pool.offer(heap);
+        }
+    }
+}
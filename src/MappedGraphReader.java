@@ -0,0 +1,345 @@
+/**
+ * MappedGraphReader: Reads the adjacency-list text format straight from a
+ * memory-mapped file into a CSRGraph.
+ *
+ *      DataReader splits every line into Strings and parses each one, which
+ * allocates several objects per edge. This class instead maps the file with a
+ * FileChannel and scans the bytes once, turning digits into ints as it goes and
+ * appending them to flat int arrays. Nothing is allocated per edge; the arrays
+ * only grow by doubling. Numbers that do not fit in an int are rejected, as
+ * Integer.parseInt rejects them in DataReader.
+ *
+ *      A MappedByteBuffer cannot be larger than 2 GB, so bigger files are mapped
+ * one window at a time. The scanner keeps its state (which number it is in and
+ * what that number is) between bytes, so a line or a number may span two
+ * windows.
+ *
+ * Input:
+ *      The same format as DataReader: one vertex per line, the first number is
+ *  the starting vertex and each following block is "destination,weight". Blocks
+ *  may be separated by tabs or spaces and lines may end in "\n" or "\r\n". As in
+ *  DataReader, reading stops at the first blank line.
+ *
+ *      readDirectGraph() writes the same arrays into DirectIntArrays outside the
+ * heap instead, for graphs bigger than the heap; they grow by adding chunks, so
+ * the file is still read once and nothing is copied as they grow.
+ *
+ * Usage:
+ *      CSRGraph graph = new MappedGraphReader(filename).readGraph();
+ *      CSRGraph big = new MappedGraphReader(filename).readDirectGraph();
+ *  A reader keeps its scanning state, so each one reads its file once.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class MappedGraphReader
+{
+    private static final long DEFAULT_WINDOW = 1L << 30;
+
+    // number * 10 + digit fits in an int unless number > MAX_PREFIX, or
+    // number == MAX_PREFIX and digit > MAX_LAST_DIGIT
+    static final int MAX_PREFIX = Integer.MAX_VALUE / 10;
+    static final int MAX_LAST_DIGIT = Integer.MAX_VALUE % 10;
+
+    // Longest int[] every JVM can allocate
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final String filename;
+    private final long window;
+
+    // Output arrays, grown by doubling
+    private int[] offsets = new int[1 << 10];
+    private int[] targets = new int[1 << 12];
+    private int[] weights = new int[1 << 12];
+    private int numVer;
+    private int numEdges;
+
+    // Off-heap output arrays, used instead of the ones above by readDirectGraph()
+    private DirectIntArray directOffsets;
+    private DirectIntArray directTargets;
+    private DirectIntArray directWeights;
+    private int maxWeight;
+
+    // Scanner state, kept between windows
+    private int number;             // value of the number being read
+    private boolean inNumber;       // true while reading digits
+    private boolean afterComma;     // the current number is a weight
+    private int tokensInLine;       // numbers finished on this line
+    private int pendingTarget;      // destination waiting for its weight
+    private boolean finished;       // a blank line ended the input
+
+    /**
+     * Creates a reader for the given file using 1 GB mapping windows.
+     *      @param filename
+     */
+    public MappedGraphReader(String filename)
+    {
+        this(filename, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Creates a reader for the given file that maps at most window bytes at once.
+     *      @param filename
+     *      @param window - bytes per mapping, at most Integer.MAX_VALUE
+     */
+    public MappedGraphReader(String filename, long window)
+    {
+        if ( window < 1 || window > Integer.MAX_VALUE )
+        {
+            throw new IllegalArgumentException("Invalid mapping window: " + window);
+        }
+        this.filename = filename;
+        this.window = window;
+    }
+
+    /**
+     * Reads the whole file into a CSRGraph with 0-based destinations.
+     *      @return CSRGraph holding the adjacency list, or null if reading fails
+     */
+    public CSRGraph readGraph()
+    {
+        if ( !scanFile() )
+        {
+            return null;
+        }
+        return new ArrayCSRGraph(Arrays.copyOf(offsets, numVer + 1),
+                            Arrays.copyOf(targets, numEdges),
+                            Arrays.copyOf(weights, numEdges));
+    }
+
+    /**
+     * Reads the whole file into a DirectCSRGraph outside the heap, with 0-based
+     * destinations.
+     *      @return CSRGraph holding the adjacency list, or null if reading fails
+     */
+    public CSRGraph readDirectGraph()
+    {
+        directOffsets = new DirectIntArray(offsets.length);
+        directTargets = new DirectIntArray(targets.length);
+        directWeights = new DirectIntArray(weights.length);
+        offsets = null;
+        targets = null;
+        weights = null;
+        if ( !scanFile() )
+        {
+            return null;
+        }
+        directOffsets.resize(numVer + 1);
+        directTargets.resize(numEdges);
+        directWeights.resize(numEdges);
+        return new DirectCSRGraph(directOffsets, directTargets, directWeights, maxWeight);
+    }
+
+    /**
+     * Maps the file window by window and scans it into the output arrays.
+     *      @return false if the file cannot be read
+     */
+    private boolean scanFile()
+    {
+        long size;
+        try ( FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ) )
+        {
+            size = channel.size();
+            for ( long position = 0; position < size && !finished; position += window )
+            {
+                long length = Math.min(window, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                scan(buffer, (int) length, position);
+            }
+        }
+        catch (IOException e)
+        {
+            System.err.println("Could not read file " + filename);
+            return false;
+        }
+
+        // The last line may have no newline
+        if ( !finished )
+        {
+            endLine(size);
+        }
+        return true;
+    }
+
+    /**
+     * Scans one mapped window byte by byte.
+     *      @param buffer
+     *      @param length - number of bytes in the window
+     *      @param base - file position of the window, for error messages
+     */
+    private void scan(MappedByteBuffer buffer, int length, long base)
+    {
+        for ( int i = 0; i < length; i++ )
+        {
+            byte b = buffer.get(i);
+            if ( b >= '0' && b <= '9' )
+            {
+                int digit = b - '0';
+                if ( number >= MAX_PREFIX && (number > MAX_PREFIX || digit > MAX_LAST_DIGIT) )
+                {
+                    throw new NumberFormatException("Number too large at byte " + (base + i) + " of " + filename);
+                }
+                number = number * 10 + digit;
+                inNumber = true;
+            }
+            else if ( b == ',' )
+            {
+                if ( !inNumber || tokensInLine == 0 || afterComma )
+                {
+                    throw new NumberFormatException("Unexpected ',' at byte " + (base + i) + " of " + filename);
+                }
+                pendingTarget = number - 1;
+                afterComma = true;
+                number = 0;
+                inNumber = false;
+            }
+            else if ( b == '\t' || b == ' ' || b == '\r' )
+            {
+                endNumber(base + i);
+            }
+            else if ( b == '\n' )
+            {
+                if ( !endLine(base + i) )
+                {
+                    finished = true;
+                    return;
+                }
+            }
+            else
+            {
+                throw new NumberFormatException("Unexpected character '" + (char) b + "' at byte "
+                                                + (base + i) + " of " + filename);
+            }
+        }
+    }
+
+    /**
+     * Finishes the number being read, if any: the first number of a line is the
+     * starting vertex, a number after a comma is a weight and completes an edge.
+     *      @param at - file position, for error messages
+     */
+    private void endNumber(long at)
+    {
+        if ( inNumber )
+        {
+            if ( afterComma )
+            {
+                addEdge(pendingTarget, number);
+                afterComma = false;
+            }
+            else if ( tokensInLine > 0 )
+            {
+                throw new NumberFormatException("Missing weight before byte " + at + " of " + filename);
+            }
+            tokensInLine++;
+            number = 0;
+            inNumber = false;
+        }
+    }
+
+    /**
+     * Finishes the current line.
+     *      @param at - file position, for error messages
+     *      @return false if the line was blank, which ends the input
+     */
+    private boolean endLine(long at)
+    {
+        endNumber(at);
+        if ( afterComma )
+        {
+            throw new NumberFormatException("Missing weight before byte " + at + " of " + filename);
+        }
+        if ( tokensInLine == 0 )
+        {
+            return false;
+        }
+
+        numVer++;
+        if ( directOffsets != null )
+        {
+            if ( numVer == directOffsets.length() )
+            {
+                directOffsets.resize(grownLength(numVer));
+            }
+            directOffsets.set(numVer, numEdges);
+        }
+        else
+        {
+            if ( numVer == offsets.length )
+            {
+                offsets = Arrays.copyOf(offsets, grownArrayLength(numVer));
+            }
+            offsets[numVer] = numEdges;
+        }
+        tokensInLine = 0;
+        return true;
+    }
+
+    /**
+     * Appends one edge of the current vertex.
+     *      @param target - 0-based destination
+     *      @param weight
+     */
+    private void addEdge(int target, int weight)
+    {
+        if ( directTargets != null )
+        {
+            if ( numEdges == directTargets.length() )
+            {
+                directTargets.resize(grownLength(numEdges));
+                directWeights.resize(grownLength(numEdges));
+            }
+            directTargets.set(numEdges, target);
+            directWeights.set(numEdges, weight);
+            maxWeight = Math.max(maxWeight, weight);
+            numEdges++;
+            return;
+        }
+        if ( numEdges == targets.length )
+        {
+            targets = Arrays.copyOf(targets, grownArrayLength(numEdges));
+            weights = Arrays.copyOf(weights, grownArrayLength(numEdges));
+        }
+        targets[numEdges] = target;
+        weights[numEdges] = weight;
+        numEdges++;
+    }
+
+    /**
+     * Returns the doubled length of a full heap array, at most MAX_ARRAY_LENGTH.
+     *      @param length
+     *      @return
+     */
+    private static int grownArrayLength(int length)
+    {
+        if ( length >= MAX_ARRAY_LENGTH )
+        {
+            throw new IllegalStateException("More than " + MAX_ARRAY_LENGTH
+                                            + " entries do not fit in an int array, use readDirectGraph()");
+        }
+        return (int) Math.min(2L * length, MAX_ARRAY_LENGTH);
+    }
+
+    /**
+     * Returns the doubled length of a full off-heap array, at most Integer.MAX_VALUE.
+     *      @param length
+     *      @return
+     */
+    private static int grownLength(int length)
+    {
+        if ( length == Integer.MAX_VALUE )
+        {
+            throw new IllegalStateException("More than " + Integer.MAX_VALUE + " entries");
+        }
+        return (int) Math.min(2L * length, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,262 @@
+/**
+ * MetricsRegistry: Adds up the SearchMetrics of many searches, from any number
+ * of threads, and exports the totals as JSON or Prometheus text.
+ *
+ *      Counters are LongAdders, so threads recording at once do not contend on
+ * one cache line; each phase (load, init, search, output) keeps a
+ * LatencyHistogram of its nanoseconds. A phase that was not measured (0 ns) is
+ * not recorded. With SearchMetrics.ENABLED off, record() does nothing.
+ *
+ * Usage:
+ *      MetricsRegistry registry = new MetricsRegistry();
+ *      engine.setMetricsRegistry(registry);      // or registry.record(indexer.getMetrics())
+ *      ...
+ *      System.out.print(registry.toPrometheus());
+ *
+ * Output:
+ *      toPrometheus() writes dijkstra_searches_total, dijkstra_settled_total,
+ *      dijkstra_edges_scanned_total, dijkstra_relaxations_total,
+ *      dijkstra_pushes_total, dijkstra_pops_total, dijkstra_stale_pops_total,
+ *      dijkstra_peak_queue_size, and a summary dijkstra_<phase>_seconds with
+ *      quantiles 0.5, 0.9, 0.99 and 0.999 for every phase.
+ *      toJson() writes the same as one object, times in nanoseconds.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+public class MetricsRegistry
+{
+    private static final String[] PHASES = { "load", "init", "search", "output" };
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder settled = new LongAdder();
+    private final LongAdder edgesScanned = new LongAdder();
+    private final LongAdder relaxations = new LongAdder();
+    private final LongAdder pushes = new LongAdder();
+    private final LongAdder pops = new LongAdder();
+    private final LongAdder stalePops = new LongAdder();
+    private final LongAccumulator peakQueueSize = new LongAccumulator(Math::max, 0);
+
+    // Indexed like PHASES
+    private final LatencyHistogram[] phases = { new LatencyHistogram(), new LatencyHistogram(),
+                                                new LatencyHistogram(), new LatencyHistogram() };
+
+    /**
+     * Adds the counters and phase times of one search.
+     *      @param metrics
+     */
+    public void record(SearchMetrics metrics)
+    {
+        if ( !SearchMetrics.ENABLED )
+        {
+            return;
+        }
+        searches.increment();
+        settled.add(metrics.settled);
+        edgesScanned.add(metrics.edgesScanned);
+        relaxations.add(metrics.relaxations);
+        pushes.add(metrics.pushes);
+        pops.add(metrics.pops);
+        stalePops.add(metrics.stalePops);
+        peakQueueSize.accumulate(metrics.peakQueueSize);
+        recordPhase(0, metrics.loadNanos);
+        recordPhase(1, metrics.initNanos);
+        recordPhase(2, metrics.searchNanos);
+        recordPhase(3, metrics.outputNanos);
+    }
+
+    /**
+     * Records the time of loading a graph, which is done once for many searches.
+     *      @param nanos
+     */
+    public void recordLoad(long nanos)
+    {
+        if ( SearchMetrics.ENABLED )
+        {
+            recordPhase(0, nanos);
+        }
+    }
+
+    /**
+     * Records the time of writing results out.
+     *      @param nanos
+     */
+    public void recordOutput(long nanos)
+    {
+        if ( SearchMetrics.ENABLED )
+        {
+            recordPhase(3, nanos);
+        }
+    }
+
+    /**
+     * Adds a measured phase time to its histogram.
+     *      @param phase - index into PHASES
+     *      @param nanos - 0 if not measured
+     */
+    private void recordPhase(int phase, long nanos)
+    {
+        if ( nanos > 0 )
+        {
+            phases[phase].record(nanos);
+        }
+    }
+
+    /**
+     * Returns the number of searches recorded
+     * @return
+     */
+    public long getSearches()
+    {
+        return searches.sum();
+    }
+
+    /**
+     * Returns the number of vertices settled by all searches
+     * @return
+     */
+    public long getSettled()
+    {
+        return settled.sum();
+    }
+
+    /**
+     * Returns the number of edges scanned by all searches
+     * @return
+     */
+    public long getEdgesScanned()
+    {
+        return edgesScanned.sum();
+    }
+
+    /**
+     * Returns the number of relaxations of all searches
+     * @return
+     */
+    public long getRelaxations()
+    {
+        return relaxations.sum();
+    }
+
+    /**
+     * Returns the number of queue inserts and decrease-keys of all searches
+     * @return
+     */
+    public long getPushes()
+    {
+        return pushes.sum();
+    }
+
+    /**
+     * Returns the histogram of a phase.
+     *      @param phase - load, init, search or output
+     *      @return
+     */
+    public LatencyHistogram getHistogram(String phase)
+    {
+        for ( int i = 0; i < PHASES.length; i++ )
+        {
+            if ( PHASES[i].equals(phase) )
+            {
+                return phases[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown phase " + phase);
+    }
+
+    /**
+     * Returns the totals as one JSON object.
+     *      @return
+     */
+    public String toJson()
+    {
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\"searches\":").append(searches.sum())
+            .append(",\"settled\":").append(settled.sum())
+            .append(",\"edgesScanned\":").append(edgesScanned.sum())
+            .append(",\"relaxations\":").append(relaxations.sum())
+            .append(",\"pushes\":").append(pushes.sum())
+            .append(",\"pops\":").append(pops.sum())
+            .append(",\"stalePops\":").append(stalePops.sum())
+            .append(",\"peakQueueSize\":").append(peakQueueSize.get())
+            .append(",\"phases\":{");
+        for ( int i = 0; i < PHASES.length; i++ )
+        {
+            LatencyHistogram h = phases[i];
+            json.append(i > 0 ? "," : "").append('"').append(PHASES[i]).append("\":{\"count\":").append(h.getCount())
+                .append(",\"meanNanos\":").append(Math.round(h.getMean()))
+                .append(",\"p50Nanos\":").append(h.getValueAtPercentile(50))
+                .append(",\"p90Nanos\":").append(h.getValueAtPercentile(90))
+                .append(",\"p99Nanos\":").append(h.getValueAtPercentile(99))
+                .append(",\"p999Nanos\":").append(h.getValueAtPercentile(99.9))
+                .append(",\"maxNanos\":").append(h.getMax()).append('}');
+        }
+        return json.append("}}").toString();
+    }
+
+    /**
+     * Returns the totals in the Prometheus text exposition format.
+     *      @return
+     */
+    public String toPrometheus()
+    {
+        StringBuilder text = new StringBuilder(2048);
+        counter(text, "dijkstra_searches_total", "Searches recorded", searches.sum());
+        counter(text, "dijkstra_settled_total", "Vertices settled", settled.sum());
+        counter(text, "dijkstra_edges_scanned_total", "Edges scanned from settled vertices", edgesScanned.sum());
+        counter(text, "dijkstra_relaxations_total", "Edges that gave a shorter distance", relaxations.sum());
+        counter(text, "dijkstra_pushes_total", "Queue inserts and decrease-keys", pushes.sum());
+        counter(text, "dijkstra_pops_total", "Queue pops", pops.sum());
+        counter(text, "dijkstra_stale_pops_total", "Pops of outdated queue entries", stalePops.sum());
+        text.append("# HELP dijkstra_peak_queue_size Most queue entries of any search\n")
+            .append("# TYPE dijkstra_peak_queue_size gauge\n")
+            .append("dijkstra_peak_queue_size ").append(peakQueueSize.get()).append('\n');
+
+        for ( int i = 0; i < PHASES.length; i++ )
+        {
+            LatencyHistogram h = phases[i];
+            String name = "dijkstra_" + PHASES[i] + "_seconds";
+            text.append("# HELP ").append(name).append(" Time of the ").append(PHASES[i]).append(" phase\n")
+                .append("# TYPE ").append(name).append(" summary\n");
+            for ( double q : QUANTILES )
+            {
+                text.append(name).append("{quantile=\"").append(q).append("\"} ")
+                    .append(seconds(h.getValueAtPercentile(q * 100))).append('\n');
+            }
+            text.append(name).append("_sum ").append(seconds(h.getSum())).append('\n')
+                .append(name).append("_count ").append(h.getCount()).append('\n');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Appends one Prometheus counter.
+     *      @param text
+     *      @param name
+     *      @param help
+     *      @param value
+     */
+    private static void counter(StringBuilder text, String name, String help, long value)
+    {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n')
+            .append("# TYPE ").append(name).append(" counter\n")
+            .append(name).append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Formats nanoseconds as seconds.
+     *      @param nanos
+     *      @return
+     */
+    private static String seconds(long nanos)
+    {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+}
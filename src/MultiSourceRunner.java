@@ -0,0 +1,264 @@
+/**
+ * MultiSourceRunner: Runs many independent single-source searches at once, for
+ * k-source and all-pairs distance jobs.
+ *
+ *      Every source is a separate Dijkstra run over the same read-only graph, so
+ * the sources are split into small batches, and one long-lived task per thread
+ * of a ForkJoinPool claims batches until none are left. Each task borrows one
+ * SearchState from the QueryEngine pool and allocates one row buffer, and keeps
+ * both for all of its batches, so workers never share mutable state and memory
+ * is bounded by (number of workers) x n no matter how many sources there are.
+ *
+ * Output:
+ *      writeMatrix() writes one binary file (all numbers little-endian ints):
+ *          magic "DMAT", version (1), k, n,
+ *          the k 0-based sources,
+ *          k rows of n distances, row i for sources[i]
+ *      Each row is written at its own position, so rows can finish in any order.
+ *      Unreachable vertices hold SearchState.INFINITY.
+ *
+ *      writePerSource() writes the n distances of each source to its own file
+ *      "source-<v>.dist" (v 1-based, as in the input file) in the same int layout.
+ *
+ * Usage:
+ *      MultiSourceRunner runner = new MultiSourceRunner(new QueryEngine(graph));
+ *      runner.writeMatrix(sources, "dist.bin");
+ *      runner.writeAllPairs("all.bin");
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MultiSourceRunner
+{
+    private static final int MAGIC = 'D' | 'M' << 8 | 'A' << 16 | 'T' << 24;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int SOURCES_PER_TASK = 16;
+
+    private final QueryEngine engine;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a runner on the common ForkJoinPool.
+     *      @param engine
+     */
+    public MultiSourceRunner(QueryEngine engine)
+    {
+        this(engine, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a runner on the given pool.
+     *      @param engine
+     *      @param pool
+     */
+    public MultiSourceRunner(QueryEngine engine, ForkJoinPool pool)
+    {
+        this.engine = engine;
+        this.pool = pool;
+    }
+
+    /**
+     * Searches from every source in parallel and hands each result to the
+     * listener from the worker that computed it. The listener must be thread-safe
+     * and is called in no particular order.
+     *      @param sources - 0-based starting vertices
+     *      @param listener
+     *      @throws IOException if the listener failed with an IOException
+     */
+    public void run(int[] sources, ResultListener listener) throws IOException
+    {
+        runRows(sources, (index, state, row) -> listener.accept(state), false);
+    }
+
+    /**
+     * Writes the distances from each source as rows of a binary matrix file.
+     *      @param sources - 0-based starting vertices
+     *      @param filename
+     *      @throws IOException
+     */
+    public void writeMatrix(int[] sources, String filename) throws IOException
+    {
+        int n = engine.getGraph().getNumVertices();
+        long rowBytes = rowBytes(n);
+        long firstRow = HEADER_SIZE + 4L * sources.length;
+
+        try ( FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING) )
+        {
+            ByteBuffer header = ByteBuffer.allocate((int) firstRow).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(sources.length).putInt(n);
+            for ( int source : sources )
+            {
+                header.putInt(source);
+            }
+            header.flip();
+            GraphSnapshot.writeFully(channel, header, 0);
+
+            runRows(sources, (index, state, row) ->
+                    GraphSnapshot.writeFully(channel, row, firstRow + index * rowBytes), true);
+        }
+    }
+
+    /**
+     * Writes the all-pairs distance matrix: every vertex is a source.
+     *      @param filename
+     *      @throws IOException
+     */
+    public void writeAllPairs(String filename) throws IOException
+    {
+        int n = engine.getGraph().getNumVertices();
+        int[] sources = new int[n];
+        for ( int v = 0; v < n; v++ )
+        {
+            sources[v] = v;
+        }
+        writeMatrix(sources, filename);
+    }
+
+    /**
+     * Writes the distances of each source to its own file in a directory.
+     *      @param sources - 0-based starting vertices
+     *      @param directory - must exist
+     *      @throws IOException
+     */
+    public void writePerSource(int[] sources, String directory) throws IOException
+    {
+        runRows(sources, (index, state, row) -> {
+            Path file = Paths.get(directory, "source-" + (state.getSource() + 1) + ".dist");
+            try ( FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING) )
+            {
+                GraphSnapshot.writeFully(channel, row, 0);
+            }
+        }, true);
+    }
+
+    /**
+     * What to do with one finished search.
+     */
+    private interface RowHandler
+    {
+        /**
+         * @param index - position of the source in the batch
+         * @param state - the finished search
+         * @param row - its n distances as little-endian ints, or null if not requested
+         */
+        void handle(long index, SearchState state, ByteBuffer row) throws IOException;
+    }
+
+    /**
+     * Runs one task per pool thread; each claims batches of SOURCES_PER_TASK
+     * sources until every source is done. Waits for all of them.
+     *      @param sources
+     *      @param handler
+     *      @param fillRows - also encode each result as a full row
+     *      @throws IOException
+     */
+    private void runRows(int[] sources, RowHandler handler, boolean fillRows) throws IOException
+    {
+        int n = engine.getGraph().getNumVertices();
+        long rowBytes = fillRows ? rowBytes(n) : 0;
+        int batches = (sources.length + SOURCES_PER_TASK - 1) / SOURCES_PER_TASK;
+        int workers = Math.min(pool.getParallelism(), batches);
+        AtomicInteger nextBatch = new AtomicInteger();
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+
+        for ( int w = 0; w < workers; w++ )
+        {
+            tasks.add(() -> {
+                // Direct buffers are only freed by GC, so one per worker, reused
+                SearchState state = engine.borrow();
+                ByteBuffer row = fillRows ? ByteBuffer.allocateDirect((int) rowBytes).order(ByteOrder.LITTLE_ENDIAN)
+                                          : null;
+                try
+                {
+                    int batch;
+                    while ( (batch = nextBatch.getAndIncrement()) < batches )
+                    {
+                        int last = Math.min(sources.length, (batch + 1) * SOURCES_PER_TASK);
+                        for ( int i = batch * SOURCES_PER_TASK; i < last; i++ )
+                        {
+                            engine.search(state, sources[i]);
+                            if ( fillRows )
+                            {
+                                row.clear();
+                                for ( int v = 0; v < n; v++ )
+                                {
+                                    row.putInt(state.getDistance(v));
+                                }
+                                row.flip();
+                            }
+                            handler.handle(i, state, row);
+                        }
+                    }
+                }
+                finally
+                {
+                    engine.release(state);
+                }
+                return null;
+            });
+        }
+
+        for ( Future<Void> result : pool.invokeAll(tasks) )
+        {
+            try
+            {
+                result.get();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while running sources", e);
+            }
+            catch (ExecutionException e)
+            {
+                Throwable cause = e.getCause();
+                if ( cause instanceof IOException )
+                {
+                    throw (IOException) cause;
+                }
+                if ( cause instanceof RuntimeException )
+                {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+    }
+
+    /**
+     * Returns the size of one row of n distances, checked before any file is
+     * opened: a row is one direct buffer, which holds at most 2 GB.
+     *      @param n
+     *      @return
+     */
+    private static long rowBytes(int n)
+    {
+        long bytes = 4L * n;
+        if ( bytes > Integer.MAX_VALUE )
+        {
+            throw new IllegalStateException("A row of " + n + " distances needs " + bytes
+                                            + " bytes, more than one buffer can hold (2 GB)");
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,403 @@
+/**
+ * ParallelGraphReader: Loads the adjacency-list text format on all cores.
+ *
+ *      Every line describes one vertex, so lines can be parsed independently.
+ * The file is cut into chunks that start right after a newline, and the chunks
+ * are parsed by a ForkJoinPool in two passes:
+ *      1. count: each chunk counts its vertices (lines) and edges (commas).
+ *      2. fill:  prefix sums of those counts give every chunk the first vertex
+ *                and first edge it owns, so each chunk writes its own slice of
+ *                the shared offsets/targets/weights arrays. No locks, no merging.
+ * The result is exactly the CSRGraph MappedGraphReader would build.
+ *
+ *      Each chunk is memory mapped on its own, so chunks are kept below 1 GB
+ * and files larger than 2 GB need no special handling.
+ *
+ * Usage:
+ *      CSRGraph graph = new ParallelGraphReader(filename).readGraph();
+ *      CSRGraph graph = new ParallelGraphReader(filename, pool).readGraph();
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+public class ParallelGraphReader
+{
+    private static final long MAX_CHUNK = 1L << 30;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final String filename;
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a reader that parses on the common ForkJoinPool.
+     *      @param filename
+     */
+    public ParallelGraphReader(String filename)
+    {
+        this(filename, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a reader that parses on the given pool.
+     *      @param filename
+     *      @param pool
+     */
+    public ParallelGraphReader(String filename, ForkJoinPool pool)
+    {
+        this.filename = filename;
+        this.pool = pool;
+    }
+
+    /**
+     * Reads the whole file into a CSRGraph with 0-based destinations.
+     *      @return CSRGraph holding the adjacency list, or null if reading fails
+     */
+    public CSRGraph readGraph()
+    {
+        try ( FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ) )
+        {
+            List<Chunk> chunks = split(channel);
+
+            // First pass: count vertices and edges per chunk
+            runAll(chunks, true);
+
+            // Prefix sums; a blank line ends the input, so later chunks are dropped
+            int numVer = 0;
+            long numEdges = 0;
+            int used = 0;
+            while ( used < chunks.size() )
+            {
+                Chunk chunk = chunks.get(used++);
+                if ( chunk.error != null )
+                {
+                    throw chunk.error;
+                }
+                chunk.firstVertex = numVer;
+                chunk.firstEdge = (int) numEdges;
+                numVer += chunk.numVer;
+                numEdges += chunk.numEdges;
+                if ( chunk.endsInput )
+                {
+                    break;
+                }
+            }
+            if ( numEdges > Integer.MAX_VALUE - 8 )
+            {
+                throw new IllegalStateException("Too many edges for int indices: " + numEdges);
+            }
+            chunks = chunks.subList(0, used);
+
+            // Second pass: every chunk fills its own slice of the arrays
+            int[] offsets = new int[numVer + 1];
+            int[] targets = new int[(int) numEdges];
+            int[] weights = new int[(int) numEdges];
+            for ( Chunk chunk : chunks )
+            {
+                chunk.offsets = offsets;
+                chunk.targets = targets;
+                chunk.weights = weights;
+            }
+            runAll(chunks, false);
+
+            return new ArrayCSRGraph(offsets, targets, weights);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Could not read file " + filename);
+            return null;
+        }
+    }
+
+    /**
+     * Cuts the file into chunks that each start right after a newline.
+     *      @param channel
+     *      @return
+     *      @throws IOException
+     */
+    private List<Chunk> split(FileChannel channel) throws IOException
+    {
+        long size = channel.size();
+        long target = Math.max(1, size / ((long) pool.getParallelism() * CHUNKS_PER_THREAD));
+        target = Math.min(target, MAX_CHUNK);
+
+        List<Chunk> chunks = new ArrayList<Chunk>();
+        ByteBuffer probe = ByteBuffer.allocate(1 << 12);
+        long start = 0;
+        while ( start < size )
+        {
+            // Move the cut forward to just after the next newline
+            long end = Math.min(size, start + target);
+            while ( end < size )
+            {
+                probe.clear();
+                int read = channel.read(probe, end);
+                int i = 0;
+                while ( i < read && probe.get(i) != '\n' )
+                {
+                    i++;
+                }
+                end += i;
+                if ( i < read )
+                {
+                    end++;
+                    break;
+                }
+            }
+
+            if ( end - start > Integer.MAX_VALUE )
+            {
+                throw new IllegalStateException("Line too long to map near byte " + start + " of " + filename);
+            }
+            chunks.add(new Chunk(channel, start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Runs one pass over every chunk on the pool and waits for all of them.
+     *      @param chunks
+     *      @param count - true for the counting pass, false for the filling pass
+     *      @throws IOException
+     */
+    private void runAll(List<Chunk> chunks, boolean count) throws IOException
+    {
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        for ( Chunk chunk : chunks )
+        {
+            tasks.add(() -> {
+                if ( count )
+                {
+                    chunk.count();
+                }
+                else
+                {
+                    chunk.fill();
+                }
+                if ( Trace.ENABLED )
+                {
+                    Trace.record(Trace.CHUNK, count ? 0 : 1, chunk.numVer, chunk.start);
+                }
+                return null;
+            });
+        }
+
+        for ( Future<Void> result : pool.invokeAll(tasks) )
+        {
+            try
+            {
+                result.get();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while reading " + filename, e);
+            }
+            catch (ExecutionException e)
+            {
+                Throwable cause = e.getCause();
+                if ( cause instanceof RuntimeException )
+                {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException("Could not read file " + filename, cause);
+            }
+        }
+    }
+
+    /**
+     * One newline-aligned byte range of the file and what it holds.
+     */
+    private class Chunk
+    {
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+
+        // Filled in by count()
+        private int numVer;
+        private int numEdges;
+        private boolean endsInput;      // the chunk contains a blank line
+        private NumberFormatException error;    // a byte no line may contain, before any blank line
+
+        // Filled in by readGraph() before fill()
+        private int firstVertex;
+        private int firstEdge;
+        private int[] offsets;
+        private int[] targets;
+        private int[] weights;
+
+        Chunk(FileChannel channel, long start, long end)
+        {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Counts non-blank lines and commas up to the first blank line. Only a
+         * line of whitespace is blank: a line such as "," is counted, and fill()
+         * rejects it. A byte that no line may contain is saved in error rather
+         * than thrown, since it only matters if no earlier chunk ends the input.
+         *      @throws IOException
+         */
+        void count() throws IOException
+        {
+            MappedByteBuffer buffer = map();
+            int length = buffer.limit();
+            boolean lineHasToken = false;
+            int commas = 0;
+
+            for ( int i = 0; i < length; i++ )
+            {
+                byte b = buffer.get(i);
+                if ( b == '\n' )
+                {
+                    if ( !lineHasToken )
+                    {
+                        endsInput = true;
+                        return;
+                    }
+                    numVer++;
+                    numEdges += commas;
+                    lineHasToken = false;
+                    commas = 0;
+                }
+                else if ( b == ',' )
+                {
+                    commas++;
+                    lineHasToken = true;
+                }
+                else if ( b >= '0' && b <= '9' )
+                {
+                    lineHasToken = true;
+                }
+                else if ( b != '\t' && b != ' ' && b != '\r' )
+                {
+                    error = new NumberFormatException("Unexpected character '" + (char) b + "' at byte "
+                                                      + (start + i) + " of " + filename);
+                    return;
+                }
+            }
+
+            // Only the last chunk can end without a newline
+            if ( lineHasToken )
+            {
+                numVer++;
+                numEdges += commas;
+            }
+        }
+
+        /**
+         * Parses the counted lines into this chunk's slice of the shared arrays.
+         *      @throws IOException
+         */
+        void fill() throws IOException
+        {
+            MappedByteBuffer buffer = map();
+            int length = buffer.limit();
+            int vertex = firstVertex;
+            int lastVertex = firstVertex + numVer;
+            int edge = firstEdge;
+
+            int number = 0;
+            boolean inNumber = false;
+            boolean afterComma = false;
+            int tokensInLine = 0;
+            int pendingTarget = 0;
+
+            for ( int i = 0; i <= length && vertex < lastVertex; i++ )
+            {
+                // Treat the end of the chunk as a final newline
+                byte b = i < length ? buffer.get(i) : (byte) '\n';
+
+                if ( b >= '0' && b <= '9' )
+                {
+                    int digit = b - '0';
+                    if ( number >= MappedGraphReader.MAX_PREFIX
+                            && (number > MappedGraphReader.MAX_PREFIX || digit > MappedGraphReader.MAX_LAST_DIGIT) )
+                    {
+                        throw new NumberFormatException("Number too large at byte " + (start + i) + " of " + filename);
+                    }
+                    number = number * 10 + digit;
+                    inNumber = true;
+                    continue;
+                }
+
+                if ( b == ',' )
+                {
+                    if ( !inNumber || tokensInLine == 0 || afterComma )
+                    {
+                        throw new NumberFormatException("Unexpected ',' at byte " + (start + i) + " of " + filename);
+                    }
+                    pendingTarget = number - 1;
+                    afterComma = true;
+                    number = 0;
+                    inNumber = false;
+                    continue;
+                }
+
+                if ( b != '\t' && b != ' ' && b != '\r' && b != '\n' )
+                {
+                    throw new NumberFormatException("Unexpected character '" + (char) b + "' at byte "
+                                                    + (start + i) + " of " + filename);
+                }
+
+                // Whitespace or newline ends the number being read
+                if ( inNumber )
+                {
+                    if ( afterComma )
+                    {
+                        targets[edge] = pendingTarget;
+                        weights[edge] = number;
+                        edge++;
+                        afterComma = false;
+                    }
+                    else if ( tokensInLine > 0 )
+                    {
+                        throw new NumberFormatException("Missing weight before byte " + (start + i) + " of " + filename);
+                    }
+                    tokensInLine++;
+                    number = 0;
+                    inNumber = false;
+                }
+
+                if ( b == '\n' )
+                {
+                    if ( afterComma )
+                    {
+                        throw new NumberFormatException("Missing weight before byte " + (start + i) + " of " + filename);
+                    }
+                    vertex++;
+                    offsets[vertex] = edge;
+                    tokensInLine = 0;
+                }
+            }
+        }
+
+        /**
+         * Maps this chunk read-only.
+         *      @return
+         *      @throws IOException
+         */
+        private MappedByteBuffer map() throws IOException
+        {
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * PathBuffer: A reusable, growable list of the vertices of one path.
+ *
+ *      Path queries write into a buffer the caller owns instead of returning a
+ * new array or list, so a loop answering many route queries allocates nothing
+ * once the buffer has grown to the longest path. Each query clears it first.
+ *
+ * Usage:
+ *      PathBuffer path = new PathBuffer();
+ *      int d = engine.path(source, target, path);
+ *      for ( int i = 0; i < path.size(); i++ ) ... path.get(i) ...
+ *
+ *      Vertices are 0-based, from the source to the target inclusive. An empty
+ * buffer means the target is unreachable.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.util.Arrays;
+
+public class PathBuffer
+{
+    private int[] vertices;
+    private int size;
+
+    /**
+     * Creates an empty buffer with room for 16 vertices.
+     */
+    public PathBuffer()
+    {
+        this(16);
+    }
+
+    /**
+     * Creates an empty buffer.
+     *      @param capacity - number of vertices before it has to grow
+     */
+    public PathBuffer(int capacity)
+    {
+        this.vertices = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * Returns the number of vertices on the path (edges + 1), 0 if there is none
+     * @return
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns true if the buffer holds no path
+     * @return
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Returns the i-th vertex of the path, 0 being the source
+     * @param i
+     * @return
+     */
+    public int get(int i)
+    {
+        if ( i >= size )
+        {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for path of " + size);
+        }
+        return vertices[i];
+    }
+
+    /**
+     * Copies the path into a new array.
+     *      @return
+     */
+    public int[] toArray()
+    {
+        return Arrays.copyOf(vertices, size);
+    }
+
+    /**
+     * Empties the buffer, keeping its memory.
+     */
+    public void clear()
+    {
+        size = 0;
+    }
+
+    /**
+     * Appends a vertex, growing the buffer if needed.
+     *      @param v
+     */
+    void add(int v)
+    {
+        if ( size == vertices.length )
+        {
+            vertices = Arrays.copyOf(vertices, 2 * size);
+        }
+        vertices[size++] = v;
+    }
+
+    /**
+     * Reverses the vertices from index from to the end. Paths are found by
+     * walking predecessors back from the target, so they come out backwards.
+     *      @param from
+     */
+    void reverse(int from)
+    {
+        for ( int i = from, j = size - 1; i < j; i++, j-- )
+        {
+            int swap = vertices[i];
+            vertices[i] = vertices[j];
+            vertices[j] = swap;
+        }
+    }
+
+    /**
+     * Returns the path as "v1 -> v2 -> ...", 1-based as in the input file.
+     */
+    public String toString()
+    {
+        StringBuilder result = new StringBuilder();
+        for ( int i = 0; i < size; i++ )
+        {
+            if ( i > 0 )
+            {
+                result.append(" -> ");
+            }
+            result.append(vertices[i] + 1);
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,686 @@
+/**
+ * QueryEngine: Answers many single-source shortest path queries over one graph
+ * that is loaded once.
+ *
+ *      Indexer is built for one starting vertex: it prompts for the file, reads
+ * it, and allocates fresh dist/visited arrays. QueryEngine keeps the graph and a
+ * pool of SearchState scratch buffers instead. A query borrows a state, resets it
+ * in O(1) with its generation counter, runs Dijkstra with the queue picked for
+ * the graph (see VertexQueue.forGraph) and hands the state back. So the cost of a
+ * query is proportional to the part of the graph it explores, not to n.
+ *
+ *      The graph is read-only and each state is used by one thread at a time,
+ * so several threads may query the same engine at once.
+ *
+ *      An engine created with trackPredecessors also records the predecessor of
+ * every vertex it reaches, which the path methods and shortestPathTree() need.
+ * It is off by default, so distance-only queries do not pay for it. An engine
+ * created offHeap keeps the scratch arrays of its states outside the heap (see
+ * SearchState), for graphs whose n-sized arrays the heap should not hold.
+ *
+ * Usage:
+ *      QueryEngine engine = new QueryEngine(CSRGraph.load(filename));
+ *      engine.run(sources, result -> {
+ *          for ( int i = 0; i < result.getNumReached(); i++ ) ...
+ *      });
+ *      int[] dist = engine.distances(source);
+ *      int d = engine.bidirectionalDistance(source, target);
+ *      int d = engine.aStarDistance(source, target, heuristic);
+ *
+ *      QueryEngine routes = new QueryEngine(graph, true);
+ *      PathBuffer path = new PathBuffer();
+ *      int d = routes.path(source, target, path);
+ *      ShortestPathTree tree = routes.shortestPathTree(source);
+ *
+ *      Distances are ints, so a path longer than Integer.MAX_VALUE reads as
+ * unreachable; use LongQueryEngine when LongQueryEngine.fitsInt(graph) is false.
+ *
+ *      Vertices are 0-based, unlike the 1-based starting vertex Indexer prompts for.
+ *
+ *      Every search (search(), and so distance, distances, path, run and
+ * shortestPathTree, and the bidirectional and A* searches) counts its work into
+ * a state's SearchMetrics, and adds it to the MetricsRegistry given to
+ * setMetricsRegistry(), if any. A bidirectional search counts both directions
+ * as one search.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class QueryEngine
+{
+    private final CSRGraph graph;
+    private final boolean trackPredecessors;
+    private final boolean offHeap;
+    private volatile CSRGraph reverse;      // built on the first backward search
+    private volatile MetricsRegistry registry;  // null unless metrics are collected
+    private final ConcurrentLinkedQueue<SearchState> pool = new ConcurrentLinkedQueue<SearchState>();
+
+    /**
+     * Creates an engine over a loaded graph.
+     *      @param graph
+     */
+    public QueryEngine(CSRGraph graph)
+    {
+        this(graph, false);
+    }
+
+    /**
+     * Creates an engine over a loaded graph.
+     *      @param graph
+     *      @param trackPredecessors - record predecessors so paths can be read
+     */
+    public QueryEngine(CSRGraph graph, boolean trackPredecessors)
+    {
+        this(graph, trackPredecessors, false);
+    }
+
+    /**
+     * Creates an engine over a loaded graph.
+     *      @param graph
+     *      @param trackPredecessors - record predecessors so paths can be read
+     *      @param offHeap - keep the scratch arrays of searches outside the heap
+     */
+    public QueryEngine(CSRGraph graph, boolean trackPredecessors, boolean offHeap)
+    {
+        this.graph = graph;
+        this.trackPredecessors = trackPredecessors;
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * Returns the graph this engine searches
+     * @return
+     */
+    public CSRGraph getGraph()
+    {
+        return graph;
+    }
+
+    /**
+     * Takes a scratch state from the pool, creating one if the pool is empty.
+     * Give it back with release() when done.
+     *      @return
+     */
+    public SearchState borrow()
+    {
+        SearchState state = pool.poll();
+        return state != null ? state : new SearchState(graph, trackPredecessors, offHeap);
+    }
+
+    /**
+     * Adds the metrics of every following search to a registry, or stops if null.
+     *      @param registry
+     */
+    public void setMetricsRegistry(MetricsRegistry registry)
+    {
+        this.registry = registry;
+    }
+
+    /**
+     * Returns a scratch state to the pool.
+     *      @param state
+     */
+    public void release(SearchState state)
+    {
+        pool.offer(state);
+    }
+
+    /**
+     * Runs Dijkstra from source into the given state, replacing its previous
+     * search.
+     *      @param state - scratch state borrowed from this engine
+     *      @param source - 0-based starting vertex
+     */
+    public void search(SearchState state, int source)
+    {
+        search(state, source, -1);
+    }
+
+    /**
+     * Runs Dijkstra from source until target is settled and returns its distance.
+     * The search stops there, so it only explores the vertices closer to source
+     * than target. The state holds the partial search afterwards.
+     *      @param state - scratch state borrowed from this engine
+     *      @param source - 0-based starting vertex
+     *      @param target - 0-based destination, or -1 to settle every vertex
+     *      @return shortest distance, SearchState.INFINITY if target is unreachable
+     */
+    public int search(SearchState state, int source, int target)
+    {
+        SearchMetrics metrics = state.getMetrics();
+        long start = 0;
+        if ( SearchMetrics.ENABLED )
+        {
+            metrics.reset();
+            start = System.nanoTime();
+        }
+
+        state.begin(source);
+        VertexQueue queue = state.getQueue();
+        queue.insertOrDecrease(source, 0);
+        int result = SearchState.INFINITY;
+
+        while ( !queue.isEmpty() )
+        {
+            // settle the vertex with least key, its distance is final
+            int u = queue.pollMin();
+            int du = state.getDistance(u);
+            if ( SearchMetrics.ENABLED )
+            {
+                // The queue only grows between pops, so this finds its peak
+                metrics.queueSize(queue.size() + 1);
+                metrics.pops++;
+                metrics.settled++;
+            }
+            if ( Trace.ENABLED )
+            {
+                Trace.record(Trace.SETTLE, u, 0, du);
+            }
+            if ( u == target )
+            {
+                result = du;
+                break;
+            }
+
+            int begin = graph.edgeStart(u);
+            int end = graph.edgeEnd(u);
+            if ( SearchMetrics.ENABLED )
+            {
+                metrics.edgesScanned += end - begin;
+            }
+            for ( int j = begin; j < end; j++ )
+            {
+                int destination = graph.getTarget(j);
+                int length = du + graph.getWeight(j);
+
+                // A negative length wrapped around: too long for an int, leave it unreached
+                if ( length >= 0 && length < state.getDistance(destination) )
+                {
+                    state.setDistance(destination, length);
+                    if ( trackPredecessors )
+                    {
+                        state.setPredecessor(destination, u);
+                    }
+                    queue.insertOrDecrease(destination, length);
+                    if ( SearchMetrics.ENABLED )
+                    {
+                        metrics.relaxations++;
+                    }
+                    if ( Trace.ENABLED )
+                    {
+                        Trace.record(Trace.RELAX, u, destination, length);
+                    }
+                }
+            }
+        }
+
+        if ( SearchMetrics.ENABLED )
+        {
+            metrics.pushes = metrics.relaxations + 1;
+            finish(metrics, start);
+        }
+        return result;
+    }
+
+    /**
+     * Stops the clock of a search and adds its metrics to the registry, if any.
+     *      @param metrics
+     *      @param start - System.nanoTime() when the search began
+     */
+    private void finish(SearchMetrics metrics, long start)
+    {
+        metrics.searchNanos = System.nanoTime() - start;
+        MetricsRegistry registry = this.registry;
+        if ( registry != null )
+        {
+            registry.record(metrics);
+        }
+    }
+
+    /**
+     * Returns the distance from source to target, stopping as soon as target is
+     * settled.
+     *      @param source - 0-based starting vertex
+     *      @param target - 0-based destination
+     *      @return shortest distance, SearchState.INFINITY if target is unreachable
+     */
+    public int distance(int source, int target)
+    {
+        SearchState state = borrow();
+        try
+        {
+            return search(state, source, target);
+        }
+        finally
+        {
+            release(state);
+        }
+    }
+
+    /**
+     * Writes a shortest path from source to target into a buffer, stopping the
+     * search as soon as target is settled.
+     *      @param source - 0-based starting vertex
+     *      @param target - 0-based destination
+     *      @param path - cleared, then filled from source to target
+     *      @return shortest distance, SearchState.INFINITY (and an empty path) if
+     *              target is unreachable
+     */
+    public int path(int source, int target, PathBuffer path)
+    {
+        checkTracking();
+        SearchState state = borrow();
+        try
+        {
+            int d = search(state, source, target);
+            state.getPath(target, path);
+            return d;
+        }
+        finally
+        {
+            release(state);
+        }
+    }
+
+    /**
+     * Searches every vertex from source and returns the whole tree of shortest
+     * paths.
+     *      @param source - 0-based starting vertex
+     *      @return
+     */
+    public ShortestPathTree shortestPathTree(int source)
+    {
+        checkTracking();
+        SearchState state = borrow();
+        try
+        {
+            search(state, source);
+            return ShortestPathTree.of(state);
+        }
+        finally
+        {
+            release(state);
+        }
+    }
+
+    /**
+     * Returns the distance from source to target with bidirectional Dijkstra: one
+     * search grows forward from source, another backward from target over the
+     * reverse graph, always advancing the side with the smaller queue. mu is the
+     * best source-target path seen where the two searches meet. Once the keys last
+     * settled on both sides add up to at least mu, no shorter path can remain.
+     *      @param source - 0-based starting vertex
+     *      @param target - 0-based destination
+     *      @return shortest distance, SearchState.INFINITY if target is unreachable
+     */
+    public int bidirectionalDistance(int source, int target)
+    {
+        return bidirectional(source, target, null);
+    }
+
+    /**
+     * Writes a shortest path from source to target into a buffer, found with
+     * bidirectional Dijkstra (see bidirectionalDistance()).
+     *      @param source - 0-based starting vertex
+     *      @param target - 0-based destination
+     *      @param path - cleared, then filled from source to target
+     *      @return shortest distance, SearchState.INFINITY (and an empty path) if
+     *              target is unreachable
+     */
+    public int bidirectionalPath(int source, int target, PathBuffer path)
+    {
+        checkTracking();
+        return bidirectional(source, target, path);
+    }
+
+    /**
+     * Runs bidirectional Dijkstra, and fills path when it is not null.
+     *      @param source
+     *      @param target
+     *      @param path
+     *      @return
+     */
+    private int bidirectional(int source, int target, PathBuffer path)
+    {
+        if ( path != null )
+        {
+            path.clear();
+        }
+
+        CSRGraph backwardGraph = getReverseGraph();
+        SearchState forward = borrow();
+        SearchState backward = borrow();
+        try
+        {
+            // Both directions count into the forward state's metrics
+            SearchMetrics metrics = forward.getMetrics();
+            long start = 0;
+            if ( SearchMetrics.ENABLED )
+            {
+                metrics.reset();
+                start = System.nanoTime();
+            }
+            if ( source == target )
+            {
+                if ( path != null )
+                {
+                    path.add(source);
+                }
+                if ( SearchMetrics.ENABLED )
+                {
+                    finish(metrics, start);
+                }
+                return 0;
+            }
+
+            forward.begin(source);
+            backward.begin(target);
+            VertexQueue forwardQueue = forward.getQueue();
+            VertexQueue backwardQueue = backward.getQueue();
+            forwardQueue.insertOrDecrease(source, 0);
+            backwardQueue.insertOrDecrease(target, 0);
+
+            long mu = SearchState.INFINITY;
+            int meetFrom = -1;      // the best path uses the edge meetFrom -> meetTo
+            int meetTo = -1;
+            int forwardKey = 0;
+            int backwardKey = 0;
+
+            while ( !forwardQueue.isEmpty() && !backwardQueue.isEmpty() )
+            {
+                boolean goForward = forwardQueue.size() <= backwardQueue.size();
+                SearchState side = goForward ? forward : backward;
+                SearchState other = goForward ? backward : forward;
+                CSRGraph sideGraph = goForward ? graph : backwardGraph;
+                VertexQueue queue = side.getQueue();
+
+                int u = queue.pollMin();
+                int du = side.getDistance(u);
+                if ( SearchMetrics.ENABLED )
+                {
+                    metrics.queueSize(forwardQueue.size() + backwardQueue.size() + 1);
+                    metrics.pops++;
+                    metrics.settled++;
+                }
+                if ( goForward )
+                {
+                    forwardKey = du;
+                }
+                else
+                {
+                    backwardKey = du;
+                }
+                if ( (long) forwardKey + backwardKey >= mu )
+                {
+                    break;
+                }
+
+                int begin = sideGraph.edgeStart(u);
+                int end = sideGraph.edgeEnd(u);
+                if ( SearchMetrics.ENABLED )
+                {
+                    metrics.edgesScanned += end - begin;
+                }
+                for ( int j = begin; j < end; j++ )
+                {
+                    int destination = sideGraph.getTarget(j);
+                    int length = du + sideGraph.getWeight(j);
+
+                    // A negative length wrapped around: too long for an int, leave it unreached
+                    if ( length < 0 )
+                    {
+                        continue;
+                    }
+                    if ( length < side.getDistance(destination) )
+                    {
+                        side.setDistance(destination, length);
+                        if ( trackPredecessors )
+                        {
+                            side.setPredecessor(destination, u);
+                        }
+                        queue.insertOrDecrease(destination, length);
+                        if ( SearchMetrics.ENABLED )
+                        {
+                            metrics.relaxations++;
+                        }
+                    }
+
+                    // A path through this edge meets the other search
+                    if ( other.isReached(destination)
+                            && (long) length + other.getDistance(destination) < mu )
+                    {
+                        mu = (long) length + other.getDistance(destination);
+                        meetFrom = goForward ? u : destination;
+                        meetTo = goForward ? destination : u;
+                    }
+                }
+            }
+
+            if ( path != null && mu < SearchState.INFINITY )
+            {
+                // source .. meetFrom forward, then meetTo .. target backward
+                forward.getPath(meetFrom, path);
+                for ( int v = meetTo; v != -1; v = backward.getPredecessor(v) )
+                {
+                    path.add(v);
+                }
+            }
+            if ( SearchMetrics.ENABLED )
+            {
+                metrics.pushes = metrics.relaxations + 2;
+                finish(metrics, start);
+            }
+            return (int) Math.min(mu, SearchState.INFINITY);
+        }
+        finally
+        {
+            release(forward);
+            release(backward);
+        }
+    }
+
+    /**
+     * Returns the distance from source to target with A*: like Dijkstra, but the
+     * queue is ordered by distance so far plus the heuristic's estimate of the
+     * rest, so vertices leading towards target are settled first. The answer is
+     * exact as long as the heuristic never overestimates. A vertex whose distance
+     * improves after it was settled is queued again, so the heuristic does not
+     * have to be consistent.
+     *      @param source - 0-based starting vertex
+     *      @param target - 0-based destination
+     *      @param heuristic - admissible lower bound on the remaining distance
+     *      @return shortest distance, SearchState.INFINITY if target is unreachable
+     */
+    public int aStarDistance(int source, int target, Heuristic heuristic)
+    {
+        return aStar(source, target, heuristic, null);
+    }
+
+    /**
+     * Writes a shortest path from source to target into a buffer, found with A*
+     * (see aStarDistance()).
+     *      @param source - 0-based starting vertex
+     *      @param target - 0-based destination
+     *      @param heuristic - admissible lower bound on the remaining distance
+     *      @param path - cleared, then filled from source to target
+     *      @return shortest distance, SearchState.INFINITY (and an empty path) if
+     *              target is unreachable
+     */
+    public int aStarPath(int source, int target, Heuristic heuristic, PathBuffer path)
+    {
+        checkTracking();
+        return aStar(source, target, heuristic, path);
+    }
+
+    /**
+     * Runs A*, and fills path when it is not null.
+     *      @param source
+     *      @param target
+     *      @param heuristic
+     *      @param path
+     *      @return
+     */
+    private int aStar(int source, int target, Heuristic heuristic, PathBuffer path)
+    {
+        if ( path != null )
+        {
+            path.clear();
+        }
+        SearchState state = borrow();
+        try
+        {
+            SearchMetrics metrics = state.getMetrics();
+            long start = 0;
+            if ( SearchMetrics.ENABLED )
+            {
+                metrics.reset();
+                start = System.nanoTime();
+            }
+
+            state.begin(source);
+            IndexedDHeap heap = state.getHeap();
+            heap.insert(source, heuristic.estimate(source, target));
+            int result = SearchState.INFINITY;
+
+            while ( !heap.isEmpty() )
+            {
+                int u = heap.pollMin();
+                int du = state.getDistance(u);
+                if ( SearchMetrics.ENABLED )
+                {
+                    metrics.queueSize(heap.size() + 1);
+                    metrics.pops++;
+                    metrics.settled++;
+                }
+                if ( u == target )
+                {
+                    if ( path != null )
+                    {
+                        state.getPath(target, path);
+                    }
+                    result = du;
+                    break;
+                }
+
+                int begin = graph.edgeStart(u);
+                int end = graph.edgeEnd(u);
+                if ( SearchMetrics.ENABLED )
+                {
+                    metrics.edgesScanned += end - begin;
+                }
+                for ( int j = begin; j < end; j++ )
+                {
+                    int destination = graph.getTarget(j);
+                    int length = du + graph.getWeight(j);
+
+                    // A negative length wrapped around: too long for an int, leave it unreached
+                    if ( length >= 0 && length < state.getDistance(destination) )
+                    {
+                        state.setDistance(destination, length);
+                        if ( trackPredecessors )
+                        {
+                            state.setPredecessor(destination, u);
+                        }
+                        long key = (long) length + heuristic.estimate(destination, target);
+                        heap.insertOrDecrease(destination, (int) Math.min(key, SearchState.INFINITY));
+                        if ( SearchMetrics.ENABLED )
+                        {
+                            metrics.relaxations++;
+                        }
+                    }
+                }
+            }
+
+            if ( SearchMetrics.ENABLED )
+            {
+                metrics.pushes = metrics.relaxations + 1;
+                finish(metrics, start);
+            }
+            return result;
+        }
+        finally
+        {
+            release(state);
+        }
+    }
+
+    /**
+     * Throws if this engine was created without predecessor tracking.
+     */
+    private void checkTracking()
+    {
+        if ( !trackPredecessors )
+        {
+            throw new IllegalStateException("Paths need a QueryEngine created with trackPredecessors");
+        }
+    }
+
+    /**
+     * Returns the reverse graph, building it on first use.
+     *      @return
+     */
+    public CSRGraph getReverseGraph()
+    {
+        CSRGraph result = reverse;
+        if ( result == null )
+        {
+            synchronized ( this )
+            {
+                result = reverse;
+                if ( result == null )
+                {
+                    result = graph.reverse();
+                    reverse = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Answers a batch of sources one after another with one scratch state, handing
+     * each result to the listener as soon as it is ready.
+     *      @param sources - 0-based starting vertices
+     *      @param listener
+     */
+    public void run(int[] sources, ResultListener listener)
+    {
+        SearchState state = borrow();
+        try
+        {
+            for ( int source : sources )
+            {
+                search(state, source);
+                listener.accept(state);
+            }
+        }
+        finally
+        {
+            release(state);
+        }
+    }
+
+    /**
+     * Returns the distances from one source as a new n-sized array
+     * (SearchState.INFINITY for unreachable vertices).
+     *      @param source - 0-based starting vertex
+     *      @return
+     */
+    public int[] distances(int source)
+    {
+        SearchState state = borrow();
+        try
+        {
+            search(state, source);
+            return state.toArray();
+        }
+        finally
+        {
+            release(state);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/**
+ * QueryLoadGenerator: Drives a running QueryServer with random queries from
+ * many threads and reports its throughput and latency percentiles.
+ *
+ *      Every worker thread sends its requests one after another and waits for
+ * each answer, so --concurrency is the number of requests in flight. The first
+ * --warmup requests (spread over the workers) are not measured, so the server's
+ * JIT has compiled the search before timing starts. Vertices are drawn from a
+ * seeded Random after asking the server how many there are (/info).
+ *
+ *      By default the load is a closed loop: a slow answer delays the next
+ * request, so the requests that would have queued behind it are never sent and
+ * the tail percentiles come out too low (coordinated omission). --rate switches
+ * to an open loop: request i is due at i / rate seconds, and its latency is
+ * measured from that intended start, so time spent waiting for a free worker
+ * counts just as a user arriving at that moment would see it. --concurrency
+ * then only caps the requests in flight and should be well above
+ * rate x latency.
+ *
+ * Usage:
+ *      java QueryServer --graph big.txt --port 8080 &
+ *      java QueryLoadGenerator [--url http://localhost:8080] [--endpoint distance|path|sssp|batch]
+ *                              [--requests 10000] [--warmup 1000] [--concurrency 16]
+ *                              [--batch 100] [--seed 42] [--rate requests per second]
+ *
+ *      batch sends POST /distance with --batch random pairs per request.
+ *
+ * Output:
+ *      One line with the number of requests and errors, requests per second
+ *      achieved, and the p50, p90, p99, p99.9 and maximum latency in milliseconds.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class QueryLoadGenerator
+{
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final String url;
+    private final String endpoint;
+    private final int batch;
+    private final int n;
+
+    /**
+     * Creates a generator for a running server.
+     *      @param url - e.g. http://localhost:8080
+     *      @param endpoint - distance, path, sssp or batch
+     *      @param batch - pairs per batch request
+     *      @throws IOException
+     *      @throws InterruptedException
+     */
+    public QueryLoadGenerator(String url, String endpoint, int batch) throws IOException, InterruptedException
+    {
+        switch ( endpoint )
+        {
+            case "distance": case "path": case "sssp": case "batch":
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+        }
+        this.url = url;
+        this.endpoint = endpoint;
+        this.batch = batch;
+
+        String info = client.send(HttpRequest.newBuilder(URI.create(url + "/info")).build(),
+                                  HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = Pattern.compile("\"vertices\":(\\d+)").matcher(info);
+        if ( !matcher.find() )
+        {
+            throw new IOException("Unexpected answer from " + url + "/info: " + info);
+        }
+        this.n = Integer.parseInt(matcher.group(1));
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        String url = "http://localhost:8080";
+        String endpoint = "distance";
+        int requests = 10000;
+        int warmup = 1000;
+        int concurrency = 16;
+        int batch = 100;
+        long seed = 42;
+        double rate = 0;
+
+        for ( int i = 0; i < args.length; i += 2 )
+        {
+            if ( i + 1 == args.length )
+            {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            String value = args[i + 1];
+            switch ( args[i] )
+            {
+                case "--url":           url = value; break;
+                case "--endpoint":      endpoint = value; break;
+                case "--requests":      requests = Integer.parseInt(value); break;
+                case "--warmup":        warmup = Integer.parseInt(value); break;
+                case "--concurrency":   concurrency = Integer.parseInt(value); break;
+                case "--batch":         batch = Integer.parseInt(value); break;
+                case "--seed":          seed = Long.parseLong(value); break;
+                case "--rate":          rate = Double.parseDouble(value); break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        QueryLoadGenerator generator = new QueryLoadGenerator(url, endpoint, batch);
+        generator.run(warmup, concurrency, seed - 1);
+        long[] nanos = new long[requests];
+        long start = System.nanoTime();
+        int errors = generator.run(requests, concurrency, seed, nanos, rate);
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(nanos);
+        System.out.println("endpoint\trequests\terrors\treq/s\tp50(ms)\tp90(ms)\tp99(ms)\tp99.9(ms)\tmax(ms)");
+        System.out.printf("%s\t%d\t%d\t%.1f\t%.3f\t%.3f\t%.3f\t%.3f\t%.3f%n", endpoint, requests, errors,
+                          requests / (elapsed / 1e9), percentile(nanos, 0.5) / 1e6, percentile(nanos, 0.9) / 1e6,
+                          percentile(nanos, 0.99) / 1e6, percentile(nanos, 0.999) / 1e6,
+                          nanos[requests - 1] / 1e6);
+    }
+
+    /**
+     * Sends requests without measuring them.
+     *      @param requests
+     *      @param concurrency
+     *      @param seed
+     *      @throws InterruptedException
+     */
+    public void run(int requests, int concurrency, long seed) throws InterruptedException
+    {
+        run(requests, concurrency, seed, null);
+    }
+
+    /**
+     * Sends requests from concurrency threads in a closed loop and records the
+     * latency of each.
+     *      @param requests
+     *      @param concurrency
+     *      @param seed
+     *      @param nanos - latency of request i, or null to not record
+     *      @return number of failed requests (errors or status other than 200)
+     *      @throws InterruptedException
+     */
+    public int run(int requests, int concurrency, long seed, long[] nanos) throws InterruptedException
+    {
+        return run(requests, concurrency, seed, nanos, 0);
+    }
+
+    /**
+     * Sends requests from concurrency threads and records the latency of each.
+     * With a rate, request i is due i / rate seconds after the start and its
+     * latency counts from then, even if no worker was free to send it on time.
+     *      @param requests
+     *      @param concurrency
+     *      @param seed
+     *      @param nanos - latency of request i, or null to not record
+     *      @param rate - requests per second, or 0 for a closed loop
+     *      @return number of failed requests (errors or status other than 200)
+     *      @throws InterruptedException
+     */
+    public int run(int requests, int concurrency, long seed, long[] nanos, double rate) throws InterruptedException
+    {
+        double interval = rate > 0 ? 1e9 / rate : 0;
+        long begin = System.nanoTime();
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        Thread[] workers = new Thread[concurrency];
+        for ( int w = 0; w < concurrency; w++ )
+        {
+            Random random = new Random(seed + w);
+            workers[w] = new Thread(() -> {
+                int i;
+                while ( (i = next.getAndIncrement()) < requests )
+                {
+                    HttpRequest request = request(random);
+                    long start = System.nanoTime();
+                    if ( interval > 0 )
+                    {
+                        long due = begin + (long) (i * interval);
+                        while ( start < due )
+                        {
+                            LockSupport.parkNanos(due - start);
+                            start = System.nanoTime();
+                        }
+                        start = due;
+                    }
+                    try
+                    {
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        if ( response.statusCode() != 200 )
+                        {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    catch ( IOException | InterruptedException e )
+                    {
+                        errors.incrementAndGet();
+                    }
+                    if ( nanos != null )
+                    {
+                        nanos[i] = System.nanoTime() - start;
+                    }
+                }
+            });
+            workers[w].start();
+        }
+        for ( Thread worker : workers )
+        {
+            worker.join();
+        }
+        return errors.get();
+    }
+
+    /**
+     * Builds one random request.
+     *      @param random
+     *      @return
+     */
+    private HttpRequest request(Random random)
+    {
+        if ( endpoint.equals("batch") )
+        {
+            StringBuilder body = new StringBuilder(16 * batch);
+            for ( int i = 0; i < batch; i++ )
+            {
+                body.append(random.nextInt(n) + 1).append(' ').append(random.nextInt(n) + 1).append('\n');
+            }
+            return HttpRequest.newBuilder(URI.create(url + "/distance"))
+                              .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+        }
+        String query = endpoint.equals("sssp") ? "source=" + (random.nextInt(n) + 1)
+                     : "source=" + (random.nextInt(n) + 1) + "&target=" + (random.nextInt(n) + 1);
+        return HttpRequest.newBuilder(URI.create(url + "/" + endpoint + "?" + query)).build();
+    }
+
+    /**
+     * Returns the value below which a fraction of the sorted values fall.
+     *      @param sorted
+     *      @param fraction
+     *      @return
+     */
+    private static long percentile(long[] sorted, double fraction)
+    {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * fraction) - 1)];
+    }
+}
@@ -0,0 +1,592 @@
+/**
+ * QueryServer: A small HTTP server that loads a graph once and answers shortest
+ * path queries over it, using the JDK's built-in com.sun.net.httpserver.
+ *
+ *      Indexer answers one starting vertex per run and prompts for it. This
+ * server keeps one QueryEngine (with predecessors, for /path) and serves any
+ * number of queries from a pool of worker threads. Every query borrows its own
+ * SearchState from the engine and returns it afterwards, so concurrent queries
+ * never share dist or visited arrays, and the graph itself is read-only.
+ *
+ * Usage:
+ *      java QueryServer --graph file [--port 8080] [--threads 2 x cores] [--parallel]
+ *      java QueryLoadGenerator --url http://localhost:8080 ...
+ *
+ *      --parallel parses a text graph on every core (ParallelGraphReader).
+ *
+ * Endpoints (vertices are 1-based, as in the graph file):
+ *      GET  /info                               {"vertices":n,"edges":m}
+ *      GET  /distance?source=1&target=7         {"source":1,"target":7,"distance":42}
+ *      POST /distance                           a batch: one "source target" line per
+ *                                               query in the body, answered with one
+ *                                               "source<TAB>target<TAB>distance" line each
+ *      GET  /path?source=1&target=7             {"source":1,"target":7,"distance":42,"path":[1,4,7]}
+ *      GET  /sssp?source=1[&format=tsv|binary|varint][&reachable=true][&vertices=2,7]
+ *                                               all distances from source, written by
+ *                                               ResultWriter (see there for the formats)
+ *      GET  /metrics[?format=json]              the MetricsRegistry of every search so far,
+ *                                               as Prometheus text (or JSON)
+ *
+ *      An unreachable target has distance null in JSON and "inf" in TSV. Responses
+ * are gzipped when the client accepts it. A bad request gets status 400 with the
+ * reason as plain text.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class QueryServer
+{
+    private final CSRGraph graph;
+    private final QueryEngine engine;
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    // One reusable path per worker thread
+    private final ThreadLocal<PathBuffer> paths = ThreadLocal.withInitial(PathBuffer::new);
+
+    /**
+     * Creates a server for a loaded graph; start() opens it.
+     *      @param graph
+     *      @param port - 0 picks a free port
+     *      @param threads - number of worker threads
+     *      @throws IOException
+     */
+    public QueryServer(CSRGraph graph, int port, int threads) throws IOException
+    {
+        // Small responses otherwise wait ~40 ms for Nagle's algorithm and delayed ACKs;
+        // the JDK server reads this once, when the first server is created
+        if ( System.getProperty("sun.net.httpserver.nodelay") == null )
+        {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.graph = graph;
+        this.engine = new QueryEngine(graph, true);
+        engine.setMetricsRegistry(metrics);
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        this.executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/info", exchange -> handle(exchange, this::info));
+        server.createContext("/distance", exchange -> handle(exchange, this::distance));
+        server.createContext("/path", exchange -> handle(exchange, this::path));
+        server.createContext("/sssp", exchange -> handle(exchange, this::sssp));
+        server.createContext("/metrics", exchange -> handle(exchange, this::metrics));
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        String graphFile = null;
+        int port = 8080;
+        int threads = 2 * Runtime.getRuntime().availableProcessors();
+        boolean parallel = false;
+
+        for ( int i = 0; i < args.length; i++ )
+        {
+            if ( args[i].equals("--parallel") )
+            {
+                parallel = true;
+                continue;
+            }
+            if ( i + 1 == args.length )
+            {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            String value = args[++i];
+            switch ( args[i - 1] )
+            {
+                case "--graph":     graphFile = value; break;
+                case "--port":      port = Integer.parseInt(value); break;
+                case "--threads":   threads = Integer.parseInt(value); break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i - 1]);
+            }
+        }
+        if ( graphFile == null )
+        {
+            System.err.println("Usage: java QueryServer --graph file [--port 8080] [--threads n] [--parallel]");
+            System.exit(2);
+        }
+
+        long start = System.nanoTime();
+        CSRGraph graph = CSRGraph.load(graphFile, parallel);
+        if ( graph == null )
+        {
+            System.exit(1);
+        }
+        QueryServer server = new QueryServer(graph, port, threads);
+        server.getMetrics().recordLoad(System.nanoTime() - start);
+        server.start();
+        System.out.println("Serving " + graphFile + " (" + graph.getNumVertices() + " vertices) on port "
+                           + server.getPort() + " with " + threads + " threads");
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start()
+    {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, waits up to delay seconds for open ones, and
+     * shuts the worker threads down.
+     *      @param delay
+     */
+    public void stop(int delay)
+    {
+        server.stop(delay);
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the port the server listens on
+     * @return
+     */
+    public int getPort()
+    {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * GET /info
+     *      @param exchange
+     *      @param params
+     *      @throws IOException
+     */
+    private void info(HttpExchange exchange, Map<String, String> params) throws IOException
+    {
+        requireMethod(exchange, "GET");
+        sendJson(exchange, "{\"vertices\":" + graph.getNumVertices() + ",\"edges\":" + graph.getNumEdges() + "}");
+    }
+
+    /**
+     * GET /distance for one pair, POST /distance for a batch.
+     *      @param exchange
+     *      @param params
+     *      @throws IOException
+     */
+    private void distance(HttpExchange exchange, Map<String, String> params) throws IOException
+    {
+        if ( exchange.getRequestMethod().equals("POST") )
+        {
+            batch(exchange);
+            return;
+        }
+        requireMethod(exchange, "GET");
+        int source = vertex(params, "source");
+        int target = vertex(params, "target");
+        int d = engine.distance(source, target);
+        sendJson(exchange, "{\"source\":" + (source + 1) + ",\"target\":" + (target + 1)
+                           + ",\"distance\":" + json(d) + "}");
+    }
+
+    /**
+     * Answers a batch of "source target" lines. Queries are grouped by source: a
+     * source asked once gets a search that stops at its target, a source asked
+     * several times gets one full search that answers all its targets.
+     *      @param exchange
+     *      @throws IOException
+     */
+    private void batch(HttpExchange exchange) throws IOException
+    {
+        int[] sources = new int[64];
+        int[] targets = new int[64];
+        int count = 0;
+        BufferedReader reader = new BufferedReader(new InputStreamReader(exchange.getRequestBody(), StandardCharsets.US_ASCII));
+        String line;
+        while ( (line = reader.readLine()) != null )
+        {
+            String text = line.trim();
+            if ( text.isEmpty() )
+            {
+                continue;
+            }
+            String[] parts = text.split("\\s+");
+            if ( parts.length != 2 )
+            {
+                throw new IllegalArgumentException("Expected \"source target\" but got \"" + text + "\"");
+            }
+            if ( count == sources.length )
+            {
+                sources = Arrays.copyOf(sources, 2 * count);
+                targets = Arrays.copyOf(targets, 2 * count);
+            }
+            sources[count] = vertex(parts[0]);
+            targets[count] = vertex(parts[1]);
+            count++;
+        }
+
+        // Sort query numbers by source, so each source is searched once
+        long[] order = new long[count];
+        for ( int i = 0; i < count; i++ )
+        {
+            order[i] = (long) sources[i] << 32 | i;
+        }
+        Arrays.sort(order);
+        long[] dist = new long[count];
+        SearchState state = engine.borrow();
+        try
+        {
+            for ( int k = 0; k < count; )
+            {
+                int source = (int) (order[k] >>> 32);
+                int end = k + 1;
+                while ( end < count && (int) (order[end] >>> 32) == source )
+                {
+                    end++;
+                }
+                if ( end - k == 1 )
+                {
+                    int i = (int) order[k];
+                    dist[i] = widen(engine.search(state, source, targets[i]));
+                }
+                else
+                {
+                    engine.search(state, source);
+                    for ( int j = k; j < end; j++ )
+                    {
+                        int i = (int) order[j];
+                        dist[i] = widen(state.getDistance(targets[i]));
+                    }
+                }
+                k = end;
+            }
+        }
+        finally
+        {
+            engine.release(state);
+        }
+
+        boolean gzip = acceptsGzip(exchange);
+        startStream(exchange, "text/tab-separated-values", gzip);
+        try ( OutputStream body = exchange.getResponseBody();
+              ResultWriter out = ResultWriter.toStream(body, ResultWriter.Format.TSV, gzip) )
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                out.writePair(sources[i], targets[i], dist[i]);
+            }
+        }
+    }
+
+    /**
+     * GET /path
+     *      @param exchange
+     *      @param params
+     *      @throws IOException
+     */
+    private void path(HttpExchange exchange, Map<String, String> params) throws IOException
+    {
+        requireMethod(exchange, "GET");
+        int source = vertex(params, "source");
+        int target = vertex(params, "target");
+        PathBuffer path = paths.get();
+        int d = engine.path(source, target, path);
+
+        StringBuilder json = new StringBuilder(32 + 8 * path.size());
+        json.append("{\"source\":").append(source + 1).append(",\"target\":").append(target + 1)
+            .append(",\"distance\":").append(json(d)).append(",\"path\":[");
+        for ( int i = 0; i < path.size(); i++ )
+        {
+            if ( i > 0 )
+            {
+                json.append(',');
+            }
+            json.append(path.get(i) + 1);
+        }
+        json.append("]}");
+        sendJson(exchange, json.toString());
+    }
+
+    /**
+     * GET /sssp
+     *      @param exchange
+     *      @param params
+     *      @throws IOException
+     */
+    private void sssp(HttpExchange exchange, Map<String, String> params) throws IOException
+    {
+        requireMethod(exchange, "GET");
+        int source = vertex(params, "source");
+        String format = params.getOrDefault("format", "tsv");
+        ResultWriter.Format kind;
+        switch ( format )
+        {
+            case "tsv":     kind = ResultWriter.Format.TSV; break;
+            case "binary":  kind = ResultWriter.Format.BINARY; break;
+            case "varint":  kind = ResultWriter.Format.VARINT; break;
+            default:
+                throw new IllegalArgumentException("Unknown format " + format);
+        }
+        int[] subset = null;
+        if ( params.containsKey("vertices") )
+        {
+            String[] parts = params.get("vertices").split(",");
+            subset = new int[parts.length];
+            for ( int i = 0; i < parts.length; i++ )
+            {
+                subset[i] = vertex(parts[i]);
+            }
+        }
+
+        int[] dist = engine.distances(source);
+        boolean gzip = acceptsGzip(exchange);
+        startStream(exchange, kind == ResultWriter.Format.TSV ? "text/tab-separated-values" : "application/octet-stream", gzip);
+        try ( OutputStream body = exchange.getResponseBody();
+              ResultWriter out = ResultWriter.toStream(body, kind, gzip) )
+        {
+            out.setReachableOnly(Boolean.parseBoolean(params.get("reachable")));
+            out.setVertices(subset);
+            out.writeRow(source, dist);
+        }
+    }
+
+    /**
+     * GET /metrics
+     *      @param exchange
+     *      @param params
+     *      @throws IOException
+     */
+    private void metrics(HttpExchange exchange, Map<String, String> params) throws IOException
+    {
+        requireMethod(exchange, "GET");
+        if ( "json".equals(params.get("format")) )
+        {
+            sendJson(exchange, metrics.toJson());
+        }
+        else
+        {
+            send(exchange, 200, "text/plain; version=0.0.4", metrics.toPrometheus());
+        }
+    }
+
+    /**
+     * Returns the metrics of every search this server has run
+     * @return
+     */
+    public MetricsRegistry getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * A handler that gets the decoded query parameters.
+     */
+    private interface Endpoint
+    {
+        void serve(HttpExchange exchange, Map<String, String> params) throws IOException;
+    }
+
+    /**
+     * Runs an endpoint, turning a bad request into status 400 and any other
+     * failure into status 500.
+     *      @param exchange
+     *      @param endpoint
+     *      @throws IOException
+     */
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException
+    {
+        try
+        {
+            endpoint.serve(exchange, parseQuery(exchange.getRequestURI().getRawQuery()));
+        }
+        catch ( IllegalArgumentException e )
+        {
+            sendError(exchange, 400, e.getMessage());
+        }
+        catch ( UnsupportedOperationException e )
+        {
+            sendError(exchange, 405, e.getMessage());
+        }
+        catch ( RuntimeException e )
+        {
+            sendError(exchange, 500, e.toString());
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Decodes "a=1&b=2" into a map; a missing query gives an empty map.
+     *      @param query - raw (still URL-encoded)
+     *      @return
+     */
+    private static Map<String, String> parseQuery(String query)
+    {
+        Map<String, String> params = new HashMap<String, String>();
+        if ( query == null )
+        {
+            return params;
+        }
+        for ( String pair : query.split("&") )
+        {
+            int equals = pair.indexOf('=');
+            String name = equals >= 0 ? pair.substring(0, equals) : pair;
+            String value = equals >= 0 ? pair.substring(equals + 1) : "";
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    /**
+     * Reads a required 1-based vertex parameter and returns it 0-based.
+     *      @param params
+     *      @param name
+     *      @return
+     */
+    private int vertex(Map<String, String> params, String name)
+    {
+        String value = params.get(name);
+        if ( value == null )
+        {
+            throw new IllegalArgumentException("Missing parameter " + name);
+        }
+        return vertex(value);
+    }
+
+    /**
+     * Parses and checks a 1-based vertex and returns it 0-based.
+     *      @param text
+     *      @return
+     */
+    private int vertex(String text)
+    {
+        int vertex;
+        try
+        {
+            vertex = Integer.parseInt(text.trim());
+        }
+        catch ( NumberFormatException e )
+        {
+            throw new IllegalArgumentException("Not a vertex: " + text);
+        }
+        if ( vertex < 1 || vertex > graph.getNumVertices() )
+        {
+            throw new IllegalArgumentException("Vertex " + vertex + " is not between 1 and " + graph.getNumVertices());
+        }
+        return vertex - 1;
+    }
+
+    /**
+     * Throws UnsupportedOperationException unless the request uses method.
+     *      @param exchange
+     *      @param method
+     */
+    private static void requireMethod(HttpExchange exchange, String method)
+    {
+        if ( !exchange.getRequestMethod().equals(method) )
+        {
+            throw new UnsupportedOperationException(exchange.getRequestMethod() + " is not allowed here");
+        }
+    }
+
+    /**
+     * Returns a distance as JSON, null if unreachable.
+     *      @param d
+     *      @return
+     */
+    private static String json(int d)
+    {
+        return d == SearchState.INFINITY ? "null" : Integer.toString(d);
+    }
+
+    /**
+     * Turns int infinity into the long infinity ResultWriter expects.
+     *      @param d
+     *      @return
+     */
+    private static long widen(int d)
+    {
+        return d == SearchState.INFINITY ? Long.MAX_VALUE : d;
+    }
+
+    /**
+     * Returns true if the client accepts a gzipped response.
+     *      @param exchange
+     *      @return
+     */
+    private static boolean acceptsGzip(HttpExchange exchange)
+    {
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        return accept != null && accept.contains("gzip");
+    }
+
+    /**
+     * Sends status 200 for a body of unknown length (sent chunked).
+     *      @param exchange
+     *      @param contentType
+     *      @param gzip
+     *      @throws IOException
+     */
+    private static void startStream(HttpExchange exchange, String contentType, boolean gzip) throws IOException
+    {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        if ( gzip )
+        {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, 0);
+    }
+
+    /**
+     * Sends a small JSON response.
+     *      @param exchange
+     *      @param json
+     *      @throws IOException
+     */
+    private static void sendJson(HttpExchange exchange, String json) throws IOException
+    {
+        send(exchange, 200, "application/json", json);
+    }
+
+    /**
+     * Sends an error status with the reason as plain text.
+     *      @param exchange
+     *      @param status
+     *      @param message
+     *      @throws IOException
+     */
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException
+    {
+        send(exchange, status, "text/plain; charset=utf-8", message + "\n");
+    }
+
+    /**
+     * Sends a complete response with a known length.
+     *      @param exchange
+     *      @param status
+     *      @param contentType
+     *      @param text
+     *      @throws IOException
+     */
+    private static void send(HttpExchange exchange, int status, String contentType, String text) throws IOException
+    {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try ( OutputStream body = exchange.getResponseBody() )
+        {
+            body.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/**
+ * RadixHeap: A monotone radix heap over vertices keyed by non-negative int
+ * distances.
+ *
+ *      Bucket 0 holds keys equal to the last polled minimum; bucket i (1..31)
+ * holds keys whose highest bit differing from that minimum is bit i-1. When
+ * bucket 0 runs dry, the first non-empty bucket is scanned for its minimum, which
+ * becomes the new reference, and its vertices are spread over lower buckets.
+ * Each vertex can only move down, so a vertex costs O(log C) moves in total
+ * instead of the O(log n) comparisons per operation of a binary heap.
+ *
+ *      Buckets are doubly linked lists threaded through int arrays indexed by
+ * vertex, so decrease-key moves the vertex instead of leaving a stale entry and
+ * memory stays O(n). Keys must be monotone, which Dijkstra guarantees.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.util.Arrays;
+
+public class RadixHeap implements VertexQueue
+{
+    private static final int NUM_BUCKETS = 33;
+
+    private final int[] head = new int[NUM_BUCKETS];   // first vertex per bucket, -1 if empty
+    private final int[] next;       // next[v] / prev[v] link vertices in the same bucket
+    private final int[] prev;
+    private final int[] keys;       // keys[v] is the current key of v
+    private final byte[] bucket;    // bucket[v] is the bucket of v, -1 if not queued
+    private int size;
+    private int last;               // the last polled minimum
+    private boolean fresh = true;   // nothing inserted since construction or clear()
+
+    /**
+     * Creates an empty heap for vertices 0..capacity-1.
+     *      @param capacity - number of vertices
+     */
+    public RadixHeap(int capacity)
+    {
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.keys = new int[capacity];
+        this.bucket = new byte[capacity];
+        Arrays.fill(head, -1);
+        Arrays.fill(bucket, (byte) -1);
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public void insertOrDecrease(int v, int key)
+    {
+        if ( bucket[v] >= 0 )
+        {
+            if ( key >= keys[v] )
+            {
+                return;
+            }
+            unlink(v);
+        }
+        else
+        {
+            // The first vertex of a search sets the reference key. Later the
+            // heap may run empty, but last must stay at the last polled key.
+            if ( fresh )
+            {
+                last = key;
+                fresh = false;
+            }
+            size++;
+        }
+
+        keys[v] = key;
+        link(v, bucketOf(key));
+    }
+
+    public int pollMin()
+    {
+        if ( head[0] == -1 )
+        {
+            // Find the first non-empty bucket and its smallest key
+            int b = 1;
+            while ( head[b] == -1 )
+            {
+                b++;
+            }
+            int min = Integer.MAX_VALUE;
+            for ( int v = head[b]; v != -1; v = next[v] )
+            {
+                if ( keys[v] < min )
+                {
+                    min = keys[v];
+                }
+            }
+
+            // Redistribute that bucket relative to the new minimum
+            last = min;
+            int v = head[b];
+            head[b] = -1;
+            while ( v != -1 )
+            {
+                int following = next[v];
+                link(v, bucketOf(keys[v]));
+                v = following;
+            }
+        }
+
+        int v = head[0];
+        unlink(v);
+        bucket[v] = -1;
+        size--;
+        return v;
+    }
+
+    public void clear()
+    {
+        for ( int b = 0; b < NUM_BUCKETS; b++ )
+        {
+            for ( int v = head[b]; v != -1; v = next[v] )
+            {
+                bucket[v] = -1;
+            }
+            head[b] = -1;
+        }
+        size = 0;
+        last = 0;
+        fresh = true;
+    }
+
+    /**
+     * Returns the bucket for a key relative to the last polled minimum.
+     *      @param key
+     *      @return
+     */
+    private int bucketOf(int key)
+    {
+        return key == last ? 0 : 32 - Integer.numberOfLeadingZeros(key ^ last);
+    }
+
+    /**
+     * Puts v at the front of bucket b.
+     *      @param v
+     *      @param b
+     */
+    private void link(int v, int b)
+    {
+        int first = head[b];
+        next[v] = first;
+        prev[v] = -1;
+        if ( first != -1 )
+        {
+            prev[first] = v;
+        }
+        head[b] = v;
+        bucket[v] = (byte) b;
+    }
+
+    /**
+     * Removes v from its bucket.
+     *      @param v
+     */
+    private void unlink(int v)
+    {
+        int p = prev[v];
+        int n = next[v];
+        if ( p != -1 )
+        {
+            next[p] = n;
+        }
+        else
+        {
+            head[bucket[v]] = n;
+        }
+        if ( n != -1 )
+        {
+            prev[n] = p;
+        }
+    }
+}
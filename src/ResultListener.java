@@ -0,0 +1,21 @@
+/**
+ * ResultListener: Receives the result of each search in a QueryEngine batch as
+ * soon as it finishes.
+ *
+ *      The SearchState is only valid during the call; it is reused for the next
+ * source afterwards, so a listener must copy what it wants to keep.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+public interface ResultListener
+{
+    /**
+     * Called once per source, in batch order.
+     *      @param result - the finished search; read it with getNumReached(),
+     *                      getReached(i) and getDistance(v)
+     */
+    void accept(SearchState result);
+}
@@ -0,0 +1,594 @@
+/**
+ * ResultWriter: Writes shortest path distances in bulk, as text or binary,
+ * through one large buffer and an NIO channel.
+ *
+ *      Printing one line per vertex with string concatenation and
+ * System.out.println allocates several Strings per vertex and goes through the
+ * PrintStream lock every time; on a million-vertex graph that takes longer than
+ * the search. This writer formats numbers straight into a byte buffer (no
+ * Strings) and hands the buffer to the channel only when it is full. A file is
+ * written through a FileChannel from a direct buffer; with compression the bytes
+ * go through java.util.zip's GZIPOutputStream, so the output can be read with
+ * gunzip or GZIPInputStream.
+ *
+ *      Rows can be limited to the vertices the search reached (setReachableOnly)
+ * and/or to a chosen set of vertices (setVertices).
+ *
+ * Formats:
+ *      TEXT     "dist<v>: <distance>" per vertex, v 0-based, as Indexer always printed
+ *               (an unreachable vertex shows the raw infinity value)
+ *      TSV      "source<TAB>vertex<TAB>distance" per vertex, 1-based, "inf" if unreachable
+ *      BINARY   little-endian; per row: source (int), count (int), then count distances
+ *               (long, -1 if unreachable) when every vertex is written, or count
+ *               (vertex int, distance long) entries when filtered. Vertices 0-based.
+ *      VARINT   as BINARY, but every number is an unsigned LEB128 varint, a vertex is
+ *               the gap to the previous one written in the row (minus one), and a
+ *               distance is stored plus one (0 if unreachable)
+ *
+ * Usage:
+ *      try ( ResultWriter out = ResultWriter.open("dist.tsv.gz", ResultWriter.Format.TSV, true) )
+ *      {
+ *          out.setReachableOnly(true);
+ *          out.writeRow(source, dist);
+ *      }
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+public class ResultWriter implements Closeable
+{
+    /** Layout of the written distances, see above. */
+    public enum Format { TEXT, TSV, BINARY, VARINT }
+
+    /** Size of the output buffer in bytes. */
+    public static final int BUFFER_SIZE = 1 << 20;
+
+    private static final int INT_INFINITY = Integer.MAX_VALUE;
+    private static final long LONG_INFINITY = Long.MAX_VALUE;
+
+    // "00", "01", ..., "99", so two digits are produced per division
+    private static final byte[] DIGIT_PAIRS = new byte[200];
+    static
+    {
+        for ( int i = 0; i < 100; i++ )
+        {
+            DIGIT_PAIRS[2 * i] = (byte) ('0' + i / 10);
+            DIGIT_PAIRS[2 * i + 1] = (byte) ('0' + i % 10);
+        }
+    }
+
+    private final Format format;
+    private final WritableByteChannel channel;
+    private final FileChannel file;         // null when writing to a stream
+    private final OutputStream stream;      // null when writing to a file
+    private final GZIPOutputStream gzip;    // null without compression
+    private final ByteBuffer buffer;
+    private final byte[] digits = new byte[20];
+
+    private boolean reachableOnly;
+    private int[] vertices;                 // sorted subset to write, null for every vertex
+    private int last;                       // previous vertex written in the row (VARINT gaps)
+
+    /**
+     * Creates a writer over either an open file channel or a stream.
+     *      @param file
+     *      @param stream
+     *      @param format
+     *      @param compress - gzip the output
+     *      @throws IOException
+     */
+    private ResultWriter(FileChannel file, OutputStream stream, Format format, boolean compress) throws IOException
+    {
+        this.format = format;
+        this.file = file;
+        this.stream = stream;
+        if ( compress )
+        {
+            this.gzip = new GZIPOutputStream(file != null ? Channels.newOutputStream(file) : stream, 1 << 16);
+            this.channel = Channels.newChannel(gzip);
+            this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        }
+        else
+        {
+            this.gzip = null;
+            this.channel = file != null ? file : Channels.newChannel(stream);
+            this.buffer = file != null ? ByteBuffer.allocateDirect(BUFFER_SIZE) : ByteBuffer.allocate(BUFFER_SIZE);
+        }
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Creates (or truncates) a file and writes to it.
+     *      @param filename
+     *      @param format
+     *      @param compress - gzip the output
+     *      @return
+     *      @throws IOException
+     */
+    public static ResultWriter open(String filename, Format format, boolean compress) throws IOException
+    {
+        FileChannel file = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                                            StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try
+        {
+            return new ResultWriter(file, null, format, compress);
+        }
+        catch ( IOException e )
+        {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes to System.out. Closing the writer flushes System.out but leaves it open.
+     *      @param format
+     *      @param compress - gzip the output
+     *      @return
+     *      @throws IOException
+     */
+    public static ResultWriter toStdout(Format format, boolean compress) throws IOException
+    {
+        return toStream(System.out, format, compress);
+    }
+
+    /**
+     * Writes to a stream, e.g. an HTTP response body. Closing the writer flushes
+     * the stream but leaves it open.
+     *      @param stream
+     *      @param format
+     *      @param compress - gzip the output
+     *      @return
+     *      @throws IOException
+     */
+    public static ResultWriter toStream(OutputStream stream, Format format, boolean compress) throws IOException
+    {
+        return new ResultWriter(null, stream, format, compress);
+    }
+
+    /**
+     * Returns the format of this writer
+     * @return
+     */
+    public Format getFormat()
+    {
+        return format;
+    }
+
+    /**
+     * Writes only the vertices a search reached (distance not infinity).
+     *      @param reachableOnly
+     */
+    public void setReachableOnly(boolean reachableOnly)
+    {
+        this.reachableOnly = reachableOnly;
+    }
+
+    /**
+     * Writes only the given vertices, in increasing order, or every vertex if null.
+     *      @param vertices - 0-based, copied
+     */
+    public void setVertices(int[] vertices)
+    {
+        if ( vertices == null )
+        {
+            this.vertices = null;
+            return;
+        }
+        int[] sorted = vertices.clone();
+        Arrays.sort(sorted);
+        int count = 0;
+        for ( int i = 0; i < sorted.length; i++ )
+        {
+            if ( i == 0 || sorted[i] != sorted[i - 1] )
+            {
+                sorted[count++] = sorted[i];
+            }
+        }
+        this.vertices = Arrays.copyOf(sorted, count);
+    }
+
+    /**
+     * Returns true if rows may leave vertices out, which changes the binary layouts.
+     * @return
+     */
+    public boolean isFiltered()
+    {
+        return reachableOnly || vertices != null;
+    }
+
+    /**
+     * Writes the distances of one search, INT_INFINITY (Integer.MAX_VALUE) if unreachable.
+     *      @param source - 0-based starting vertex
+     *      @param dist
+     *      @throws IOException
+     */
+    public void writeRow(int source, int[] dist) throws IOException
+    {
+        int count = dist.length;
+        if ( isFiltered() )
+        {
+            count = 0;
+            for ( int i = 0, end = selectedLength(dist.length); i < end; i++ )
+            {
+                int v = selected(i);
+                if ( !reachableOnly || dist[v] != INT_INFINITY )
+                {
+                    count++;
+                }
+            }
+        }
+
+        rowHeader(source, count);
+        for ( int i = 0, end = selectedLength(dist.length); i < end; i++ )
+        {
+            int v = selected(i);
+            int d = dist[v];
+            if ( !reachableOnly || d != INT_INFINITY )
+            {
+                entry(source, v, d, d == INT_INFINITY);
+            }
+        }
+    }
+
+    /**
+     * Writes the distances of one search, Long.MAX_VALUE if unreachable.
+     *      @param source - 0-based starting vertex
+     *      @param dist
+     *      @throws IOException
+     */
+    public void writeRow(int source, long[] dist) throws IOException
+    {
+        int count = dist.length;
+        if ( isFiltered() )
+        {
+            count = 0;
+            for ( int i = 0, end = selectedLength(dist.length); i < end; i++ )
+            {
+                int v = selected(i);
+                if ( !reachableOnly || dist[v] != LONG_INFINITY )
+                {
+                    count++;
+                }
+            }
+        }
+
+        rowHeader(source, count);
+        for ( int i = 0, end = selectedLength(dist.length); i < end; i++ )
+        {
+            int v = selected(i);
+            long d = dist[v];
+            if ( !reachableOnly || d != LONG_INFINITY )
+            {
+                entry(source, v, d, d == LONG_INFINITY);
+            }
+        }
+    }
+
+    /**
+     * Writes the distance of one (source, target) pair: a TEXT or TSV line, in
+     * BINARY source, target (ints) and distance (long, -1 if unreachable), in VARINT
+     * source, target and distance plus one.
+     *      @param source - 0-based
+     *      @param target - 0-based
+     *      @param d - Long.MAX_VALUE if unreachable
+     *      @throws IOException
+     */
+    public void writePair(int source, int target, long d) throws IOException
+    {
+        boolean unreachable = d == LONG_INFINITY;
+        switch ( format )
+        {
+            case BINARY:
+                room(16);
+                buffer.putInt(source).putInt(target).putLong(unreachable ? -1 : d);
+                break;
+            case VARINT:
+                writeVarint(source);
+                writeVarint(target);
+                writeVarint(unreachable ? 0 : d + 1);
+                break;
+            default:
+                entry(source, target, d, unreachable);
+        }
+    }
+
+    /**
+     * Number of positions to visit for a row of n vertices.
+     *      @param n
+     *      @return
+     */
+    private int selectedLength(int n)
+    {
+        return vertices == null ? n : vertices.length;
+    }
+
+    /**
+     * The vertex at position i of a row.
+     *      @param i
+     *      @return
+     */
+    private int selected(int i)
+    {
+        return vertices == null ? i : vertices[i];
+    }
+
+    /**
+     * Starts a row of count entries.
+     *      @param source
+     *      @param count
+     *      @throws IOException
+     */
+    private void rowHeader(int source, int count) throws IOException
+    {
+        last = -1;
+        if ( format == Format.BINARY )
+        {
+            room(8);
+            buffer.putInt(source).putInt(count);
+        }
+        else if ( format == Format.VARINT )
+        {
+            writeVarint(source);
+            writeVarint(count);
+        }
+    }
+
+    /**
+     * Writes one vertex of a row.
+     *      @param source
+     *      @param v
+     *      @param d
+     *      @param unreachable
+     *      @throws IOException
+     */
+    private void entry(int source, int v, long d, boolean unreachable) throws IOException
+    {
+        switch ( format )
+        {
+            case TEXT:
+                room(48);
+                buffer.put((byte) 'd').put((byte) 'i').put((byte) 's').put((byte) 't');
+                putDecimal(v);
+                buffer.put((byte) ':').put((byte) ' ');
+                putDecimal(d);
+                buffer.put((byte) '\n');
+                break;
+            case TSV:
+                room(48);
+                putDecimal(source + 1L);
+                buffer.put((byte) '\t');
+                putDecimal(v + 1L);
+                buffer.put((byte) '\t');
+                if ( unreachable )
+                {
+                    buffer.put((byte) 'i').put((byte) 'n').put((byte) 'f');
+                }
+                else
+                {
+                    putDecimal(d);
+                }
+                buffer.put((byte) '\n');
+                break;
+            case BINARY:
+                room(12);
+                if ( isFiltered() )
+                {
+                    buffer.putInt(v);
+                }
+                buffer.putLong(unreachable ? -1 : d);
+                break;
+            default:
+                if ( isFiltered() )
+                {
+                    writeVarint(v - last - 1);
+                    last = v;
+                }
+                writeVarint(unreachable ? 0 : d + 1);
+        }
+    }
+
+    /**
+     * Writes ASCII text as is (one byte per char).
+     *      @param text
+     *      @throws IOException
+     */
+    public void writeAscii(String text) throws IOException
+    {
+        for ( int i = 0; i < text.length(); i += BUFFER_SIZE )
+        {
+            int end = Math.min(text.length(), i + BUFFER_SIZE);
+            room(end - i);
+            for ( int j = i; j < end; j++ )
+            {
+                buffer.put((byte) text.charAt(j));
+            }
+        }
+    }
+
+    /**
+     * Writes a number in decimal without creating a String.
+     *      @param value
+     *      @throws IOException
+     */
+    public void writeDecimal(long value) throws IOException
+    {
+        room(20);
+        putDecimal(value);
+    }
+
+    /**
+     * Writes an int, little-endian.
+     *      @param value
+     *      @throws IOException
+     */
+    public void writeInt(int value) throws IOException
+    {
+        room(4);
+        buffer.putInt(value);
+    }
+
+    /**
+     * Writes a long, little-endian.
+     *      @param value
+     *      @throws IOException
+     */
+    public void writeLong(long value) throws IOException
+    {
+        room(8);
+        buffer.putLong(value);
+    }
+
+    /**
+     * Writes a non-negative number as an unsigned LEB128 varint: 7 bits per byte,
+     * low bits first, the high bit set on every byte but the last.
+     *      @param value
+     *      @throws IOException
+     */
+    public void writeVarint(long value) throws IOException
+    {
+        room(10);
+        while ( (value & ~0x7FL) != 0 )
+        {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Puts a number in decimal into the buffer, which must have 20 bytes free.
+     *      @param value
+     */
+    private void putDecimal(long value)
+    {
+        if ( value < 0 )
+        {
+            buffer.put((byte) '-');
+            if ( value == Long.MIN_VALUE )
+            {
+                // Cannot be negated; its magnitude is 2^63
+                buffer.put((byte) '9');
+                value = -(value + 9_000_000_000_000_000_000L);
+            }
+            else
+            {
+                value = -value;
+            }
+        }
+
+        int i = digits.length;
+        while ( value > Integer.MAX_VALUE )
+        {
+            long q = value / 100;
+            int r = (int) (value - q * 100);
+            digits[--i] = DIGIT_PAIRS[2 * r + 1];
+            digits[--i] = DIGIT_PAIRS[2 * r];
+            value = q;
+        }
+
+        // int division is cheaper than long division
+        int small = (int) value;
+        while ( small >= 100 )
+        {
+            int q = small / 100;
+            int r = small - q * 100;
+            digits[--i] = DIGIT_PAIRS[2 * r + 1];
+            digits[--i] = DIGIT_PAIRS[2 * r];
+            small = q;
+        }
+        digits[--i] = DIGIT_PAIRS[2 * small + 1];
+        if ( small >= 10 )
+        {
+            digits[--i] = DIGIT_PAIRS[2 * small];
+        }
+        buffer.put(digits, i, digits.length - i);
+    }
+
+    /**
+     * Makes room for bytes more bytes, writing the buffer out if needed.
+     *      @param bytes - at most BUFFER_SIZE
+     *      @throws IOException
+     */
+    private void room(int bytes) throws IOException
+    {
+        if ( buffer.remaining() < bytes )
+        {
+            drain();
+        }
+    }
+
+    /**
+     * Hands everything buffered to the channel.
+     *      @throws IOException
+     */
+    private void drain() throws IOException
+    {
+        buffer.flip();
+        while ( buffer.hasRemaining() )
+        {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes out whatever is buffered. Compressed output is only complete after close().
+     *      @throws IOException
+     */
+    public void flush() throws IOException
+    {
+        drain();
+        if ( gzip != null )
+        {
+            gzip.flush();
+        }
+        if ( stream != null )
+        {
+            stream.flush();
+        }
+    }
+
+    /**
+     * Writes out whatever is buffered, ends the compressed stream, and closes the
+     * file (a stream stays open).
+     *      @throws IOException
+     */
+    public void close() throws IOException
+    {
+        try
+        {
+            drain();
+            if ( gzip != null )
+            {
+                gzip.finish();
+            }
+            if ( stream != null )
+            {
+                stream.flush();
+            }
+        }
+        finally
+        {
+            if ( file != null )
+            {
+                file.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * SearchMetrics: What one shortest path search did, counted while it ran.
+ *
+ *      Indexer's countVer/countEdge fields only cover one run, are private, and
+ * countEdge counts successful relaxations rather than edges scanned. A
+ * SearchMetrics separates the two and adds the queue's work:
+ *
+ *      settled         vertices taken out of the queue and expanded
+ *      edgesScanned    outgoing edges looked at from settled vertices
+ *      relaxations     edges that gave a shorter distance
+ *      pushes          queue inserts and decrease-keys
+ *      pops            vertices taken out of the queue, stale ones included
+ *      stalePops       pops of an outdated entry; only the PriorityQueue versions,
+ *                      which never remove old entries, have them
+ *      peakQueueSize   the most entries the queue held at once
+ *
+ * and the time of each phase in nanoseconds (load, init, search, output) where
+ * the caller measured it. MetricsRegistry adds runs up across queries.
+ *
+ *      Counting is on unless the JVM is started with -Ddijkstra.metrics=false.
+ * ENABLED is a static final constant, so with it off the JIT removes every
+ * "if ( SearchMetrics.ENABLED )" block from the search loops and they cost
+ * nothing.
+ *
+ * Usage:
+ *      indexer.dijkstra4();
+ *      SearchMetrics m = indexer.getMetrics();
+ *      System.out.println(m.getEdgesScanned() + " edges scanned");
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+public class SearchMetrics
+{
+    /** False when the JVM runs with -Ddijkstra.metrics=false. */
+    public static final boolean ENABLED = !"false".equals(System.getProperty("dijkstra.metrics"));
+
+    long settled;
+    long edgesScanned;
+    long relaxations;
+    long pushes;
+    long pops;
+    long stalePops;
+    long peakQueueSize;
+
+    long loadNanos;
+    long initNanos;
+    long searchNanos;
+    long outputNanos;
+
+    /**
+     * Sets every counter and timing back to 0.
+     */
+    public void reset()
+    {
+        settled = 0;
+        edgesScanned = 0;
+        relaxations = 0;
+        pushes = 0;
+        pops = 0;
+        stalePops = 0;
+        peakQueueSize = 0;
+        loadNanos = 0;
+        initNanos = 0;
+        searchNanos = 0;
+        outputNanos = 0;
+    }
+
+    /**
+     * Raises the peak queue size if the queue holds more entries now.
+     *      @param size - current number of entries
+     */
+    void queueSize(long size)
+    {
+        if ( size > peakQueueSize )
+        {
+            peakQueueSize = size;
+        }
+    }
+
+    /**
+     * Returns the number of vertices settled
+     * @return
+     */
+    public long getSettled()
+    {
+        return settled;
+    }
+
+    /**
+     * Returns the number of edges scanned from settled vertices
+     * @return
+     */
+    public long getEdgesScanned()
+    {
+        return edgesScanned;
+    }
+
+    /**
+     * Returns the number of edges that gave a shorter distance
+     * @return
+     */
+    public long getRelaxations()
+    {
+        return relaxations;
+    }
+
+    /**
+     * Returns the number of queue inserts and decrease-keys
+     * @return
+     */
+    public long getPushes()
+    {
+        return pushes;
+    }
+
+    /**
+     * Returns the number of vertices taken out of the queue
+     * @return
+     */
+    public long getPops()
+    {
+        return pops;
+    }
+
+    /**
+     * Returns the number of outdated queue entries popped
+     * @return
+     */
+    public long getStalePops()
+    {
+        return stalePops;
+    }
+
+    /**
+     * Returns the most entries the queue held at once
+     * @return
+     */
+    public long getPeakQueueSize()
+    {
+        return peakQueueSize;
+    }
+
+    /**
+     * Returns the time spent loading the graph, 0 if not measured
+     * @return
+     */
+    public long getLoadNanos()
+    {
+        return loadNanos;
+    }
+
+    /**
+     * Sets the time spent loading the graph.
+     *      @param nanos
+     */
+    public void setLoadNanos(long nanos)
+    {
+        loadNanos = nanos;
+    }
+
+    /**
+     * Returns the time spent allocating and resetting the search arrays
+     * @return
+     */
+    public long getInitNanos()
+    {
+        return initNanos;
+    }
+
+    /**
+     * Sets the time spent allocating and resetting the search arrays.
+     *      @param nanos
+     */
+    public void setInitNanos(long nanos)
+    {
+        initNanos = nanos;
+    }
+
+    /**
+     * Returns the time spent in the search itself
+     * @return
+     */
+    public long getSearchNanos()
+    {
+        return searchNanos;
+    }
+
+    /**
+     * Sets the time spent in the search itself.
+     *      @param nanos
+     */
+    public void setSearchNanos(long nanos)
+    {
+        searchNanos = nanos;
+    }
+
+    /**
+     * Returns the time spent writing the results, 0 if not measured
+     * @return
+     */
+    public long getOutputNanos()
+    {
+        return outputNanos;
+    }
+
+    /**
+     * Sets the time spent writing the results.
+     *      @param nanos
+     */
+    public void setOutputNanos(long nanos)
+    {
+        outputNanos = nanos;
+    }
+
+    /**
+     * Returns the counters and the search time on one line
+     * @return string
+     */
+    public String toString()
+    {
+        return "settled=" + settled + " edgesScanned=" + edgesScanned + " relaxations=" + relaxations
+               + " pushes=" + pushes + " pops=" + pops + " stalePops=" + stalePops
+               + " peakQueueSize=" + peakQueueSize + " searchNanos=" + searchNanos;
+    }
+}
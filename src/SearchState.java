@@ -0,0 +1,340 @@
+/**
+ * SearchState: The scratch memory of one single-source search (distances and
+ * the vertex queue), reusable across searches without clearing it.
+ *
+ *      Instead of refilling an n-sized dist array with infinity before every
+ * search, each entry carries the number (generation) of the search that wrote
+ * it. Starting a new search just increments the generation, which makes every
+ * old entry read as infinity, so a reset is O(1). The vertices a search reaches
+ * are also listed in order, so results can be read in O(touched) instead of O(n).
+ *
+ *      A state created with trackPredecessors also keeps pred[v], the vertex
+ * before v on its shortest path, under the same stamps, so routes can be read
+ * with getPath(). Without it no pred array is allocated or written.
+ *
+ *      A state created offHeap keeps the same arrays in DirectIntArrays outside
+ * the heap, so scratch memory for huge graphs neither needs a big heap nor
+ * adds to GC work; each access is a little slower. The vertex queue stays on
+ * the heap.
+ *
+ * Usage:
+ *      Borrow one from QueryEngine (which pools them); read a finished search with
+ *      getSource(), getNumReached(), getReached(i) and getDistance(v), and with
+ *      getPredecessor(v) / getPath(target, path) when tracking predecessors,
+ *      and what the search did with getMetrics().
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.util.Arrays;
+
+public class SearchState
+{
+    /** Distance of a vertex the search has not reached. */
+    public static final int INFINITY = Integer.MAX_VALUE;
+
+    private final int n;
+    private final int[] dist;
+    private final int[] pred;       // null unless tracking predecessors
+    private final int[] stamp;      // stamp[v] == generation when dist[v] is valid
+    private final int[] reached;    // vertices reached by the current search, in order
+
+    // The same four arrays outside the heap; either these or the ones above are null
+    private final DirectIntArray directDist;
+    private final DirectIntArray directPred;
+    private final DirectIntArray directStamp;
+    private final DirectIntArray directReached;
+
+    private final CSRGraph graph;
+    private VertexQueue queue;      // created on the first Dijkstra search
+    private final SearchMetrics metrics = new SearchMetrics();
+    private IndexedDHeap heap;      // created on the first A* search
+    private int generation;
+    private int numReached;
+    private int source;
+
+    /**
+     * Creates scratch memory for searches over a graph.
+     *      @param graph
+     */
+    public SearchState(CSRGraph graph)
+    {
+        this(graph, false);
+    }
+
+    /**
+     * Creates scratch memory for searches over a graph.
+     *      @param graph
+     *      @param trackPredecessors - also keep the predecessor of every vertex
+     */
+    public SearchState(CSRGraph graph, boolean trackPredecessors)
+    {
+        this(graph, trackPredecessors, false);
+    }
+
+    /**
+     * Creates scratch memory for searches over a graph.
+     *      @param graph
+     *      @param trackPredecessors - also keep the predecessor of every vertex
+     *      @param offHeap - keep the n-sized arrays outside the Java heap
+     */
+    public SearchState(CSRGraph graph, boolean trackPredecessors, boolean offHeap)
+    {
+        this.n = graph.getNumVertices();
+        this.dist = offHeap ? null : new int[n];
+        this.pred = trackPredecessors && !offHeap ? new int[n] : null;
+        this.stamp = offHeap ? null : new int[n];
+        this.reached = offHeap ? null : new int[n];
+        this.directDist = offHeap ? new DirectIntArray(n) : null;
+        this.directPred = trackPredecessors && offHeap ? new DirectIntArray(n) : null;
+        this.directStamp = offHeap ? new DirectIntArray(n) : null;
+        this.directReached = offHeap ? new DirectIntArray(n) : null;
+        this.graph = graph;
+    }
+
+    /**
+     * Forgets the previous search in O(1) and starts one from source.
+     *      @param source - 0-based starting vertex
+     */
+    public void begin(int source)
+    {
+        generation++;
+        if ( generation == Integer.MAX_VALUE )
+        {
+            // Stamps could collide after wrapping, so clear them once
+            if ( stamp != null )
+            {
+                Arrays.fill(stamp, 0);
+            }
+            else
+            {
+                directStamp.fill(0);
+            }
+            generation = 1;
+        }
+        if ( queue != null )
+        {
+            queue.clear();
+        }
+        numReached = 0;
+        this.source = source;
+        setDistance(source, 0);
+        if ( isTrackingPredecessors() )
+        {
+            setPredecessor(source, -1);
+        }
+    }
+
+    /**
+     * Returns the number of vertices of the graph
+     * @return
+     */
+    public int getNumVertices()
+    {
+        return n;
+    }
+
+    /**
+     * Returns true if this state keeps predecessors
+     * @return
+     */
+    public boolean isTrackingPredecessors()
+    {
+        return pred != null || directPred != null;
+    }
+
+    /**
+     * Returns the 0-based starting vertex of the current search
+     * @return
+     */
+    public int getSource()
+    {
+        return source;
+    }
+
+    /**
+     * Returns the shortest distance found so far to v, INFINITY if not reached
+     * @param v
+     * @return
+     */
+    public int getDistance(int v)
+    {
+        if ( dist != null )
+        {
+            return stamp[v] == generation ? dist[v] : INFINITY;
+        }
+        return directStamp.get(v) == generation ? directDist.get(v) : INFINITY;
+    }
+
+    /**
+     * Records a shorter distance to v.
+     *      @param v
+     *      @param d
+     */
+    public void setDistance(int v, int d)
+    {
+        if ( dist == null )
+        {
+            if ( directStamp.get(v) != generation )
+            {
+                directStamp.set(v, generation);
+                directReached.set(numReached++, v);
+            }
+            directDist.set(v, d);
+            return;
+        }
+        if ( stamp[v] != generation )
+        {
+            stamp[v] = generation;
+            reached[numReached++] = v;
+        }
+        dist[v] = d;
+    }
+
+    /**
+     * Records u as the vertex before v on the best path found so far. Call it
+     * right after setDistance(v, ...).
+     *      @param v
+     *      @param u
+     */
+    public void setPredecessor(int v, int u)
+    {
+        if ( pred != null )
+        {
+            pred[v] = u;
+        }
+        else
+        {
+            directPred.set(v, u);
+        }
+    }
+
+    /**
+     * Returns the vertex before v on the best path found to it, -1 for the source
+     * and for vertices not reached.
+     *      @param v
+     *      @return
+     */
+    public int getPredecessor(int v)
+    {
+        if ( !isTrackingPredecessors() )
+        {
+            throw new IllegalStateException("This search state does not track predecessors");
+        }
+        if ( !isReached(v) )
+        {
+            return -1;
+        }
+        return pred != null ? pred[v] : directPred.get(v);
+    }
+
+    /**
+     * Writes the path from the source to target into a buffer by following the
+     * predecessors back from target.
+     *      @param target - 0-based destination
+     *      @param path - cleared, then filled from source to target
+     *      @return false (and an empty path) if target was not reached
+     */
+    public boolean getPath(int target, PathBuffer path)
+    {
+        path.clear();
+        if ( !isReached(target) )
+        {
+            return false;
+        }
+        for ( int v = target; v != -1; v = getPredecessor(v) )
+        {
+            path.add(v);
+        }
+        path.reverse(0);
+        return true;
+    }
+
+    /**
+     * Returns true if the current search has reached v
+     * @param v
+     * @return
+     */
+    public boolean isReached(int v)
+    {
+        return (stamp != null ? stamp[v] : directStamp.get(v)) == generation;
+    }
+
+    /**
+     * Returns the number of vertices the current search reached
+     * @return
+     */
+    public int getNumReached()
+    {
+        return numReached;
+    }
+
+    /**
+     * Returns the i-th vertex the current search reached (0-based)
+     * @param i
+     * @return
+     */
+    public int getReached(int i)
+    {
+        return reached != null ? reached[i] : directReached.get(i);
+    }
+
+    /**
+     * Returns the vertex queue of this state, creating it on first use, so
+     * states that only run heap searches (A*, ContractionHierarchy) never
+     * allocate one
+     * @return
+     */
+    public VertexQueue getQueue()
+    {
+        if ( queue == null )
+        {
+            queue = VertexQueue.forGraph(graph);
+        }
+        return queue;
+    }
+
+    /**
+     * Returns the counters of the last search run with this state
+     * @return
+     */
+    public SearchMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Returns a comparison heap for searches whose keys are not plain distances
+     * (e.g. A*, where keys may jump by more than the largest weight), creating it
+     * on first use. It is cleared when returned.
+     *      @return
+     */
+    public IndexedDHeap getHeap()
+    {
+        if ( heap == null )
+        {
+            heap = new IndexedDHeap(n, 4);
+        }
+        heap.clear();
+        return heap;
+    }
+
+    /**
+     * Copies the distances of the current search into a new n-sized array,
+     * INFINITY for unreached vertices.
+     *      @return
+     */
+    public int[] toArray()
+    {
+        int[] copy = new int[n];
+        Arrays.fill(copy, INFINITY);
+        for ( int i = 0; i < numReached; i++ )
+        {
+            int v = getReached(i);
+            copy[v] = getDistance(v);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,197 @@
+/**
+ * ShortestPathTree: The distances and predecessors of one finished single-source
+ * search, from which the route to any vertex can be read without searching again.
+ *
+ *      pred[v] is the vertex before v on a shortest path from the source, -1 for
+ * the source and for unreachable vertices. Following pred from a target back to
+ * the source gives the path in reverse.
+ *
+ * File format (all numbers little-endian ints):
+ *      magic "SPTR", version (1), n, source, n predecessors, n distances
+ *
+ * Usage:
+ *      ShortestPathTree tree = engine.shortestPathTree(source);
+ *      PathBuffer path = new PathBuffer();
+ *      tree.getPath(target, path);
+ *      tree.write("source.spt");
+ *
+ *      Vertices are 0-based.
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public class ShortestPathTree
+{
+    private static final int MAGIC = 'S' | 'P' << 8 | 'T' << 16 | 'R' << 24;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+
+    private final int source;
+    private final int[] dist;
+    private final int[] pred;
+
+    /**
+     * Creates a tree from finished arrays, which it keeps without copying.
+     *      @param source - 0-based starting vertex
+     *      @param dist - n distances, SearchState.INFINITY if unreachable
+     *      @param pred - n predecessors, -1 for the source and unreachable vertices
+     */
+    public ShortestPathTree(int source, int[] dist, int[] pred)
+    {
+        if ( dist.length != pred.length )
+        {
+            throw new IllegalArgumentException("dist has " + dist.length + " entries but pred has " + pred.length);
+        }
+        this.source = source;
+        this.dist = dist;
+        this.pred = pred;
+    }
+
+    /**
+     * Copies the tree out of a finished search.
+     *      @param state - a state that tracks predecessors
+     *      @return
+     */
+    public static ShortestPathTree of(SearchState state)
+    {
+        int n = state.getNumVertices();
+        int[] pred = new int[n];
+        for ( int v = 0; v < n; v++ )
+        {
+            pred[v] = state.getPredecessor(v);
+        }
+        return new ShortestPathTree(state.getSource(), state.toArray(), pred);
+    }
+
+    /**
+     * Returns the 0-based starting vertex
+     * @return
+     */
+    public int getSource()
+    {
+        return source;
+    }
+
+    /**
+     * Returns the number of vertices
+     * @return
+     */
+    public int getNumVertices()
+    {
+        return dist.length;
+    }
+
+    /**
+     * Returns the distance from the source to v, SearchState.INFINITY if unreachable
+     * @param v
+     * @return
+     */
+    public int getDistance(int v)
+    {
+        return dist[v];
+    }
+
+    /**
+     * Returns the vertex before v on its shortest path, -1 for the source and
+     * unreachable vertices
+     * @param v
+     * @return
+     */
+    public int getPredecessor(int v)
+    {
+        return pred[v];
+    }
+
+    /**
+     * Writes the path from the source to target into a buffer.
+     *      @param target - 0-based destination
+     *      @param path - cleared, then filled from source to target
+     *      @return false (and an empty path) if target is unreachable
+     */
+    public boolean getPath(int target, PathBuffer path)
+    {
+        path.clear();
+        if ( dist[target] == SearchState.INFINITY )
+        {
+            return false;
+        }
+        for ( int v = target; v != -1; v = pred[v] )
+        {
+            path.add(v);
+        }
+        path.reverse(0);
+        return true;
+    }
+
+    /**
+     * Writes the tree to a file, replacing the file if it exists.
+     *      @param filename
+     *      @throws IOException
+     */
+    public void write(String filename) throws IOException
+    {
+        try ( FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING) )
+        {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(dist.length).putInt(source);
+            GraphSnapshot.writeFully(channel, header);
+
+            ByteBuffer row = ByteBuffer.allocate(4 * dist.length).order(ByteOrder.LITTLE_ENDIAN);
+            for ( int[] values : new int[][] { pred, dist } )
+            {
+                row.clear();
+                row.asIntBuffer().put(values);
+                GraphSnapshot.writeFully(channel, row);
+            }
+        }
+    }
+
+    /**
+     * Reads a tree written by write().
+     *      @param filename
+     *      @return the tree, or null if the file cannot be read
+     */
+    public static ShortestPathTree read(String filename)
+    {
+        try ( FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ) )
+        {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            GraphSnapshot.readFully(channel, header);
+            if ( header.getInt(0) != MAGIC || header.getInt(4) != VERSION )
+            {
+                throw new IOException("Not a shortest path tree: " + filename);
+            }
+            int n = header.getInt(8);
+            int source = header.getInt(12);
+            if ( n < 0 || source < 0 || source >= n || channel.size() != HEADER_SIZE + 8L * n )
+            {
+                throw new IOException("Corrupt shortest path tree: " + filename);
+            }
+
+            int[] pred = new int[n];
+            int[] dist = new int[n];
+            ByteBuffer row = ByteBuffer.allocate(4 * n).order(ByteOrder.LITTLE_ENDIAN);
+            for ( int[] values : new int[][] { pred, dist } )
+            {
+                GraphSnapshot.readFully(channel, row);
+                row.asIntBuffer().get(values);
+            }
+            return new ShortestPathTree(source, dist, pred);
+        }
+        catch (IOException e)
+        {
+            System.err.println("Could not read file " + filename + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * TestGraphWatcher
+ *
+ * Checks that GraphWatcher builds the graph MappedGraphReader builds from the
+ * same lines, and that it batches its publishes.
+ *
+ * Usage: java TestGraphWatcher [number of random graphs] [seed]
+ *
+ * This function prints one line per check and the number of failures.
+ *      - Random graphs from GraphGenerator, appended in pieces that cut lines
+ *        anywhere, then flushed, against MappedGraphReader on the whole file
+ *      - A few lines appended to a large graph wait for a batch; flush()
+ *        publishes them, and a watcher with maxDelay 0 publishes at once
+ *      - Lines with numbers too large for an int are dropped
+ *
+ * Author: Chau Ta
+ *
+ * Creation Date: October 18th, 2026
+ *
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+public class TestGraphWatcher {
+    private static int failures = 0;
+
+    public static void main (String[] args) throws IOException {
+        int graphs = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+
+        Path file = Files.createTempFile("watcher", ".txt");
+        try
+        {
+            Random random = new Random(seed);
+            int wrong = 0;
+            for ( int g = 0; g < graphs; g++ )
+            {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                int n = 1 + random.nextInt(500);
+                new GraphGenerator(random.nextLong(), 1000).writeRandom(out, n, random.nextInt(4 * n + 1));
+                byte[] bytes = out.toByteArray();
+
+                Files.write(file, new byte[0]);
+                GraphWatcher watcher = new GraphWatcher(file.toString());
+                int written = 0;
+                while ( written < bytes.length )
+                {
+                    int piece = Math.min(bytes.length - written, 1 + random.nextInt(200));
+                    Files.write(file, Arrays.copyOfRange(bytes, written, written + piece),
+                                StandardOpenOption.APPEND);
+                    written += piece;
+                    watcher.poll();
+                }
+                watcher.flush();
+                if ( !equal(new MappedGraphReader(file.toString()).readGraph(), watcher.getGraph()) )
+                {
+                    wrong++;
+                }
+            }
+            check(graphs + " appended graphs", wrong == 0, wrong + " differ");
+
+            // 2000 edges published, then 3 more: far less than a batch
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            new GraphGenerator(seed, 1000).writeRandom(out, 200, 2000);
+            Files.write(file, out.toByteArray());
+            GraphWatcher batched = new GraphWatcher(file.toString(), 1000, 60000);
+            GraphWatcher eager = new GraphWatcher(file.toString(), 1000, 0);
+            batched.poll();
+            eager.poll();
+            long version = batched.getSnapshot().getVersion();
+            append(file, "1\t2,7\t3,8\n2\t1,9\n");
+            check("small append waits for a batch", !batched.poll() && batched.getSnapshot().getVersion() == version,
+                  "published version " + batched.getSnapshot().getVersion());
+            check("flush publishes it", batched.flush() && batched.getGraph().getNumEdges() == 2003,
+                  batched.getGraph().getNumEdges() + " edges");
+            check("maxDelay 0 publishes at once", eager.poll() && eager.getGraph().getNumEdges() == 2003,
+                  eager.getGraph().getNumEdges() + " edges");
+
+            append(file, "1\t2,4294967297\n1\t99999999999,1\n1\t2,2147483647\n");
+            eager.poll();
+            check("numbers past Integer.MAX_VALUE are dropped", eager.getGraph().getNumEdges() == 2004
+                  && eager.getGraph().getWeight(eager.getGraph().edgeEnd(0) - 1) == Integer.MAX_VALUE,
+                  eager.getGraph().getNumEdges() + " edges");
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+
+        System.out.println("\n" + "failures: " + failures);
+        if ( failures > 0 )
+        {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Appends text to a file.
+     *      @param file
+     *      @param text
+     *      @throws IOException
+     */
+    private static void append(Path file, String text) throws IOException
+    {
+        Files.write(file, text.getBytes(StandardCharsets.US_ASCII), StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Returns true if two graphs have the same vertices, edges and weights in
+     * the same order.
+     *      @param a
+     *      @param b
+     *      @return
+     */
+    private static boolean equal(CSRGraph a, CSRGraph b)
+    {
+        if ( a.getNumVertices() != b.getNumVertices() || a.getNumEdges() != b.getNumEdges() )
+        {
+            return false;
+        }
+        for ( int v = 0; v < a.getNumVertices(); v++ )
+        {
+            if ( a.edgeStart(v) != b.edgeStart(v) || a.edgeEnd(v) != b.edgeEnd(v) )
+            {
+                return false;
+            }
+        }
+        for ( int e = 0; e < a.getNumEdges(); e++ )
+        {
+            if ( a.getTarget(e) != b.getTarget(e) || a.getWeight(e) != b.getWeight(e) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prints one check and counts it if it failed.
+     *      @param name
+     *      @param passed
+     *      @param detail - printed when the check failed
+     */
+    private static void check(String name, boolean passed, String detail)
+    {
+        System.out.println((passed ? "PASS " : "FAIL ") + name + (passed ? "" : ": " + detail));
+        if ( !passed )
+        {
+            failures++;
+        }
+    }
+}
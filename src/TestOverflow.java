@@ -0,0 +1,137 @@
+/**
+ * TestOverflow
+ *
+ * Runs every int engine on a chain whose distances pass Integer.MAX_VALUE and
+ * checks that they read as unreachable instead of wrapping around.
+ *
+ * Usage: java TestOverflow
+ *
+ * The graph is the chain 0 -> 1 -> ... -> 5 with every weight 2^30, so vertex k
+ * is k * 2^30 away from vertex 0: vertex 1 fits in an int, vertices 2..5 do not.
+ * This function prints one line per check and the number of failures.
+ *      - Indexer (every implementation), QueryEngine search, bidirectional and A*
+ *      - ContractionHierarchy and DeltaStepping
+ *      - LongQueryEngine and dijkstra5, which must give the true long distances
+ *
+ * Author: Chau Ta
+ *
+ * Creation Date: October 18th, 2026
+ *
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+public class TestOverflow {
+    private static final int INFINITY = Integer.MAX_VALUE;
+    private static final int N = 6;
+    private static final int WEIGHT = 1 << 30;
+
+    private static int failures = 0;
+
+    public static void main (String[] args) {
+        int[] offsets = new int[N + 1];
+        int[] targets = new int[N - 1];
+        int[] weights = new int[N - 1];
+        for ( int v = 0; v < N - 1; v++ )
+        {
+            offsets[v + 1] = v + 1;
+            targets[v] = v + 1;
+            weights[v] = WEIGHT;
+        }
+        offsets[N] = N - 1;
+        CSRGraph graph = new ArrayCSRGraph(offsets, targets, weights);
+
+        // 0 and 2^30 fit in an int, everything further is unreachable
+        int[] expected = { 0, WEIGHT, INFINITY, INFINITY, INFINITY, INFINITY };
+        long[] expectedLong = new long[N];
+        for ( int v = 0; v < N; v++ )
+        {
+            expectedLong[v] = (long) v * WEIGHT;
+        }
+
+        Indexer indexer = new Indexer(graph, 1);
+        checkRow("Indexer.dijkstra1", indexer.dijkstra1(), expected);
+        checkRow("Indexer.firstDijkstra2", indexer.firstDijkstra2(), expected);
+        checkRow("Indexer.secondDijkstra2", indexer.secondDijkstra2(), expected);
+        checkRow("Indexer.dijkstra3", indexer.dijkstra3(4), expected);
+        checkRow("Indexer.dijkstra4", indexer.dijkstra4(), expected);
+        check("Indexer.dijkstra5", Arrays.equals(indexer.dijkstra5(), expectedLong),
+              Arrays.toString(indexer.dijkstra5()));
+        check("LongQueryEngine", Arrays.equals(new LongQueryEngine(graph).distances(0), expectedLong),
+              Arrays.toString(new LongQueryEngine(graph).distances(0)));
+
+        QueryEngine engine = new QueryEngine(graph, true);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        checkRow("QueryEngine.distances", engine.distances(0), expected);
+        int[] bidirectional = new int[N];
+        int[] aStar = new int[N];
+        int[] point = new int[N];
+        int[] contracted = new int[N];
+        for ( int v = 0; v < N; v++ )
+        {
+            bidirectional[v] = engine.bidirectionalDistance(0, v);
+            aStar[v] = engine.aStarDistance(0, v, (x, target) -> 0);
+            point[v] = engine.distance(0, v);
+            contracted[v] = hierarchy.distance(0, v);
+        }
+        checkRow("QueryEngine.distance", point, expected);
+        checkRow("QueryEngine.bidirectionalDistance", bidirectional, expected);
+        checkRow("QueryEngine.aStarDistance", aStar, expected);
+        checkRow("ContractionHierarchy.distance", contracted, expected);
+
+        // Every edge heavy (2^28), every edge light (2^30 and the maximum), and the
+        // width DeltaStepping picks; a small delta would need maxWeight / delta buckets
+        for ( int delta : new int[] { WEIGHT / 4, WEIGHT, INFINITY, DeltaStepping.chooseDelta(graph) } )
+        {
+            DeltaStepping stepping = new DeltaStepping(graph, ForkJoinPool.commonPool(), delta);
+            try
+            {
+                checkRow("DeltaStepping.distances delta=" + delta, stepping.distances(0), expected);
+                ShortestPathTree tree = stepping.shortestPathTree(0);
+                int[] dist = new int[N];
+                for ( int v = 0; v < N; v++ )
+                {
+                    dist[v] = tree.getDistance(v);
+                }
+                checkRow("DeltaStepping.shortestPathTree delta=" + delta, dist, expected);
+            }
+            catch (RuntimeException e)
+            {
+                check("DeltaStepping delta=" + delta, false, e.toString());
+            }
+        }
+
+        System.out.println("\n" + "failures: " + failures);
+        if ( failures > 0 )
+        {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Checks one row of distances.
+     *      @param name
+     *      @param actual
+     *      @param expected
+     */
+    private static void checkRow(String name, int[] actual, int[] expected)
+    {
+        check(name, Arrays.equals(actual, expected), Arrays.toString(actual));
+    }
+
+    /**
+     * Prints one check and counts it if it failed.
+     *      @param name
+     *      @param passed
+     *      @param detail - printed when the check failed
+     */
+    private static void check(String name, boolean passed, String detail)
+    {
+        System.out.println((passed ? "PASS " : "FAIL ") + name + (passed ? "" : ": " + detail));
+        if ( !passed )
+        {
+            failures++;
+        }
+    }
+}
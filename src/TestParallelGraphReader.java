@@ -0,0 +1,234 @@
+/**
+ * TestParallelGraphReader
+ *
+ * Checks that ParallelGraphReader builds exactly the graph MappedGraphReader
+ * builds from the same file, for every way a file can be cut into chunks.
+ *
+ * Usage: java TestParallelGraphReader [number of random graphs] [seed]
+ *
+ * This function prints one line per check and the number of failures.
+ *      - Random and grid graphs from GraphGenerator
+ *      - Files ending without a newline, with "\r\n", with a blank line (and
+ *        text after it), with spaces between blocks and vertices without edges
+ *      - Pools of 1, 3 and 16 threads, so chunk borders fall on different bytes,
+ *        and a MappedGraphReader with windows of 1/16 of the file (at least 7
+ *        bytes), so numbers span windows, against the default window
+ *      - CSRGraph.load(file, true) against CSRGraph.load(file)
+ *      - Files every reader must reject: numbers past Integer.MAX_VALUE and
+ *        edges to vertices the graph does not have, lines of commas or letters
+ *
+ * Author: Chau Ta
+ *
+ * Creation Date: October 18th, 2026
+ *
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+public class TestParallelGraphReader {
+    private static int failures = 0;
+
+    public static void main (String[] args) throws IOException {
+        int graphs = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+
+        ForkJoinPool[] pools = { new ForkJoinPool(1), new ForkJoinPool(3), new ForkJoinPool(16) };
+        Path file = Files.createTempFile("parallel", ".txt");
+        try
+        {
+            String[] cases = {
+                "1\t2,5\t3,7\n2\t3,1\n3\n",
+                "1\t2,5\t3,7\n2\t3,1\n3",
+                "1\t2,5\t3,7\r\n2\t3,1\r\n3\r\n",
+                "1\t2,5\t3,7\n2\t3,1\n3\n\n4\t1,9\n",
+                "1 2,5 3,7\n2 3,1\n3\n",
+                "1\n2\n3\t1,0\n4\n",
+                "1\t2,5\n2\t1,1\n\nnot, a graph\n",
+            };
+            for ( int i = 0; i < cases.length; i++ )
+            {
+                Files.write(file, cases[i].getBytes(StandardCharsets.US_ASCII));
+                compare("case " + i, file, pools);
+            }
+
+            String[] bad = {
+                "1\t2,4294967297\n2\n",
+                "1\t2,2147483648\n2\n",
+                "1\t99999999999,1\n2\n",
+                "1\t5,1\n2\n",
+                "1\t0,1\n2\n",
+                "1\t2,1\n,\n2\t1,1\n",
+                "1\t2,1\n,,\n",
+                "1\t1,1\n,\n2\t1,1\n",
+                "1\t2,1\nx\n2\t1,1\n",
+            };
+            for ( int i = 0; i < bad.length; i++ )
+            {
+                Files.write(file, bad[i].getBytes(StandardCharsets.US_ASCII));
+                check("bad case " + i, rejected(file, pools), "loaded");
+            }
+
+            Random random = new Random(seed);
+            int wrong = 0;
+            for ( int g = 0; g < graphs; g++ )
+            {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                GraphGenerator generator = new GraphGenerator(random.nextLong(), 1 + random.nextInt(100000));
+                if ( g % 5 == 0 )
+                {
+                    generator.writeGrid(out, 1 + random.nextInt(40), 1 + random.nextInt(40));
+                }
+                else
+                {
+                    int n = 1 + random.nextInt(2000);
+                    generator.writeRandom(out, n, random.nextInt(8 * n + 1));
+                }
+                Files.write(file, out.toByteArray());
+                if ( !same(file, pools) )
+                {
+                    wrong++;
+                }
+            }
+            check(graphs + " generated graphs", wrong == 0, wrong + " differ");
+        }
+        finally
+        {
+            Files.delete(file);
+            for ( ForkJoinPool pool : pools )
+            {
+                pool.shutdown();
+            }
+        }
+
+        System.out.println("\n" + "failures: " + failures);
+        if ( failures > 0 )
+        {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Checks one file and prints the result.
+     *      @param name
+     *      @param file
+     *      @param pools
+     */
+    private static void compare(String name, Path file, ForkJoinPool[] pools)
+    {
+        check(name, same(file, pools), "graphs differ");
+    }
+
+    /**
+     * Returns true if every reader builds the same graph from file.
+     *      @param file
+     *      @param pools
+     *      @return
+     */
+    private static boolean same(Path file, ForkJoinPool[] pools)
+    {
+        String filename = file.toString();
+        long window = Math.max(7, file.toFile().length() / 16);
+        CSRGraph expected = new MappedGraphReader(filename).readGraph();
+        if ( expected == null )
+        {
+            return false;
+        }
+        boolean same = equal(expected, new MappedGraphReader(filename, window).readGraph())
+                       && equal(expected, CSRGraph.load(filename, true));
+        for ( ForkJoinPool pool : pools )
+        {
+            same &= equal(expected, new ParallelGraphReader(filename, pool).readGraph());
+        }
+        return same;
+    }
+
+    /**
+     * Returns true if every way of loading file throws an
+     * IllegalArgumentException (a NumberFormatException is one).
+     *      @param file
+     *      @param pools
+     *      @return
+     */
+    private static boolean rejected(Path file, ForkJoinPool[] pools)
+    {
+        String filename = file.toString();
+        boolean rejected = rejected(() -> CSRGraph.load(filename))
+                           && rejected(() -> CSRGraph.load(filename, true));
+        for ( ForkJoinPool pool : pools )
+        {
+            rejected &= rejected(() -> CSRGraph.checkTargets(new ParallelGraphReader(filename, pool).readGraph()));
+        }
+        return rejected;
+    }
+
+    /**
+     * Returns true if load throws an IllegalArgumentException.
+     *      @param load
+     *      @return
+     */
+    private static boolean rejected(Supplier<CSRGraph> load)
+    {
+        try
+        {
+            load.get();
+            return false;
+        }
+        catch (IllegalArgumentException e)
+        {
+            return true;
+        }
+    }
+
+    /**
+     * Returns true if two graphs have the same vertices, edges and weights in
+     * the same order.
+     *      @param a
+     *      @param b
+     *      @return
+     */
+    private static boolean equal(CSRGraph a, CSRGraph b)
+    {
+        if ( b == null || a.getNumVertices() != b.getNumVertices() || a.getNumEdges() != b.getNumEdges()
+                || a.getMaxWeight() != b.getMaxWeight() )
+        {
+            return false;
+        }
+        for ( int v = 0; v < a.getNumVertices(); v++ )
+        {
+            if ( a.edgeStart(v) != b.edgeStart(v) || a.edgeEnd(v) != b.edgeEnd(v) )
+            {
+                return false;
+            }
+        }
+        for ( int e = 0; e < a.getNumEdges(); e++ )
+        {
+            if ( a.getTarget(e) != b.getTarget(e) || a.getWeight(e) != b.getWeight(e) )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Prints one check and counts it if it failed.
+     *      @param name
+     *      @param passed
+     *      @param detail - printed when the check failed
+     */
+    private static void check(String name, boolean passed, String detail)
+    {
+        System.out.println((passed ? "PASS " : "FAIL ") + name + (passed ? "" : ": " + detail));
+        if ( !passed )
+        {
+            failures++;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/**
+ * TestQueryServer
+ *
+ * Starts a QueryServer on a free port and checks its answers against a
+ * QueryEngine on the same graph.
+ *
+ * Usage: java TestQueryServer [number of queries] [seed]
+ *
+ * This function prints one line per check and the number of failures.
+ *      - GET /distance for random pairs, including unreachable targets (null)
+ *      - GET /path: the distance matches, and the path runs from source to
+ *        target over edges of the graph whose weights add up to it
+ *      - POST /distance with the same pairs, repeated sources included
+ *      - A vertex outside the graph gets status 400
+ *      - QueryLoadGenerator at a fixed --rate sends every request without errors
+ *
+ * Author: Chau Ta
+ *
+ * Creation Date: October 18th, 2026
+ *
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class TestQueryServer {
+    private static int failures = 0;
+
+    public static void main (String[] args) throws IOException, InterruptedException {
+        int queries = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+
+        // Sparse enough that some targets are unreachable
+        Path file = Files.createTempFile("server", ".txt");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new GraphGenerator(seed, 100).writeRandom(out, 300, 600);
+        Files.write(file, out.toByteArray());
+        CSRGraph graph = CSRGraph.load(file.toString());
+        Files.delete(file);
+        QueryEngine engine = new QueryEngine(graph);
+
+        QueryServer server = new QueryServer(graph, 0, 4);
+        server.start();
+        try
+        {
+            String url = "http://localhost:" + server.getPort();
+            HttpClient client = HttpClient.newHttpClient();
+            Random random = new Random(seed);
+            int n = graph.getNumVertices();
+            int[] sources = new int[queries];
+            int[] targets = new int[queries];
+            for ( int i = 0; i < queries; i++ )
+            {
+                // Every fourth query reuses a source, so the batch groups some
+                sources[i] = i % 4 == 3 ? sources[i - 1] : random.nextInt(n);
+                targets[i] = random.nextInt(n);
+            }
+
+            int wrong = 0;
+            int unreachable = 0;
+            String detail = "";
+            for ( int i = 0; i < queries; i++ )
+            {
+                int expected = engine.distance(sources[i], targets[i]);
+                String body = get(client, url + "/distance?source=" + (sources[i] + 1)
+                                  + "&target=" + (targets[i] + 1));
+                String want = "{\"source\":" + (sources[i] + 1) + ",\"target\":" + (targets[i] + 1)
+                              + ",\"distance\":" + json(expected) + "}";
+                if ( !body.equals(want) )
+                {
+                    wrong++;
+                    detail = body + " instead of " + want;
+                }
+                if ( expected == SearchState.INFINITY )
+                {
+                    unreachable++;
+                }
+            }
+            check("GET /distance (" + unreachable + " unreachable)", wrong == 0 && unreachable > 0,
+                  wrong + " wrong, " + unreachable + " unreachable, e.g. " + detail);
+
+            wrong = 0;
+            Pattern answer = Pattern.compile("\"distance\":(\\w+),\"path\":\\[([\\d,]*)\\]");
+            for ( int i = 0; i < queries; i++ )
+            {
+                int expected = engine.distance(sources[i], targets[i]);
+                String body = get(client, url + "/path?source=" + (sources[i] + 1)
+                                  + "&target=" + (targets[i] + 1));
+                Matcher matcher = answer.matcher(body);
+                if ( !matcher.find() || !matcher.group(1).equals(json(expected))
+                        || !isPath(graph, matcher.group(2), sources[i], targets[i], expected) )
+                {
+                    wrong++;
+                    detail = body + " for distance " + json(expected);
+                }
+            }
+            check("GET /path", wrong == 0, wrong + " wrong, e.g. " + detail);
+
+            StringBuilder batch = new StringBuilder();
+            StringBuilder want = new StringBuilder();
+            for ( int i = 0; i < queries; i++ )
+            {
+                int expected = engine.distance(sources[i], targets[i]);
+                batch.append(sources[i] + 1).append(' ').append(targets[i] + 1).append('\n');
+                want.append(sources[i] + 1).append('\t').append(targets[i] + 1).append('\t')
+                    .append(expected == SearchState.INFINITY ? "inf" : Integer.toString(expected)).append('\n');
+            }
+            HttpResponse<String> posted = client.send(HttpRequest.newBuilder(URI.create(url + "/distance"))
+                                                              .POST(HttpRequest.BodyPublishers.ofString(batch.toString())).build(),
+                                                      HttpResponse.BodyHandlers.ofString());
+            check("POST /distance", posted.statusCode() == 200 && posted.body().equals(want.toString()),
+                  "status " + posted.statusCode());
+
+            HttpResponse<String> bad = client.send(HttpRequest.newBuilder(URI.create(url + "/distance?source=1&target="
+                                                                                      + (n + 1))).build(),
+                                                   HttpResponse.BodyHandlers.ofString());
+            check("vertex outside the graph", bad.statusCode() == 400, "status " + bad.statusCode());
+
+            QueryLoadGenerator generator = new QueryLoadGenerator(url, "distance", 1);
+            long[] nanos = new long[200];
+            int errors = generator.run(nanos.length, 4, seed, nanos, 2000);
+            boolean recorded = true;
+            for ( long latency : nanos )
+            {
+                recorded &= latency > 0;
+            }
+            check("QueryLoadGenerator --rate", errors == 0 && recorded, errors + " errors");
+        }
+        finally
+        {
+            server.stop(0);
+        }
+
+        System.out.println("\n" + "failures: " + failures);
+        if ( failures > 0 )
+        {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Sends a GET and returns the body.
+     *      @param client
+     *      @param url
+     *      @return
+     */
+    private static String get(HttpClient client, String url) throws IOException, InterruptedException
+    {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    /**
+     * Returns a distance as the server writes it in JSON.
+     *      @param d
+     *      @return
+     */
+    private static String json(int d)
+    {
+        return d == SearchState.INFINITY ? "null" : Integer.toString(d);
+    }
+
+    /**
+     * Returns true if the 1-based, comma-separated vertices run from source to
+     * target over edges whose lightest weights add up to distance, or are empty
+     * when target is unreachable.
+     *      @param graph
+     *      @param list
+     *      @param source
+     *      @param target
+     *      @param distance
+     *      @return
+     */
+    private static boolean isPath(CSRGraph graph, String list, int source, int target, int distance)
+    {
+        if ( list.isEmpty() )
+        {
+            return distance == SearchState.INFINITY;
+        }
+        String[] parts = list.split(",");
+        if ( Integer.parseInt(parts[0]) - 1 != source || Integer.parseInt(parts[parts.length - 1]) - 1 != target )
+        {
+            return false;
+        }
+        long total = 0;
+        for ( int i = 0; i + 1 < parts.length; i++ )
+        {
+            int from = Integer.parseInt(parts[i]) - 1;
+            int to = Integer.parseInt(parts[i + 1]) - 1;
+            long lightest = Long.MAX_VALUE;
+            for ( int e = graph.edgeStart(from); e < graph.edgeEnd(from); e++ )
+            {
+                if ( graph.getTarget(e) == to )
+                {
+                    lightest = Math.min(lightest, graph.getWeight(e));
+                }
+            }
+            if ( lightest == Long.MAX_VALUE )
+            {
+                return false;
+            }
+            total += lightest;
+        }
+        return total == distance;
+    }
+
+    /**
+     * Prints one check and counts it if it failed.
+     *      @param name
+     *      @param passed
+     *      @param detail - printed when the check failed
+     */
+    private static void check(String name, boolean passed, String detail)
+    {
+        System.out.println((passed ? "PASS " : "FAIL ") + name + (passed ? "" : ": " + detail));
+        if ( !passed )
+        {
+            failures++;
+        }
+    }
+}
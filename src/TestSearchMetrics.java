@@ -0,0 +1,158 @@
+/**
+ * TestSearchMetrics
+ *
+ * Checks that every search engine counts its work and records one search per
+ * query in a MetricsRegistry.
+ *
+ * Usage: java TestSearchMetrics [seed]
+ *
+ * The graph is a random grid from GraphGenerator, so every vertex is reachable.
+ * For each engine this function runs one query from the first to the last
+ * vertex and checks that the registry holds exactly one search, that it
+ * settled vertices and relaxed edges, that it relaxed no more edges than it
+ * scanned, and that it pushed every relaxed vertex plus its starting vertices
+ * (DeltaStepping settles and pushes every vertex at least once instead).
+ *      - QueryEngine search, bidirectional and A*
+ *      - ContractionHierarchy and DeltaStepping
+ *      - Indexer.dijkstra4, recorded from getMetrics()
+ * A query from a vertex to itself must still count as one search.
+ *
+ * Author: Chau Ta
+ *
+ * Creation Date: October 18th, 2026
+ *
+ */
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+public class TestSearchMetrics {
+    private static int failures = 0;
+
+    public static void main (String[] args) throws IOException {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 42;
+        if ( !SearchMetrics.ENABLED )
+        {
+            System.out.println("Metrics are off (-Ddijkstra.metrics=false), nothing to check");
+            return;
+        }
+
+        Path file = Files.createTempFile("metrics", ".txt");
+        CSRGraph graph;
+        try
+        {
+            try ( OutputStream out = Files.newOutputStream(file) )
+            {
+                new GraphGenerator(seed, 100).writeGrid(out, 30, 30);
+            }
+            graph = CSRGraph.load(file.toString());
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+        int last = graph.getNumVertices() - 1;
+
+        QueryEngine engine = new QueryEngine(graph);
+        MetricsRegistry registry = new MetricsRegistry();
+        engine.setMetricsRegistry(registry);
+        engine.distance(0, last);
+        checkOne("QueryEngine.distance", registry, 1);
+
+        registry = new MetricsRegistry();
+        engine.setMetricsRegistry(registry);
+        engine.bidirectionalDistance(0, last);
+        checkOne("QueryEngine.bidirectionalDistance", registry, 2);
+
+        registry = new MetricsRegistry();
+        engine.setMetricsRegistry(registry);
+        engine.aStarDistance(0, last, (v, target) -> 0);
+        checkOne("QueryEngine.aStarDistance", registry, 1);
+
+        registry = new MetricsRegistry();
+        engine.setMetricsRegistry(registry);
+        engine.bidirectionalDistance(last, last);
+        check("QueryEngine.bidirectionalDistance to itself", registry.getSearches() == 1,
+              registry.getSearches() + " searches");
+
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        registry = new MetricsRegistry();
+        hierarchy.setMetricsRegistry(registry);
+        hierarchy.distance(0, last);
+        checkOne("ContractionHierarchy.distance", registry, 2);
+
+        registry = new MetricsRegistry();
+        hierarchy.setMetricsRegistry(registry);
+        hierarchy.distance(last, last);
+        check("ContractionHierarchy.distance to itself", registry.getSearches() == 1,
+              registry.getSearches() + " searches");
+
+        DeltaStepping stepping = new DeltaStepping(graph, ForkJoinPool.commonPool(), DeltaStepping.chooseDelta(graph));
+        registry = new MetricsRegistry();
+        stepping.setMetricsRegistry(registry);
+        stepping.distances(0);
+        // A lowered vertex is only pushed when it moves to an earlier bucket
+        int n = graph.getNumVertices();
+        check("DeltaStepping.distances", registry.getSearches() == 1 && registry.getSettled() >= n
+              && registry.getPushes() >= n && registry.getPushes() <= registry.getRelaxations() + 1
+              && registry.getRelaxations() <= registry.getEdgesScanned(),
+              describe(registry));
+
+        Indexer indexer = new Indexer(graph, 1);
+        indexer.dijkstra4();
+        registry = new MetricsRegistry();
+        registry.record(indexer.getMetrics());
+        checkOne("Indexer.dijkstra4", registry, 1);
+
+        System.out.println("\n" + "failures: " + failures);
+        if ( failures > 0 )
+        {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Checks the registry of one query that starts from the given number of
+     * vertices (1 for a plain search, 2 for a bidirectional one).
+     *      @param name
+     *      @param registry
+     *      @param starts
+     */
+    private static void checkOne(String name, MetricsRegistry registry, int starts)
+    {
+        check(name, registry.getSearches() == 1 && registry.getSettled() > 0 && registry.getRelaxations() > 0
+              && registry.getRelaxations() <= registry.getEdgesScanned()
+              && registry.getPushes() == registry.getRelaxations() + starts,
+              describe(registry));
+    }
+
+    /**
+     * Returns the counters of a registry, for failure messages.
+     *      @param registry
+     *      @return
+     */
+    private static String describe(MetricsRegistry registry)
+    {
+        return registry.getSearches() + " searches, " + registry.getSettled() + " settled, "
+               + registry.getEdgesScanned() + " scanned, " + registry.getRelaxations() + " relaxed, "
+               + registry.getPushes() + " pushed";
+    }
+
+    /**
+     * Prints one check and counts it if it failed.
+     *      @param name
+     *      @param passed
+     *      @param detail - printed when the check failed
+     */
+    private static void check(String name, boolean passed, String detail)
+    {
+        System.out.println((passed ? "PASS " : "FAIL ") + name + (passed ? "" : ": " + detail));
+        if ( !passed )
+        {
+            failures++;
+        }
+    }
+}
@@ -0,0 +1,369 @@
+/**
+ * TestShortestPaths
+ *
+ * Runs every shortest path engine on seeded random graphs and checks each one
+ * against Indexer.firstDijkstra2, the PriorityQueue implementation the others
+ * replaced.
+ *
+ * Usage: java TestShortestPaths [number of random graphs] [seed]
+ *
+ * The graphs have vertices without edges (so some vertices are unreachable),
+ * self-loops, parallel edges and about one weight in five equal to 0; half have
+ * weights up to 10 (Dial's buckets), half up to 100000 (radix heap).
+ * This function prints one line per engine and the number of failures.
+ *      - Indexer: dijkstra1, secondDijkstra2, dijkstra3, dijkstra4 with each
+ *        queue, dijkstra5
+ *      - QueryEngine: distances, point-to-point, bidirectional and A* (zero and
+ *        ALT heuristics), paths, shortest path trees, off-heap scratch arrays
+ *      - LongQueryEngine, DeltaStepping, ContractionHierarchy, MultiSourceRunner,
+ *        DistanceCache and DynamicShortestPaths after random edge changes
+ * Every path must run from source to target over edges of the graph and add
+ * up to the distance reported with it.
+ *
+ * Author: Chau Ta
+ *
+ * Creation Date: October 18th, 2026
+ *
+ */
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class TestShortestPaths {
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    // Failed graphs per engine, and the first failure of each, in the order first checked
+    private static final Map<String, Integer> failed = new LinkedHashMap<String, Integer>();
+    private static final Map<String, String> firstFailure = new LinkedHashMap<String, String>();
+
+    public static void main (String[] args) throws IOException {
+        int graphs = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+
+        Random random = new Random(seed);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try
+        {
+            for ( int g = 0; g < graphs; g++ )
+            {
+                int n = g % 10 == 9 ? 300 + random.nextInt(300) : 1 + random.nextInt(40);
+                int maxWeight = g % 2 == 0 ? 10 : 100000;
+                checkGraph("graph " + g + " (n=" + n + ")", randomGraph(random, n, maxWeight), random, pool);
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+
+        int failures = 0;
+        for ( Map.Entry<String, Integer> engine : failed.entrySet() )
+        {
+            boolean passed = engine.getValue() == 0;
+            System.out.println((passed ? "PASS " : "FAIL ") + engine.getKey()
+                               + (passed ? "" : ": " + engine.getValue() + " graphs, first " + firstFailure.get(engine.getKey())));
+            if ( !passed )
+            {
+                failures++;
+            }
+        }
+        System.out.println("\n" + "failures: " + failures);
+        if ( failures > 0 )
+        {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Builds a random graph: a quarter of the vertices have no out-edges, the
+     * rest up to 4, with self-loops and parallel edges allowed.
+     *      @param random
+     *      @param n
+     *      @param maxWeight
+     *      @return
+     */
+    private static CSRGraph randomGraph(Random random, int n, int maxWeight)
+    {
+        int[] offsets = new int[n + 1];
+        int[] degree = new int[n];
+        for ( int v = 0; v < n; v++ )
+        {
+            degree[v] = random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(4);
+            offsets[v + 1] = offsets[v] + degree[v];
+        }
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        for ( int e = 0; e < targets.length; e++ )
+        {
+            targets[e] = random.nextInt(n);
+            weights[e] = random.nextInt(5) == 0 ? 0 : 1 + random.nextInt(maxWeight);
+        }
+        return new ArrayCSRGraph(offsets, targets, weights);
+    }
+
+    /**
+     * Runs every engine on one graph from a few sources.
+     *      @param name - printed with the first failure
+     *      @param graph
+     *      @param random
+     *      @param pool
+     */
+    private static void checkGraph(String name, CSRGraph graph, Random random, ForkJoinPool pool) throws IOException
+    {
+        int n = graph.getNumVertices();
+        int[] sources = new int[Math.min(n, 3)];
+        for ( int i = 0; i < sources.length; i++ )
+        {
+            sources[i] = random.nextInt(n);
+        }
+        int[][] expected = new int[sources.length][];
+        for ( int i = 0; i < sources.length; i++ )
+        {
+            expected[i] = new Indexer(graph, sources[i] + 1).firstDijkstra2();
+        }
+
+        QueryEngine engine = new QueryEngine(graph, true);
+        QueryEngine offHeap = new QueryEngine(graph, false, true);
+        LongQueryEngine longEngine = new LongQueryEngine(graph);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph);
+        AltHeuristic alt = AltHeuristic.build(engine, Math.min(n, 4), random.nextLong());
+        DistanceCache cache = new DistanceCache(graph, 1 << 20);
+        PathBuffer path = new PathBuffer();
+
+        for ( int i = 0; i < sources.length; i++ )
+        {
+            int s = sources[i];
+            int[] want = expected[i];
+            String where = name + " source " + s;
+
+            Indexer indexer = new Indexer(graph, s + 1);
+            record("Indexer.dijkstra1", where, want, indexer.dijkstra1());
+            record("Indexer.secondDijkstra2", where, want, indexer.secondDijkstra2());
+            record("Indexer.dijkstra3 (2-ary)", where, want, indexer.dijkstra3(2));
+            indexer = new Indexer(graph, s + 1);
+            record("Indexer.dijkstra3 (4-ary)", where, want, indexer.dijkstra3(4));
+            record("Indexer.dijkstra4", where, want, indexer.dijkstra4());
+            record("Indexer.dijkstra4 (RadixHeap)", where, want, new Indexer(graph, s + 1).dijkstra4(new RadixHeap(n)));
+            record("Indexer.dijkstra4 (DialQueue)", where, want,
+                   new Indexer(graph, s + 1).dijkstra4(new DialQueue(n, graph.getMaxWeight())));
+            record("Indexer.dijkstra5", where, want, toInts(new Indexer(graph, s + 1).dijkstra5()));
+            // On an Indexer that already ran dijkstra4, dijkstra5 must still do its own search
+            record("Indexer.dijkstra5 (after dijkstra4)", where, want, toInts(indexer.dijkstra5()));
+            if ( SearchMetrics.ENABLED )
+            {
+                int reachable = 0;
+                for ( int d : want )
+                {
+                    reachable += d == INFINITY ? 0 : 1;
+                }
+                record("Indexer.dijkstra5 settled (after dijkstra4)", where, new int[] { reachable },
+                       new int[] { (int) indexer.getMetrics().getSettled() });
+            }
+            record("LongQueryEngine.distances", where, want, toInts(longEngine.distances(s)));
+
+            record("QueryEngine.distances", where, want, engine.distances(s));
+            record("QueryEngine.distances (off-heap)", where, want, offHeap.distances(s));
+            record("QueryEngine.shortestPathTree", where, want, treeDistances(engine.shortestPathTree(s), graph, s));
+            record("DistanceCache.distances", where, want, cache.distances(s));
+            record("DistanceCache.distances (cached)", where, want, cache.distances(s));
+
+            for ( int delta : new int[] { 1, DeltaStepping.chooseDelta(graph), graph.getMaxWeight() + 1 } )
+            {
+                DeltaStepping stepping = new DeltaStepping(graph, pool, delta);
+                record("DeltaStepping.distances", where + " delta " + delta, want, stepping.distances(s));
+                record("DeltaStepping.shortestPathTree", where + " delta " + delta, want,
+                       treeDistances(stepping.shortestPathTree(s), graph, s));
+            }
+
+            // Point-to-point queries to every target
+            int[][] answers = new int[8][n];
+            for ( int t = 0; t < n; t++ )
+            {
+                answers[0][t] = engine.distance(s, t);
+                answers[1][t] = checkPath(graph, s, t, engine.path(s, t, path), path);
+                answers[2][t] = engine.bidirectionalDistance(s, t);
+                answers[3][t] = checkPath(graph, s, t, engine.bidirectionalPath(s, t, path), path);
+                answers[4][t] = engine.aStarDistance(s, t, (v, target) -> 0);
+                answers[5][t] = checkPath(graph, s, t, engine.aStarPath(s, t, alt, path), path);
+                answers[6][t] = hierarchy.distance(s, t);
+                answers[7][t] = checkPath(graph, s, t, hierarchy.path(s, t, path), path);
+            }
+            record("QueryEngine.distance", where, want, answers[0]);
+            record("QueryEngine.path", where, want, answers[1]);
+            record("QueryEngine.bidirectionalDistance", where, want, answers[2]);
+            record("QueryEngine.bidirectionalPath", where, want, answers[3]);
+            record("QueryEngine.aStarDistance (zero)", where, want, answers[4]);
+            record("QueryEngine.aStarPath (ALT)", where, want, answers[5]);
+            record("ContractionHierarchy.distance", where, want, answers[6]);
+            record("ContractionHierarchy.path", where, want, answers[7]);
+        }
+
+        // Every source at once, on several workers
+        int[][] rows = new int[sources.length][];
+        new MultiSourceRunner(engine, pool).run(sources, state -> {
+            int[] row = new int[n];
+            for ( int v = 0; v < n; v++ )
+            {
+                row[v] = state.getDistance(v);
+            }
+            synchronized ( rows )
+            {
+                for ( int i = 0; i < sources.length; i++ )
+                {
+                    if ( sources[i] == state.getSource() )
+                    {
+                        rows[i] = row;
+                    }
+                }
+            }
+        });
+        for ( int i = 0; i < sources.length; i++ )
+        {
+            record("MultiSourceRunner.run", name + " source " + sources[i], expected[i], rows[i]);
+        }
+
+        checkDynamic(name, graph, sources[0], random);
+    }
+
+    /**
+     * Changes random edges of an overlay, some to weight 0 and some removed,
+     * and checks DynamicShortestPaths against a new search after each repair.
+     *      @param name
+     *      @param graph
+     *      @param source
+     *      @param random
+     */
+    private static void checkDynamic(String name, CSRGraph graph, int source, Random random)
+    {
+        int n = graph.getNumVertices();
+        GraphOverlay overlay = new GraphOverlay(graph);
+        DynamicShortestPaths dynamic = new DynamicShortestPaths(overlay, source);
+        for ( int round = 0; round < 3; round++ )
+        {
+            for ( int k = 0; k < 1 + n / 4; k++ )
+            {
+                int u = random.nextInt(n);
+                int v = random.nextInt(n);
+                if ( random.nextInt(3) == 0 )
+                {
+                    overlay.removeEdge(u, v);
+                }
+                else
+                {
+                    overlay.setEdge(u, v, random.nextInt(4) == 0 ? 0 : random.nextInt(1 + 2 * graph.getMaxWeight()));
+                }
+            }
+            dynamic.repair();
+
+            CSRGraph changed = overlay.toGraph();
+            int[] want = new Indexer(changed, source + 1).firstDijkstra2();
+            int[] got = new int[n];
+            for ( int v = 0; v < n; v++ )
+            {
+                got[v] = dynamic.getDistance(v);
+            }
+            record("DynamicShortestPaths.repair", name + " round " + round, want, got);
+            record("DynamicShortestPaths.toTree", name + " round " + round, want,
+                   treeDistances(dynamic.toTree(), changed, source));
+        }
+    }
+
+    /**
+     * Returns the distances of a tree, or a row of -1 if any path in it does not
+     * add up to its distance.
+     *      @param tree
+     *      @param graph
+     *      @param source
+     *      @return
+     */
+    private static int[] treeDistances(ShortestPathTree tree, CSRGraph graph, int source)
+    {
+        int n = graph.getNumVertices();
+        int[] dist = new int[n];
+        PathBuffer path = new PathBuffer();
+        for ( int v = 0; v < n; v++ )
+        {
+            tree.getPath(v, path);
+            dist[v] = checkPath(graph, source, v, tree.getDistance(v), path);
+        }
+        return dist;
+    }
+
+    /**
+     * Returns distance if path is a valid path of that length from source to
+     * target (empty when distance is INFINITY), and -1 otherwise.
+     *      @param graph
+     *      @param source
+     *      @param target
+     *      @param distance
+     *      @param path
+     *      @return
+     */
+    private static int checkPath(CSRGraph graph, int source, int target, int distance, PathBuffer path)
+    {
+        if ( distance == INFINITY )
+        {
+            return path.isEmpty() ? distance : -1;
+        }
+        if ( path.isEmpty() || path.get(0) != source || path.get(path.size() - 1) != target )
+        {
+            return -1;
+        }
+        long length = 0;
+        for ( int i = 0; i + 1 < path.size(); i++ )
+        {
+            // The lightest of any parallel edges
+            long best = Long.MAX_VALUE;
+            int u = path.get(i);
+            for ( int e = graph.edgeStart(u); e < graph.edgeEnd(u); e++ )
+            {
+                if ( graph.getTarget(e) == path.get(i + 1) )
+                {
+                    best = Math.min(best, graph.getWeight(e));
+                }
+            }
+            if ( best == Long.MAX_VALUE )
+            {
+                return -1;
+            }
+            length += best;
+        }
+        return length == distance ? distance : -1;
+    }
+
+    /**
+     * Converts long distances to ints, with LongQueryEngine.INFINITY as INFINITY.
+     *      @param dist
+     *      @return
+     */
+    private static int[] toInts(long[] dist)
+    {
+        int[] ints = new int[dist.length];
+        for ( int v = 0; v < dist.length; v++ )
+        {
+            ints[v] = dist[v] == LongQueryEngine.INFINITY ? INFINITY : (int) dist[v];
+        }
+        return ints;
+    }
+
+    /**
+     * Counts one engine run, as failed if its distances differ.
+     *      @param engine
+     *      @param where - printed if this is the engine's first failure
+     *      @param expected
+     *      @param actual
+     */
+    private static void record(String engine, String where, int[] expected, int[] actual)
+    {
+        boolean passed = Arrays.equals(expected, actual);
+        failed.merge(engine, passed ? 0 : 1, Integer::sum);
+        if ( !passed && !firstFailure.containsKey(engine) )
+        {
+            firstFailure.put(engine, where);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * TestVertexQueue
+ *
+ * Checks that every VertexQueue settles vertices in the same order of keys as a
+ * plain array scan, including when the queue runs empty in the middle of a
+ * search and is filled again.
+ *
+ * Usage: java TestVertexQueue [number of random graphs] [seed]
+ *
+ * This function prints one line per check and the number of failures.
+ *      - A queue drained to empty, then given a larger key before a smaller one
+ *      - Dijkstra with each queue on random graphs against an O(n^2) scan,
+ *        with unreachable vertices, zero weights and reuse after clear()
+ *
+ * Author: Chau Ta
+ *
+ * Creation Date: October 18th, 2026
+ *
+ */
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class TestVertexQueue {
+    private static int failures = 0;
+
+    public static void main (String[] args) {
+        int graphs = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+
+        // The source is polled, the queue is empty, and its neighbours arrive
+        // in the order 10, 5, 7; they must come out as 5, 7, 10.
+        String[] names = { "IndexedDHeap", "RadixHeap", "DialQueue" };
+        for ( String name : names )
+        {
+            VertexQueue queue = newQueue(name, 4, 10);
+            queue.insertOrDecrease(0, 0);
+            int first = queue.pollMin();
+            queue.insertOrDecrease(1, 10);
+            queue.insertOrDecrease(2, 5);
+            queue.insertOrDecrease(3, 7);
+            int[] order = { first, queue.pollMin(), queue.pollMin(), queue.pollMin() };
+            check(name + " refill after empty", Arrays.equals(order, new int[] { 0, 2, 3, 1 }),
+                  Arrays.toString(order));
+        }
+
+        Random random = new Random(seed);
+        for ( String name : names )
+        {
+            int wrong = 0;
+            for ( int g = 0; g < graphs; g++ )
+            {
+                int n = 1 + random.nextInt(60);
+                int maxWeight = random.nextBoolean() ? 10 : 1000;
+                int[][] targets = new int[n][];
+                int[][] weights = new int[n][];
+                randomGraph(random, n, maxWeight, targets, weights);
+
+                // One queue for several sources, so clear() is checked too
+                VertexQueue queue = newQueue(name, n, maxWeight);
+                for ( int s = 0; s < Math.min(n, 3); s++ )
+                {
+                    queue.clear();
+                    if ( !Arrays.equals(search(queue, s, targets, weights), scan(s, targets, weights)) )
+                    {
+                        wrong++;
+                    }
+                }
+            }
+            check(name + " random graphs", wrong == 0, wrong + " wrong searches");
+        }
+
+        System.out.println("\n" + "failures: " + failures);
+        if ( failures > 0 )
+        {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Creates an empty queue of the named kind.
+     *      @param name
+     *      @param n
+     *      @param maxWeight
+     *      @return
+     */
+    private static VertexQueue newQueue(String name, int n, int maxWeight)
+    {
+        switch ( name )
+        {
+            case "IndexedDHeap":    return new IndexedDHeap(n, 4);
+            case "RadixHeap":       return new RadixHeap(n);
+            default:                return new DialQueue(n, maxWeight);
+        }
+    }
+
+    /**
+     * Fills targets[v] and weights[v] with random edges; some vertices get none,
+     * and about one weight in five is 0.
+     *      @param random
+     *      @param n
+     *      @param maxWeight
+     *      @param targets
+     *      @param weights
+     */
+    private static void randomGraph(Random random, int n, int maxWeight, int[][] targets, int[][] weights)
+    {
+        for ( int v = 0; v < n; v++ )
+        {
+            int degree = random.nextInt(4) == 0 ? 0 : random.nextInt(5);
+            targets[v] = new int[degree];
+            weights[v] = new int[degree];
+            for ( int j = 0; j < degree; j++ )
+            {
+                targets[v][j] = random.nextInt(n);
+                weights[v][j] = random.nextInt(5) == 0 ? 0 : random.nextInt(maxWeight + 1);
+            }
+        }
+    }
+
+    /**
+     * Dijkstra with the queue under test.
+     *      @param queue - an empty queue
+     *      @param source
+     *      @param targets
+     *      @param weights
+     *      @return distances, Integer.MAX_VALUE if unreachable, or null if the
+     *              queue returned a smaller key after a larger one
+     */
+    private static int[] search(VertexQueue queue, int source, int[][] targets, int[][] weights)
+    {
+        int[] dist = new int[targets.length];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[source] = 0;
+        queue.insertOrDecrease(source, 0);
+        int last = 0;
+        while ( !queue.isEmpty() )
+        {
+            int u = queue.pollMin();
+            if ( dist[u] < last )
+            {
+                return null;
+            }
+            last = dist[u];
+            for ( int j = 0; j < targets[u].length; j++ )
+            {
+                int v = targets[u][j];
+                int length = dist[u] + weights[u][j];
+                if ( length < dist[v] )
+                {
+                    dist[v] = length;
+                    queue.insertOrDecrease(v, length);
+                }
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * Dijkstra that finds the closest unsettled vertex by scanning every vertex.
+     *      @param source
+     *      @param targets
+     *      @param weights
+     *      @return distances, Integer.MAX_VALUE if unreachable
+     */
+    private static int[] scan(int source, int[][] targets, int[][] weights)
+    {
+        int n = targets.length;
+        int[] dist = new int[n];
+        boolean[] settled = new boolean[n];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[source] = 0;
+        while ( true )
+        {
+            int u = -1;
+            for ( int v = 0; v < n; v++ )
+            {
+                if ( !settled[v] && dist[v] != Integer.MAX_VALUE && (u == -1 || dist[v] < dist[u]) )
+                {
+                    u = v;
+                }
+            }
+            if ( u == -1 )
+            {
+                return dist;
+            }
+            settled[u] = true;
+            for ( int j = 0; j < targets[u].length; j++ )
+            {
+                int v = targets[u][j];
+                dist[v] = Math.min(dist[v], dist[u] + weights[u][j]);
+            }
+        }
+    }
+
+    /**
+     * Prints one check and counts it if it failed.
+     *      @param name
+     *      @param passed
+     *      @param detail - printed when the check failed
+     */
+    private static void check(String name, boolean passed, String detail)
+    {
+        System.out.println((passed ? "PASS " : "FAIL ") + name + (passed ? "" : ": " + detail));
+        if ( !passed )
+        {
+            failures++;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/**
+ * Trace: Records structured events (a kind and three numbers) from the loaders
+ * and search loops into a fixed-size ring buffer, from any number of threads.
+ *
+ *      Tracing is compiled in only when the JVM runs with -Ddijkstra.trace=true.
+ * ENABLED is a static final constant, so every call site written as
+ *
+ *      if ( Trace.ENABLED )
+ *      {
+ *          Trace.record(Trace.RELAX, u, v, length);
+ *      }
+ *
+ * is removed by the JIT when tracing is off, arguments included; nothing is
+ * built or allocated. When it is on, record() claims a slot with one atomic
+ * increment and writes plain numbers, never Strings, so tracing a search slows
+ * it down but makes no garbage. The buffer keeps the last CAPACITY events
+ * (-Ddijkstra.trace.capacity, 65536 by default, rounded up to a power of two);
+ * older ones are overwritten.
+ *
+ *      Each slot carries a sequence number that is cleared while the slot is
+ * written and set afterwards, so snapshot() skips any event a thread is still
+ * writing instead of returning a torn one.
+ *
+ * Usage:
+ *      java -Ddijkstra.trace=true BatchDriver --graph file --algorithm engine --trace trace.txt
+ *      List<Trace.Event> events = Trace.snapshot();
+ *      Trace.dump(System.err);
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+import java.io.PrintStream;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class Trace
+{
+    /** True when the JVM runs with -Ddijkstra.trace=true. */
+    public static final boolean ENABLED = Boolean.getBoolean("dijkstra.trace");
+
+    /** Number of events kept. */
+    public static final int CAPACITY = ENABLED ? Integer.highestOneBit(
+            Math.max(2 * Integer.getInteger("dijkstra.trace.capacity", 1 << 16) - 1, 1)) : 1;
+
+    // Event kinds; a, b and c are the numbers recorded with them
+    /** DataReader added an edge: a = start, b = destination, c = weight. */
+    public static final int EDGE = 1;
+    /** ParallelGraphReader parsed a chunk: a = pass (0 count, 1 fill), b = vertices, c = byte offset. */
+    public static final int CHUNK = 2;
+    /** A search settled a vertex: a = vertex, c = distance. */
+    public static final int SETTLE = 3;
+    /** A search found a shorter distance: a = from, b = to, c = new distance. */
+    public static final int RELAX = 4;
+
+    private static final String[] NAMES = { "?", "EDGE", "CHUNK", "SETTLE", "RELAX" };
+
+    private static final int MASK = CAPACITY - 1;
+    private static final AtomicLong cursor = new AtomicLong();
+    private static final AtomicLongArray sequence = new AtomicLongArray(CAPACITY);  // index of the event in a slot, -1 while written
+    private static final long[] times = new long[CAPACITY];
+    private static final long[] threads = new long[CAPACITY];
+    private static final int[] kinds = new int[CAPACITY];
+    private static final int[] as = new int[CAPACITY];
+    private static final int[] bs = new int[CAPACITY];
+    private static final long[] cs = new long[CAPACITY];
+
+    static
+    {
+        for ( int i = 0; i < CAPACITY; i++ )
+        {
+            sequence.set(i, -1);
+        }
+    }
+
+    /**
+     * Records one event. Call it inside "if ( Trace.ENABLED )".
+     *      @param kind - EDGE, CHUNK, SETTLE or RELAX
+     *      @param a
+     *      @param b
+     *      @param c
+     */
+    public static void record(int kind, int a, int b, long c)
+    {
+        if ( !ENABLED )
+        {
+            return;
+        }
+        long index = cursor.getAndIncrement();
+        int slot = (int) index & MASK;
+
+        sequence.set(slot, -1);
+        VarHandle.storeStoreFence();
+        times[slot] = System.nanoTime();
+        threads[slot] = Thread.currentThread().getId();
+        kinds[slot] = kind;
+        as[slot] = a;
+        bs[slot] = b;
+        cs[slot] = c;
+        sequence.setRelease(slot, index);
+    }
+
+    /**
+     * Returns the number of events recorded so far, including overwritten ones
+     * @return
+     */
+    public static long getRecorded()
+    {
+        return cursor.get();
+    }
+
+    /**
+     * Returns the events still in the buffer, oldest first. Events being written
+     * at this moment are left out.
+     *      @return
+     */
+    public static List<Event> snapshot()
+    {
+        long last = cursor.get();
+        long first = Math.max(0, last - CAPACITY);
+        List<Event> events = new ArrayList<Event>((int) (last - first));
+        for ( long index = first; index < last; index++ )
+        {
+            int slot = (int) index & MASK;
+            if ( sequence.getAcquire(slot) != index )
+            {
+                continue;
+            }
+            Event event = new Event(index, times[slot], threads[slot], kinds[slot], as[slot], bs[slot], cs[slot]);
+            VarHandle.loadLoadFence();
+            if ( sequence.get(slot) == index )
+            {
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Prints the events still in the buffer, one per line.
+     *      @param out
+     */
+    public static void dump(PrintStream out)
+    {
+        for ( Event event : snapshot() )
+        {
+            out.println(event);
+        }
+    }
+
+    /**
+     * One recorded event.
+     */
+    public static final class Event
+    {
+        private final long index;
+        private final long time;
+        private final long thread;
+        private final int kind;
+        private final int a;
+        private final int b;
+        private final long c;
+
+        private Event(long index, long time, long thread, int kind, int a, int b, long c)
+        {
+            this.index = index;
+            this.time = time;
+            this.thread = thread;
+            this.kind = kind;
+            this.a = a;
+            this.b = b;
+            this.c = c;
+        }
+
+        /**
+         * Returns the number of the event, counting from 0 since the JVM started
+         * @return
+         */
+        public long getIndex()
+        {
+            return index;
+        }
+
+        /**
+         * Returns System.nanoTime() when the event was recorded
+         * @return
+         */
+        public long getTime()
+        {
+            return time;
+        }
+
+        /**
+         * Returns the id of the thread that recorded the event
+         * @return
+         */
+        public long getThread()
+        {
+            return thread;
+        }
+
+        /**
+         * Returns the kind of the event (EDGE, CHUNK, ...)
+         * @return
+         */
+        public int getKind()
+        {
+            return kind;
+        }
+
+        /**
+         * Returns the first number of the event
+         * @return
+         */
+        public int getA()
+        {
+            return a;
+        }
+
+        /**
+         * Returns the second number of the event
+         * @return
+         */
+        public int getB()
+        {
+            return b;
+        }
+
+        /**
+         * Returns the third number of the event
+         * @return
+         */
+        public long getC()
+        {
+            return c;
+        }
+
+        /**
+         * Returns "index time thread KIND a b c", tab-separated
+         * @return string
+         */
+        public String toString()
+        {
+            String name = kind > 0 && kind < NAMES.length ? NAMES[kind] : Integer.toString(kind);
+            return index + "\t" + time + "\t" + thread + "\t" + name + "\t" + a + "\t" + b + "\t" + c;
+        }
+    }
+}
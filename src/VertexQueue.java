@@ -0,0 +1,68 @@
+/**
+ * VertexQueue: The priority queue operations a Dijkstra search needs, over
+ * vertices 0..n-1 keyed by int distances.
+ *
+ *      Each vertex is in the queue at most once; insertOrDecrease either adds it
+ * or lowers its key. Implementations may rely on Dijkstra's keys being monotone
+ * (no key smaller than the last polled one is ever inserted).
+ *
+ * Implementations:
+ *      1. IndexedDHeap: comparison-based d-ary heap, works for any weights
+ *      2. RadixHeap: monotone radix heap, O(log C) amortized per vertex
+ *      3. DialQueue: circular buckets, best when the max weight C is small
+ *
+ *  Author: Chau Ta
+ *
+ *  Creation Date: October 18th, 2026
+ *
+ */
+public interface VertexQueue
+{
+    /** Largest edge weight for which forGraph() picks Dial's buckets. */
+    int DIAL_MAX_WEIGHT = 1024;
+
+    /**
+     * Returns true if the queue holds no vertices
+     * @return
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns the number of vertices in the queue
+     * @return
+     */
+    int size();
+
+    /**
+     * Inserts v with the given key, or lowers its key if v is already queued.
+     *      @param v
+     *      @param key
+     */
+    void insertOrDecrease(int v, int key);
+
+    /**
+     * Removes and returns the vertex with the least key. The queue must not be empty.
+     * @return
+     */
+    int pollMin();
+
+    /**
+     * Removes every vertex so the queue can be reused for another search.
+     */
+    void clear();
+
+    /**
+     * Picks the fastest queue for a graph from its largest edge weight: Dial's
+     * buckets for small weights, a radix heap otherwise.
+     *      @param graph
+     *      @return an empty queue sized for the graph
+     */
+    static VertexQueue forGraph(CSRGraph graph)
+    {
+        if ( graph.getMaxWeight() <= DIAL_MAX_WEIGHT )
+        {
+            return new DialQueue(graph.getNumVertices(), graph.getMaxWeight());
+        }
+        return new RadixHeap(graph.getNumVertices());
+    }
+}